@@ -0,0 +1,73 @@
+package com.saasquatch.sdk;
+
+import static com.saasquatch.sdk.StubSaaSquatchServer.ACCOUNT_ID;
+import static com.saasquatch.sdk.StubSaaSquatchServer.USER_ID;
+
+import com.saasquatch.sdk.output.JsonObjectApiResponse;
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The same {@code getUser} call through the {@link SaaSquatchClient} {@code Publisher} API, the
+ * {@link AsyncSaaSquatchClient} {@code CompletionStage} API and the
+ * {@link SaaSquatchBlockingClient}, against {@link StubSaaSquatchServer}. With {@code -prof gc},
+ * the difference in {@code gc.alloc.rate.norm} is the per call allocation of each API on top of
+ * the shared request pipeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiStyleBenchmark {
+
+  private StubSaaSquatchServer server;
+  private SaaSquatchClient client;
+  private AsyncSaaSquatchClient asyncClient;
+  private SaaSquatchBlockingClient blockingClient;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    server = new StubSaaSquatchServer();
+    client = SaaSquatchClient.create(server.newClientOptionsBuilder().build());
+    asyncClient = AsyncSaaSquatchClient.create(server.newClientOptionsBuilder().build());
+    blockingClient = SaaSquatchBlockingClient.create(server.newClientOptionsBuilder().build());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    client.close();
+    asyncClient.close();
+    blockingClient.close();
+    server.close();
+  }
+
+  @Benchmark
+  public JsonObjectApiResponse publisher() {
+    return Flowable.fromPublisher(client.getUser(ACCOUNT_ID, USER_ID, null)).blockingSingle();
+  }
+
+  @Benchmark
+  public JsonObjectApiResponse completionStage() {
+    return asyncClient.getUser(ACCOUNT_ID, USER_ID, null).toCompletableFuture().join();
+  }
+
+  @Benchmark
+  public JsonObjectApiResponse blocking() {
+    return blockingClient.getUser(ACCOUNT_ID, USER_ID, null);
+  }
+
+}
@@ -0,0 +1,101 @@
+package com.saasquatch.sdk;
+
+import static com.saasquatch.sdk.StubSaaSquatchServer.GRAPHQL_JSON;
+import static com.saasquatch.sdk.StubSaaSquatchServer.USER_EVENT_RESULT_JSON;
+import static com.saasquatch.sdk.StubSaaSquatchServer.USER_JSON;
+import static com.saasquatch.sdk.StubSaaSquatchServer.WIDGET_UPSERT_JSON;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import com.saasquatch.sdk.internal.json.GsonUtils;
+import com.saasquatch.sdk.models.User;
+import com.saasquatch.sdk.models.UserEventResult;
+import com.saasquatch.sdk.models.WidgetUpsertResult;
+import com.saasquatch.sdk.output.ApiError;
+import com.saasquatch.sdk.output.GraphQLResult;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the streaming model adapters registered in {@link GsonUtils#gson} against plain
+ * reflective Gson binding with a tree-based {@link Date} adapter, which is what the SDK used
+ * before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelDecodeBenchmark {
+
+  private static final String API_ERROR_JSON = "{\"message\":\"Bad request\","
+      + "\"apiErrorCode\":\"INVALID_REQUEST\",\"statusCode\":400,\"rsCode\":\"RS-1\"}";
+
+  @Param({"streaming", "reflective"})
+  public String binding;
+
+  private Gson gson;
+  private User user;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    if ("streaming".equals(binding)) {
+      gson = GsonUtils.gson;
+    } else {
+      gson = new GsonBuilder()
+          .registerTypeAdapter(Date.class,
+              (JsonDeserializer<Date>) (json, typeOfT, context) -> new Date(json.getAsLong()))
+          .registerTypeAdapter(Date.class,
+              (JsonSerializer<Date>) (src, typeOfSrc, context) -> new JsonPrimitive(src.getTime()))
+          .create();
+    }
+    user = gson.fromJson(USER_JSON, User.class);
+  }
+
+  @Benchmark
+  public User decodeUser() {
+    return gson.fromJson(USER_JSON, User.class);
+  }
+
+  @Benchmark
+  public UserEventResult decodeUserEventResult() {
+    return gson.fromJson(USER_EVENT_RESULT_JSON, UserEventResult.class);
+  }
+
+  @Benchmark
+  public WidgetUpsertResult decodeWidgetUpsertResult() {
+    return gson.fromJson(WIDGET_UPSERT_JSON, WidgetUpsertResult.class);
+  }
+
+  @Benchmark
+  public GraphQLResult decodeGraphQLResult() {
+    return gson.fromJson(GRAPHQL_JSON, GraphQLResult.class);
+  }
+
+  @Benchmark
+  public ApiError decodeApiError() {
+    return gson.fromJson(API_ERROR_JSON, ApiError.class);
+  }
+
+  @Benchmark
+  public String encodeUser() {
+    return gson.toJson(user);
+  }
+
+}
@@ -0,0 +1,167 @@
+package com.saasquatch.sdk;
+
+import static com.saasquatch.sdk.StubSaaSquatchServer.ACCOUNT_ID;
+import static com.saasquatch.sdk.StubSaaSquatchServer.USER_ID;
+import static com.saasquatch.sdk.StubSaaSquatchServer.USER_JSON;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.saasquatch.sdk.http.Client5SaaSquatchHttpResponse;
+import com.saasquatch.sdk.http.SaaSquatchHttpResponse;
+import com.saasquatch.sdk.input.UserInput;
+import com.saasquatch.sdk.internal.InternalUtils;
+import com.saasquatch.sdk.internal.JsonEntityProducer;
+import com.saasquatch.sdk.output.JsonObjectApiResponse;
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.net.URIBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the individual stages of the {@link SaaSquatchClientImpl} request pipeline, so
+ * that the per-call CPU and allocation cost of the SDK can be told apart from the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestPipelineBenchmark {
+
+  private StubSaaSquatchServer server;
+  private SaaSquatchClientImpl client;
+  private CloseableHttpAsyncClient httpAsyncClient;
+  private RequestOptions requestOptions;
+  private UserInput userInput;
+  private String userUrl;
+  private SimpleHttpResponse plainResponse;
+  private SimpleHttpResponse gzipResponse;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    server = new StubSaaSquatchServer();
+    client = new SaaSquatchClientImpl(server.newClientOptionsBuilder().build());
+    httpAsyncClient = HttpAsyncClients.createDefault();
+    httpAsyncClient.start();
+    requestOptions = RequestOptions.newBuilder()
+        .addHeaders("X-Request-Id", "bench", "X-Trace", "abc")
+        .addQueryParams("extraFields", "referrals", "fields", "id")
+        .build();
+    final Map<String, Object> customFields = new HashMap<>();
+    for (int i = 0; i < 32; i++) {
+      customFields.put("field" + i, "value" + i);
+    }
+    userInput = UserInput.newBuilder()
+        .setAccountId(ACCOUNT_ID)
+        .setId(USER_ID)
+        .setFirstName("Bench")
+        .setCustomFields(customFields)
+        .build();
+    userUrl = "http://" + server.getAppDomain() + "/api/v1/" + StubSaaSquatchServer.TENANT_ALIAS
+        + "/open/account/" + ACCOUNT_ID + "/user/" + USER_ID;
+    plainResponse = SimpleHttpResponse.create(200, USER_JSON, ContentType.APPLICATION_JSON);
+    gzipResponse = SimpleHttpResponse.create(200, StubSaaSquatchServer.gzip(USER_JSON),
+        ContentType.APPLICATION_JSON);
+    gzipResponse.addHeader(HttpHeaders.CONTENT_ENCODING, InternalUtils.GZIP);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    httpAsyncClient.close();
+    client.close();
+    server.close();
+  }
+
+  @Benchmark
+  public String baseUriBuilderAndMutateUri() {
+    final URIBuilder uriBuilder = client.baseUriBuilder(requestOptions);
+    final List<String> pathSegments = client.baseTenantApiPathSegments(requestOptions);
+    Collections.addAll(pathSegments, "open", "account", ACCOUNT_ID, "user", USER_ID);
+    client.mutateUri(uriBuilder, pathSegments, requestOptions);
+    return uriBuilder.toString();
+  }
+
+  @Benchmark
+  public SimpleHttpRequest mutateRequest() {
+    final SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.get(userUrl);
+    client.mutateRequest(requestBuilder, requestOptions);
+    return requestBuilder.build();
+  }
+
+  @Benchmark
+  public long jsonEntityProducer() {
+    return produceAndRecycle(client.newJsonEntityProducer(userInput, -1));
+  }
+
+  @Benchmark
+  public long jsonEntityProducerGzip() {
+    return produceAndRecycle(client.newJsonEntityProducer(userInput, 0));
+  }
+
+  @Benchmark
+  public SimpleHttpResponse executeRequest() {
+    final SimpleHttpRequest request = SimpleRequestBuilder.get(userUrl).build();
+    return Flowable.fromPublisher(InternalUtils.executeRequest(httpAsyncClient, request))
+        .blockingSingle();
+  }
+
+  @Benchmark
+  public Object client5ResponsePlain() {
+    return decode(plainResponse);
+  }
+
+  @Benchmark
+  public Object client5ResponseGzip() {
+    return decode(gzipResponse);
+  }
+
+  @Benchmark
+  public String client5ResponseFirstHeader() {
+    return new Client5SaaSquatchHttpResponse(gzipResponse)
+        .getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+  }
+
+  @Benchmark
+  public byte[] getBodyBytesGzip() {
+    return InternalUtils.getBodyBytes(gzipResponse);
+  }
+
+  @Benchmark
+  public String getBodyTextPlain() {
+    return new String(plainResponse.getBodyBytes(), UTF_8);
+  }
+
+  private static long produceAndRecycle(JsonEntityProducer entityProducer) {
+    final long contentLength = entityProducer.getContentLength();
+    entityProducer.recycle();
+    return contentLength;
+  }
+
+  private static Object decode(SimpleHttpResponse response) {
+    final SaaSquatchHttpResponse httpResponse = new Client5SaaSquatchHttpResponse(response);
+    return new JsonObjectApiResponse(httpResponse).getData();
+  }
+
+}
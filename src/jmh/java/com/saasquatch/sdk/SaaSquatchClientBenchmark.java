@@ -0,0 +1,285 @@
+package com.saasquatch.sdk;
+
+import static com.saasquatch.sdk.StubSaaSquatchServer.ACCOUNT_ID;
+import static com.saasquatch.sdk.StubSaaSquatchServer.REFERRAL_CODE;
+import static com.saasquatch.sdk.StubSaaSquatchServer.USER_ID;
+import static com.saasquatch.sdk.StubSaaSquatchServer.USER_JWT;
+
+import com.saasquatch.sdk.input.ApplyReferralCodeInput;
+import com.saasquatch.sdk.input.DeleteAccountInput;
+import com.saasquatch.sdk.input.DeleteUserInput;
+import com.saasquatch.sdk.input.GetUserLinkInput;
+import com.saasquatch.sdk.input.GraphQLInput;
+import com.saasquatch.sdk.input.PushWidgetAnalyticsEventInput;
+import com.saasquatch.sdk.input.RenderWidgetInput;
+import com.saasquatch.sdk.input.UserEventDataInput;
+import com.saasquatch.sdk.input.UserEventInput;
+import com.saasquatch.sdk.input.UserIdInput;
+import com.saasquatch.sdk.input.UserInput;
+import com.saasquatch.sdk.input.WidgetType;
+import com.saasquatch.sdk.input.WidgetUpsertInput;
+import com.saasquatch.sdk.models.User;
+import com.saasquatch.sdk.models.UserEventResult;
+import com.saasquatch.sdk.models.WidgetUpsertResult;
+import com.saasquatch.sdk.output.ApiResponse;
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Publisher;
+
+/**
+ * End to end benchmarks for every public {@link SaaSquatchClient} operation against
+ * {@link StubSaaSquatchServer}. Run with {@code ./gradlew jmh}, which enables {@code -prof gc} so
+ * that allocations per call are reported alongside latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaaSquatchClientBenchmark {
+
+  @Param({"true", "false"})
+  public boolean contentCompressionEnabled;
+
+  private StubSaaSquatchServer server;
+  private SaaSquatchClient client;
+  private UserInput userInput;
+  private Map<String, Object> userInputMap;
+  private UserEventInput userEventInput;
+  private Map<String, Object> userEventInputMap;
+  private RenderWidgetInput renderWidgetInput;
+  private WidgetUpsertInput widgetUpsertInput;
+  private GetUserLinkInput getUserLinkInput;
+  private GraphQLInput graphQLInput;
+  private ApplyReferralCodeInput applyReferralCodeInput;
+  private DeleteUserInput deleteUserInput;
+  private DeleteAccountInput deleteAccountInput;
+  private PushWidgetAnalyticsEventInput pushWidgetAnalyticsEventInput;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    server = new StubSaaSquatchServer();
+    client = SaaSquatchClient.create(server.newClientOptionsBuilder()
+        .setContentCompressionEnabled(contentCompressionEnabled)
+        .build());
+    final Map<String, Object> customFields = new HashMap<>();
+    for (int i = 0; i < 32; i++) {
+      customFields.put("field" + i, "value" + i);
+    }
+    userInput = UserInput.newBuilder()
+        .setAccountId(ACCOUNT_ID)
+        .setId(USER_ID)
+        .setFirstName("Bench")
+        .setLastName("Mark")
+        .setEmail("bench@example.com")
+        .setLocale("en_US")
+        .setCustomFields(customFields)
+        .addToSegments("vip", "beta")
+        .build();
+    userInputMap = new HashMap<>();
+    userInputMap.put("accountId", ACCOUNT_ID);
+    userInputMap.put("id", USER_ID);
+    userInputMap.put("firstName", "Bench");
+    userInputMap.put("customFields", customFields);
+    final Map<String, Object> eventFields = new HashMap<>();
+    eventFields.put("revenue", 12.5);
+    eventFields.put("currency", "USD");
+    userEventInput = UserEventInput.newBuilder()
+        .setAccountId(ACCOUNT_ID)
+        .setUserId(USER_ID)
+        .addEvents(UserEventDataInput.newBuilder()
+            .setKey("purchase")
+            .setDateTriggered(new Date(1600000000000L))
+            .setFields(eventFields)
+            .build())
+        .build();
+    userEventInputMap = new HashMap<>();
+    userEventInputMap.put("accountId", ACCOUNT_ID);
+    userEventInputMap.put("userId", USER_ID);
+    final Map<String, Object> eventMap = new HashMap<>();
+    eventMap.put("key", "purchase");
+    eventMap.put("fields", eventFields);
+    userEventInputMap.put("events", Collections.singletonList(eventMap));
+    renderWidgetInput = RenderWidgetInput.newBuilder()
+        .setUser(UserIdInput.of(ACCOUNT_ID, USER_ID))
+        .setWidgetType(WidgetType.ofProgramWidget("program-a", "referrerWidget"))
+        .setEngagementMedium("EMBED")
+        .build();
+    widgetUpsertInput = WidgetUpsertInput.newBuilder()
+        .setUserInput(userInput)
+        .setWidgetType(WidgetType.ofProgramWidget("program-a", "referrerWidget"))
+        .setEngagementMedium("EMBED")
+        .build();
+    getUserLinkInput = GetUserLinkInput.newBuilder()
+        .setAccountId(ACCOUNT_ID)
+        .setUserId(USER_ID)
+        .setProgramId("program-a")
+        .setShareMedium("EMAIL")
+        .setEngagementMedium("EMBED")
+        .build();
+    graphQLInput = GraphQLInput.ofQuery("query { viewer { ... on User { id } } }");
+    applyReferralCodeInput = ApplyReferralCodeInput.newBuilder()
+        .setAccountId(ACCOUNT_ID)
+        .setUserId(USER_ID)
+        .setReferralCode(REFERRAL_CODE)
+        .build();
+    deleteUserInput = DeleteUserInput.newBuilder()
+        .setAccountId(ACCOUNT_ID)
+        .setUserId(USER_ID)
+        .build();
+    deleteAccountInput = DeleteAccountInput.newBuilder()
+        .setAccountId(ACCOUNT_ID)
+        .build();
+    pushWidgetAnalyticsEventInput = PushWidgetAnalyticsEventInput.newBuilder()
+        .setUser(UserIdInput.of(ACCOUNT_ID, USER_ID))
+        .setProgramId("program-a")
+        .setEngagementMedium("EMBED")
+        .build();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    client.close();
+    server.close();
+  }
+
+  private static <T> T block(Publisher<? extends ApiResponse<T>> publisher) {
+    return Flowable.fromPublisher(publisher).blockingSingle().getData();
+  }
+
+  @Benchmark
+  public String buildUserMessageLink() {
+    return client.buildUserMessageLink(getUserLinkInput, null);
+  }
+
+  @Benchmark
+  public Object graphQL() {
+    return block(client.graphQL(graphQLInput, null));
+  }
+
+  @Benchmark
+  public Object getUser() {
+    return block(client.getUser(ACCOUNT_ID, USER_ID, null));
+  }
+
+  @Benchmark
+  public User getUserToModel() {
+    return Flowable.fromPublisher(client.getUser(ACCOUNT_ID, USER_ID, null)).blockingSingle()
+        .toModel(User.class);
+  }
+
+  @Benchmark
+  public Object getUserWithUserJwt() {
+    return block(client.getUserWithUserJwt(USER_JWT, null));
+  }
+
+  @Benchmark
+  public Object renderWidget() {
+    return block(client.renderWidget(renderWidgetInput, null));
+  }
+
+  @Benchmark
+  public Object getWidgetConfigValues() {
+    return block(client.getWidgetConfigValues(renderWidgetInput, null));
+  }
+
+  @Benchmark
+  public Object userUpsert() {
+    return block(client.userUpsert(userInput, null));
+  }
+
+  @Benchmark
+  public Object userUpsertMap() {
+    return block(client.userUpsert(userInputMap, null));
+  }
+
+  @Benchmark
+  public Object userUpsertWithUserJwt() {
+    return block(client.userUpsertWithUserJwt(USER_JWT, null));
+  }
+
+  @Benchmark
+  public WidgetUpsertResult widgetUpsert() {
+    return Flowable.fromPublisher(client.widgetUpsert(widgetUpsertInput, null)).blockingSingle()
+        .toModel(WidgetUpsertResult.class);
+  }
+
+  @Benchmark
+  public Object getUserShareLinks() {
+    return block(client.getUserShareLinks(getUserLinkInput, null));
+  }
+
+  @Benchmark
+  public UserEventResult logUserEvent() {
+    return Flowable.fromPublisher(client.logUserEvent(userEventInput, null)).blockingSingle()
+        .toModel(UserEventResult.class);
+  }
+
+  @Benchmark
+  public Object logUserEventMap() {
+    return block(client.logUserEvent(userEventInputMap, null));
+  }
+
+  @Benchmark
+  public Object applyReferralCode() {
+    return block(client.applyReferralCode(applyReferralCodeInput, null));
+  }
+
+  @Benchmark
+  public Object validateReferralCode() {
+    return block(client.validateReferralCode(REFERRAL_CODE, null));
+  }
+
+  @Benchmark
+  public Object deleteUser() {
+    return Flowable.fromPublisher(client.deleteUser(deleteUserInput, null)).blockingSingle();
+  }
+
+  @Benchmark
+  public Object deleteAccount() {
+    return Flowable.fromPublisher(client.deleteAccount(deleteAccountInput, null)).blockingSingle();
+  }
+
+  @Benchmark
+  public Object blockUser() {
+    return block(client.blockUser(ACCOUNT_ID, USER_ID, null));
+  }
+
+  @Benchmark
+  public Object unblockUser() {
+    return block(client.unblockUser(ACCOUNT_ID, USER_ID, null));
+  }
+
+  @Benchmark
+  public Object pushWidgetLoadedAnalyticsEvent() {
+    return Flowable.fromPublisher(
+        client.pushWidgetLoadedAnalyticsEvent(pushWidgetAnalyticsEventInput, null))
+        .blockingSingle();
+  }
+
+  @Benchmark
+  public Object pushWidgetSharedAnalyticsEvent() {
+    return Flowable.fromPublisher(
+        client.pushWidgetSharedAnalyticsEvent(pushWidgetAnalyticsEventInput, null))
+        .blockingSingle();
+  }
+
+}
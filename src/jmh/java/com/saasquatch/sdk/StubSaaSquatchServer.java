@@ -0,0 +1,172 @@
+package com.saasquatch.sdk;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.saasquatch.sdk.auth.AuthMethod;
+import com.saasquatch.sdk.internal.InternalUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process HTTP server that answers every SaaSquatch endpoint used by {@link SaaSquatchClient}
+ * with a canned response, so benchmarks measure the SDK and not the network.
+ */
+final class StubSaaSquatchServer implements Closeable {
+
+  static final String TENANT_ALIAS = "benchtenant";
+  static final String ACCOUNT_ID = "bench-account";
+  static final String USER_ID = "bench-user";
+  static final String REFERRAL_CODE = "BENCHCODE";
+  static final String USER_JWT = "eyJhbGciOiJIUzI1NiJ9."
+      + Base64.getUrlEncoder().withoutPadding().encodeToString(("{\"user\":{\"id\":\"" + USER_ID
+      + "\",\"accountId\":\"" + ACCOUNT_ID + "\",\"email\":\"bench@example.com\"}}")
+      .getBytes(UTF_8)) + ".c2lnbmF0dXJl";
+
+  static final String USER_JSON = "{\"id\":\"" + USER_ID + "\",\"accountId\":\"" + ACCOUNT_ID
+      + "\",\"firstName\":\"Bench\",\"lastName\":\"Mark\",\"email\":\"bench@example.com\","
+      + "\"emailHash\":\"0123456789abcdef0123456789abcdef\",\"cookieId\":null,"
+      + "\"paymentProviderId\":null,\"referralCode\":\"BENCHMARK\","
+      + "\"referralCodes\":{\"program-a\":\"BENCHMARKA\",\"program-b\":\"BENCHMARKB\"},"
+      + "\"locale\":\"en_US\",\"countryCode\":\"CA\",\"imageUrl\":\"\",\"referable\":true,"
+      + "\"firstSeenIP\":\"127.0.0.1\",\"lastSeenIP\":\"127.0.0.1\","
+      + "\"dateCreated\":1600000000000,\"dateBlocked\":null,"
+      + "\"referredByCodes\":[\"FRIENDCODE\"],\"referredBy\":{\"code\":\"FRIENDCODE\"},"
+      + "\"shareLinks\":{\"shareLink\":\"https://ssqt.co/abc\"},"
+      + "\"programShareLinks\":{\"program-a\":{\"cleanShareLink\":\"https://ssqt.co/abc\"}},"
+      + "\"customFields\":" + customFieldsJson(64) + ","
+      + "\"segments\":[\"vip\",\"beta\"]}";
+  static final String USER_EVENT_RESULT_JSON = "{\"accountId\":\"" + ACCOUNT_ID
+      + "\",\"userId\":\"" + USER_ID + "\",\"events\":[{\"id\":\"evt1\",\"key\":\"purchase\","
+      + "\"fields\":{\"revenue\":12.5,\"currency\":\"USD\"},\"dateTriggered\":1600000000000,"
+      + "\"dateReceived\":1600000000001,\"dateProcessed\":1600000000002}]}";
+  static final String WIDGET_UPSERT_JSON = "{\"template\":\"<html><body>widget</body></html>\","
+      + "\"jsOptions\":{},\"user\":" + USER_JSON + "}";
+  static final String SHARE_LINKS_JSON = "{\"EMAIL\":\"https://ssqt.co/e\","
+      + "\"FACEBOOK\":\"https://ssqt.co/f\",\"TWITTER\":\"https://ssqt.co/t\"}";
+  static final String CODE_JSON = "{\"code\":\"" + REFERRAL_CODE + "\",\"reward\":{}}";
+  static final String GRAPHQL_JSON = "{\"data\":{\"renderWidget\":{"
+      + "\"template\":\"<html><body>widget</body></html>\","
+      + "\"widgetConfig\":{\"values\":{\"title\":\"Refer a friend\",\"color\":\"#fff\"}}}}}";
+
+  private final HttpServer httpServer;
+  private final ExecutorService executor;
+
+  StubSaaSquatchServer() throws IOException {
+    this.httpServer = HttpServer.create(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+    this.executor = Executors.newCachedThreadPool(r -> {
+      final Thread thread = new Thread(r, "stub-saasquatch-server");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.httpServer.setExecutor(executor);
+    this.httpServer.createContext("/", this::handle);
+    this.httpServer.start();
+  }
+
+  /**
+   * @return The app domain to pass to {@link ClientOptions.Builder#setAppDomain(String)}
+   */
+  String getAppDomain() {
+    return "localhost:" + httpServer.getAddress().getPort();
+  }
+
+  ClientOptions.Builder newClientOptionsBuilder() {
+    return ClientOptions.newBuilder()
+        .setAppDomain(getAppDomain())
+        .setTenantAlias(TENANT_ALIAS)
+        .setAuthMethod(AuthMethod.ofTenantApiKey("TEST_BENCH_API_KEY"))
+        .setMaxConcurrentRequests(32);
+  }
+
+  @Override
+  public void close() {
+    httpServer.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (InputStream requestBody = exchange.getRequestBody()) {
+      InternalUtils.toByteArray(requestBody);
+    }
+    final String path = exchange.getRequestURI().getRawPath();
+    final String method = exchange.getRequestMethod();
+    final String body;
+    if (path.startsWith("/a/") || method.equals("DELETE")) {
+      body = null;
+    } else if (path.endsWith("/graphql")) {
+      body = GRAPHQL_JSON;
+    } else if (path.endsWith("/events")) {
+      body = USER_EVENT_RESULT_JSON;
+    } else if (path.endsWith("/upsert")) {
+      body = WIDGET_UPSERT_JSON;
+    } else if (path.endsWith("/shareurls")) {
+      body = SHARE_LINKS_JSON;
+    } else if (path.contains("/open/code/")) {
+      body = CODE_JSON;
+    } else {
+      body = USER_JSON;
+    }
+    if (body == null) {
+      exchange.sendResponseHeaders(204, -1);
+      exchange.close();
+      return;
+    }
+    final String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+    final boolean gzip = acceptEncoding != null && acceptEncoding.contains(InternalUtils.GZIP);
+    final byte[] bodyBytes = gzip ? gzip(body) : body.getBytes(UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    if (gzip) {
+      exchange.getResponseHeaders().set("Content-Encoding", InternalUtils.GZIP);
+    }
+    exchange.sendResponseHeaders(200, bodyBytes.length);
+    try (OutputStream responseBody = exchange.getResponseBody()) {
+      responseBody.write(bodyBytes);
+    }
+  }
+
+  static byte[] gzip(String s) throws IOException {
+    final ByteArrayOutputStream baOut = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzipOut = new GZIPOutputStream(baOut)) {
+      gzipOut.write(s.getBytes(UTF_8));
+    }
+    return baOut.toByteArray();
+  }
+
+  private static String customFieldsJson(int size) {
+    final StringBuilder sb = new StringBuilder("{");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append("\"field").append(i).append("\":");
+      switch (i % 4) {
+        case 0:
+          sb.append('"').append("value-").append(i).append('"');
+          break;
+        case 1:
+          sb.append(i * 1.5);
+          break;
+        case 2:
+          sb.append(i % 3 == 0);
+          break;
+        default:
+          sb.append("[\"a\",\"b\",{\"nested\":").append(i).append("}]");
+          break;
+      }
+    }
+    return sb.append('}').toString();
+  }
+
+}
@@ -0,0 +1,628 @@
+package com.saasquatch.sdk;
+
+import com.saasquatch.sdk.exceptions.SaaSquatchIOException;
+import com.saasquatch.sdk.internal.SingleValuePublisher;
+import com.saasquatch.sdk.internal.TaskScheduler;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.reactivestreams.Publisher;
+
+/**
+ * A request that is ready to be sent, along with how its response turns into the result. Nothing
+ * is sent until the call is started, and every start sends the request again.<br>
+ * The result is delivered straight from the HTTP client callback, with the response wrapping and
+ * error mapping done inline by {@link #map(Mapper)}, so the same call can back the
+ * {@link Publisher} API of {@link SaaSquatchClient}, the blocking API of
+ * {@link SaaSquatchBlockingClient} and the {@link java.util.concurrent.CompletionStage} API of
+ * {@link AsyncSaaSquatchClient}. The {@link Publisher} side comes from
+ * {@link SingleValuePublisher}, so no reactive library is involved either.
+ *
+ * @author sli
+ */
+abstract class ApiCall<T> extends SingleValuePublisher<T> {
+
+  private static final Cancellable CANCELLED = () -> false;
+
+  /**
+   * Start the call
+   *
+   * @return a {@link Cancellable} for the call
+   */
+  @Override
+  protected abstract Cancellable start(@Nonnull FutureCallback<T> callback);
+
+  /**
+   * @return a call whose result is the result of this call transformed by the given
+   *         {@link Mapper}. A {@link RuntimeException} thrown by the {@link Mapper} fails the call.
+   */
+  final <R> ApiCall<R> map(@Nonnull Mapper<? super T, ? extends R> mapper) {
+    final ApiCall<T> upstream = this;
+    return new ApiCall<R>() {
+      @Override
+      protected Cancellable start(@Nonnull FutureCallback<R> callback) {
+        return upstream.start(new FutureCallback<T>() {
+
+          @Override
+          public void completed(T result) {
+            final R mapped;
+            try {
+              mapped = mapper.apply(result);
+            } catch (RuntimeException e) {
+              callback.failed(e);
+              return;
+            }
+            callback.completed(mapped);
+          }
+
+          @Override
+          public void failed(Exception ex) {
+            callback.failed(ex);
+          }
+
+          @Override
+          public void cancelled() {
+            callback.cancelled();
+          }
+
+        });
+      }
+    };
+  }
+
+  /**
+   * @return a call that fails with a {@link SaaSquatchIOException} caused by a
+   *         {@link TimeoutException} and cancels this call if it's not over by the given deadline
+   *         in milliseconds since the epoch
+   */
+  final ApiCall<T> withDeadline(long deadlineEpochMillis, @Nonnull TaskScheduler scheduler) {
+    final ApiCall<T> upstream = this;
+    return new ApiCall<T>() {
+      @Override
+      protected Cancellable start(@Nonnull FutureCallback<T> callback) {
+        final long remainingMillis = deadlineEpochMillis - System.currentTimeMillis();
+        if (remainingMillis <= 0) {
+          callback.failed(deadlineExceeded());
+          return () -> false;
+        }
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<Cancellable> upstreamCancellable = new AtomicReference<>();
+        final Cancellable timer = scheduler.schedule(() -> {
+          if (done.compareAndSet(false, true)) {
+            callback.failed(deadlineExceeded());
+            cancel(upstreamCancellable);
+          }
+        }, remainingMillis);
+        final Cancellable _upstreamCancellable = upstream.start(new FutureCallback<T>() {
+
+          @Override
+          public void completed(T result) {
+            if (done.compareAndSet(false, true)) {
+              timer.cancel();
+              callback.completed(result);
+            }
+          }
+
+          @Override
+          public void failed(Exception ex) {
+            if (done.compareAndSet(false, true)) {
+              timer.cancel();
+              callback.failed(ex);
+            }
+          }
+
+          @Override
+          public void cancelled() {
+            if (done.compareAndSet(false, true)) {
+              timer.cancel();
+              callback.cancelled();
+            }
+          }
+
+        });
+        // The deadline passed while starting
+        if (!upstreamCancellable.compareAndSet(null, _upstreamCancellable)) {
+          _upstreamCancellable.cancel();
+        }
+        return () -> {
+          timer.cancel();
+          return cancel(upstreamCancellable);
+        };
+      }
+    };
+  }
+
+  /**
+   * @return a call that starts this call again after a backoff if it fails in a way the given
+   *         {@link RetryPolicy} retries, for as long as the policy allows and the given deadline in
+   *         milliseconds since the epoch, if any, is not too close
+   */
+  final ApiCall<T> withRetries(@Nonnull RetryPolicy retryPolicy,
+      @Nullable Long deadlineEpochMillis, @Nonnull TaskScheduler scheduler) {
+    final ApiCall<T> upstream = this;
+    return new ApiCall<T>() {
+      @Override
+      protected Cancellable start(@Nonnull FutureCallback<T> callback) {
+        retryPolicy.getRetryBudget().deposit();
+        final RetryingCallback<T> retryingCallback = new RetryingCallback<>(upstream, callback,
+            retryPolicy, deadlineEpochMillis, scheduler);
+        retryingCallback.attempt();
+        return retryingCallback;
+      }
+    };
+  }
+
+  /**
+   * @return a call that fails right away with a
+   *         {@link com.saasquatch.sdk.exceptions.SaaSquatchCircuitBreakerOpenException} if the
+   *         given {@link CircuitBreaker} doesn't let it through, and reports the outcome of this
+   *         call to the {@link CircuitBreaker} otherwise
+   */
+  final ApiCall<T> withCircuitBreaker(@Nonnull CircuitBreaker circuitBreaker) {
+    final ApiCall<T> upstream = this;
+    return new ApiCall<T>() {
+      @Override
+      protected Cancellable start(@Nonnull FutureCallback<T> callback) {
+        final long generation = circuitBreaker.tryAcquirePermission();
+        if (generation < 0) {
+          callback.failed(circuitBreaker.newOpenException());
+          return () -> false;
+        }
+        final long startNanos = System.nanoTime();
+        return upstream.start(new FutureCallback<T>() {
+
+          @Override
+          public void completed(T result) {
+            circuitBreaker.onResult(generation, System.nanoTime() - startNanos, false);
+            callback.completed(result);
+          }
+
+          @Override
+          public void failed(Exception ex) {
+            circuitBreaker.onResult(generation, System.nanoTime() - startNanos,
+                CircuitBreaker.isFailure(ex));
+            callback.failed(ex);
+          }
+
+          @Override
+          public void cancelled() {
+            circuitBreaker.onCancelled(generation, System.nanoTime() - startNanos);
+            callback.cancelled();
+          }
+
+        });
+      }
+    };
+  }
+
+  /**
+   * @return a call that starts this call a second time if it has not answered within the hedging
+   *         delay of the given {@link HedgingPolicy} for the given operation. The first attempt to
+   *         answer wins and the other one is cancelled.
+   */
+  final ApiCall<T> withHedging(@Nonnull HedgingPolicy hedgingPolicy,
+      @Nonnull ApiOperation operation, @Nonnull TaskScheduler scheduler) {
+    final ApiCall<T> upstream = this;
+    return new ApiCall<T>() {
+      @Override
+      protected Cancellable start(@Nonnull FutureCallback<T> callback) {
+        hedgingPolicy.getHedgingBudget().deposit();
+        final HedgingCallback<T> hedgingCallback =
+            new HedgingCallback<>(upstream, callback, hedgingPolicy, operation);
+        hedgingCallback.attempt(0);
+        hedgingCallback.scheduleHedge(scheduler);
+        return hedgingCallback;
+      }
+    };
+  }
+
+  private static boolean cancel(@Nonnull AtomicReference<Cancellable> cancellableRef) {
+    final Cancellable cancellable = cancellableRef.getAndSet(CANCELLED);
+    return cancellable != null && cancellable != CANCELLED && cancellable.cancel();
+  }
+
+  private static SaaSquatchIOException deadlineExceeded() {
+    return new SaaSquatchIOException("Deadline exceeded",
+        new TimeoutException("Deadline exceeded"));
+  }
+
+  /**
+   * Start the call and wait for the result. The wait is done with {@link CountDownLatch}, which
+   * parks the current thread instead of blocking on a monitor, so a virtual thread unmounts from
+   * its carrier while waiting.
+   *
+   * @throws RuntimeException the exception the call failed with, as is if it's unchecked
+   */
+  final T await() {
+    final BlockingCallback<T> callback = new BlockingCallback<>();
+    final Cancellable cancellable = start(callback);
+    try {
+      callback.latch.await();
+    } catch (InterruptedException e) {
+      cancellable.cancel();
+      Thread.currentThread().interrupt();
+      throw new SaaSquatchIOException("Interrupted while waiting for the response", e);
+    }
+    if (callback.error != null) {
+      if (callback.error instanceof RuntimeException) {
+        throw (RuntimeException) callback.error;
+      }
+      throw new SaaSquatchIOException(callback.error.getMessage(), callback.error);
+    }
+    return callback.result;
+  }
+
+  /**
+   * Transformation of a call result. This is not {@code java.util.function.Function}, which is
+   * not available on older Android versions.
+   */
+  interface Mapper<T, R> {
+
+    R apply(T t);
+
+  }
+
+  /**
+   * The attempts of a call with retries. Between attempts, the call is backing off and the
+   * {@link Cancellable} in hand is the timer for the next attempt.
+   */
+  private static final class RetryingCallback<T> implements FutureCallback<T>, Cancellable {
+
+    private final ApiCall<T> upstream;
+    private final FutureCallback<T> callback;
+    private final RetryPolicy retryPolicy;
+    private final Long deadlineEpochMillis;
+    private final TaskScheduler scheduler;
+    // All guarded by this
+    private int attempts;
+    private Cancellable current;
+    private boolean backingOff;
+    private boolean cancelled;
+
+    RetryingCallback(@Nonnull ApiCall<T> upstream, @Nonnull FutureCallback<T> callback,
+        @Nonnull RetryPolicy retryPolicy, @Nullable Long deadlineEpochMillis,
+        @Nonnull TaskScheduler scheduler) {
+      this.upstream = upstream;
+      this.callback = callback;
+      this.retryPolicy = retryPolicy;
+      this.deadlineEpochMillis = deadlineEpochMillis;
+      this.scheduler = scheduler;
+    }
+
+    void attempt() {
+      final int attempt;
+      synchronized (this) {
+        if (cancelled) {
+          return;
+        }
+        attempt = ++attempts;
+        backingOff = false;
+        current = null;
+      }
+      final Cancellable cancellable = upstream.start(this);
+      final boolean cancelNow;
+      synchronized (this) {
+        // Unless the attempt is already over
+        if (attempts != attempt || backingOff) {
+          return;
+        }
+        current = cancellable;
+        cancelNow = cancelled;
+      }
+      if (cancelNow) {
+        cancellable.cancel();
+      }
+    }
+
+    @Override
+    public void completed(T result) {
+      callback.completed(result);
+    }
+
+    @Override
+    public void failed(Exception ex) {
+      // Never call back while holding the lock
+      final int attempt;
+      final boolean wasCancelled;
+      synchronized (this) {
+        wasCancelled = cancelled;
+        attempt = attempts;
+      }
+      if (wasCancelled) {
+        callback.failed(ex);
+        return;
+      }
+      final long delayMillis =
+          retryPolicy.getRetryDelayMillis(ex, attempt, deadlineEpochMillis);
+      if (delayMillis < 0) {
+        callback.failed(ex);
+        return;
+      }
+      final boolean cancelledMeanwhile;
+      synchronized (this) {
+        cancelledMeanwhile = cancelled;
+        if (!cancelledMeanwhile) {
+          backingOff = true;
+        }
+      }
+      if (cancelledMeanwhile) {
+        callback.failed(ex);
+        return;
+      }
+      final Cancellable timer;
+      try {
+        timer = scheduler.schedule(this::attempt, delayMillis);
+      } catch (RuntimeException e) {
+        // The client is closed
+        synchronized (this) {
+          if (cancelled) {
+            return;
+          }
+          backingOff = false;
+        }
+        callback.failed(ex);
+        return;
+      }
+      final boolean cancelNow;
+      synchronized (this) {
+        // Unless the next attempt has already started
+        if (attempts != attempt) {
+          return;
+        }
+        current = timer;
+        cancelNow = cancelled;
+      }
+      if (cancelNow) {
+        timer.cancel();
+      }
+    }
+
+    @Override
+    public void cancelled() {
+      callback.cancelled();
+    }
+
+    @Override
+    public boolean cancel() {
+      final Cancellable cancellable;
+      final boolean wasBackingOff;
+      synchronized (this) {
+        if (cancelled) {
+          return false;
+        }
+        cancelled = true;
+        cancellable = current;
+        wasBackingOff = backingOff;
+      }
+      if (cancellable != null) {
+        cancellable.cancel();
+      }
+      // Nothing is in flight to call back
+      if (wasBackingOff) {
+        callback.cancelled();
+      }
+      return true;
+    }
+
+  }
+
+  /**
+   * The original attempt and the hedge of a hedged call. Once one of them answers, the call is done
+   * and everything else in hand is cancelled. A failed attempt only fails the call if the other
+   * attempt is not in flight, so a fast failure doesn't beat a slow success.<br>
+   * The latency recorded for the hedging delay is the one of the whole call, from the start of the
+   * original attempt. The latency of a winning hedge alone would only be the fast responses, and
+   * would drag the percentile down until every request is hedged.
+   */
+  private static final class HedgingCallback<T> implements Cancellable {
+
+    private final ApiCall<T> upstream;
+    private final FutureCallback<T> callback;
+    private final HedgingPolicy hedgingPolicy;
+    private final ApiOperation operation;
+    private final long startNanos = System.nanoTime();
+    // All guarded by this
+    private final Cancellable[] attempts = new Cancellable[2];
+    private int inFlight;
+    private Exception firstError;
+    private Cancellable timer;
+    private boolean done;
+    private int winner = -1;
+
+    HedgingCallback(@Nonnull ApiCall<T> upstream, @Nonnull FutureCallback<T> callback,
+        @Nonnull HedgingPolicy hedgingPolicy, @Nonnull ApiOperation operation) {
+      this.upstream = upstream;
+      this.callback = callback;
+      this.hedgingPolicy = hedgingPolicy;
+      this.operation = operation;
+    }
+
+    void attempt(int index) {
+      synchronized (this) {
+        if (done) {
+          return;
+        }
+        inFlight++;
+      }
+      final Cancellable cancellable = upstream.start(new FutureCallback<T>() {
+
+        @Override
+        public void completed(T result) {
+          onCompleted(index, result);
+        }
+
+        @Override
+        public void failed(Exception ex) {
+          onFailed(ex);
+        }
+
+        @Override
+        public void cancelled() {
+          onCancelled();
+        }
+
+      });
+      final boolean cancelNow;
+      synchronized (this) {
+        attempts[index] = cancellable;
+        cancelNow = done && winner != index;
+      }
+      if (cancelNow) {
+        cancellable.cancel();
+      }
+    }
+
+    void scheduleHedge(@Nonnull TaskScheduler scheduler) {
+      final long delayMillis = hedgingPolicy.getHedgingDelayMillis(operation);
+      if (delayMillis < 0) {
+        return;
+      }
+      final Cancellable _timer;
+      try {
+        _timer = scheduler.schedule(this::hedge, delayMillis);
+      } catch (RuntimeException e) {
+        // The client is closed, so there is no hedge
+        return;
+      }
+      final boolean cancelNow;
+      synchronized (this) {
+        timer = _timer;
+        cancelNow = done;
+      }
+      if (cancelNow) {
+        _timer.cancel();
+      }
+    }
+
+    private void hedge() {
+      synchronized (this) {
+        if (done) {
+          return;
+        }
+      }
+      if (hedgingPolicy.getHedgingBudget().tryWithdraw()) {
+        attempt(1);
+      }
+    }
+
+    private void onCompleted(int index, T result) {
+      final Cancellable _timer;
+      final Cancellable loser;
+      synchronized (this) {
+        if (done) {
+          return;
+        }
+        done = true;
+        winner = index;
+        _timer = timer;
+        loser = attempts[1 - index];
+      }
+      cancelAll(_timer, loser);
+      hedgingPolicy.recordLatency(operation,
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+      callback.completed(result);
+    }
+
+    private void onFailed(Exception ex) {
+      final Exception error;
+      final Cancellable _timer;
+      synchronized (this) {
+        if (done) {
+          return;
+        }
+        if (firstError == null) {
+          firstError = ex;
+        }
+        // The other attempt may still answer
+        if (--inFlight > 0) {
+          return;
+        }
+        done = true;
+        error = firstError;
+        _timer = timer;
+      }
+      cancelAll(_timer);
+      callback.failed(error);
+    }
+
+    private void onCancelled() {
+      if (finish()) {
+        callback.cancelled();
+      }
+    }
+
+    @Override
+    public boolean cancel() {
+      if (finish()) {
+        callback.cancelled();
+        return true;
+      }
+      return false;
+    }
+
+    /**
+     * Mark the call as done and cancel everything in hand
+     *
+     * @return whether the call was not done already
+     */
+    private boolean finish() {
+      final Cancellable _timer;
+      final Cancellable attempt0;
+      final Cancellable attempt1;
+      synchronized (this) {
+        if (done) {
+          return false;
+        }
+        done = true;
+        _timer = timer;
+        attempt0 = attempts[0];
+        attempt1 = attempts[1];
+      }
+      cancelAll(_timer, attempt0, attempt1);
+      return true;
+    }
+
+    private static void cancelAll(Cancellable... cancellables) {
+      for (Cancellable cancellable : cancellables) {
+        if (cancellable != null) {
+          cancellable.cancel();
+        }
+      }
+    }
+
+  }
+
+  private static final class BlockingCallback<T> implements FutureCallback<T> {
+
+    final CountDownLatch latch = new CountDownLatch(1);
+    // Visible to the waiting thread through the latch
+    T result;
+    Exception error;
+
+    @Override
+    public void completed(T result) {
+      this.result = result;
+      latch.countDown();
+    }
+
+    @Override
+    public void failed(Exception ex) {
+      this.error = ex;
+      latch.countDown();
+    }
+
+    @Override
+    public void cancelled() {
+      failed(new CancellationException());
+    }
+
+  }
+
+}
@@ -0,0 +1,44 @@
+package com.saasquatch.sdk;
+
+/**
+ * The operations of {@link SaaSquatchClient}, which per-operation state like observed latencies is
+ * keyed by. Variants of a method that hit the same endpoint, like {@code getUser} and
+ * {@code getUserWithUserJwt}, are the same operation.
+ *
+ * @author sli
+ */
+enum ApiOperation {
+
+  GRAPHQL(false),
+  GET_USER(true),
+  RENDER_WIDGET(true),
+  GET_WIDGET_CONFIG_VALUES(true),
+  USER_UPSERT(false),
+  WIDGET_UPSERT(false),
+  GET_USER_SHARE_LINKS(true),
+  LOG_USER_EVENT(false),
+  APPLY_REFERRAL_CODE(false),
+  VALIDATE_REFERRAL_CODE(true),
+  DELETE_USER(false),
+  DELETE_ACCOUNT(false),
+  BLOCK_USER(false),
+  UNBLOCK_USER(false),
+  PUSH_WIDGET_LOADED_ANALYTICS_EVENT(false),
+  PUSH_WIDGET_SHARED_ANALYTICS_EVENT(false),
+  ;
+
+  private final boolean read;
+
+  ApiOperation(boolean read) {
+    this.read = read;
+  }
+
+  /**
+   * @return whether the operation only reads data, which makes it safe to send more than once and
+   *         to send twice at the same time
+   */
+  boolean isRead() {
+    return read;
+  }
+
+}
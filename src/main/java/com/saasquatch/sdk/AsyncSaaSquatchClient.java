@@ -0,0 +1,207 @@
+package com.saasquatch.sdk;
+
+import com.saasquatch.sdk.annotations.Beta;
+import com.saasquatch.sdk.exceptions.SaaSquatchException;
+import com.saasquatch.sdk.input.ApplyReferralCodeInput;
+import com.saasquatch.sdk.input.DeleteAccountInput;
+import com.saasquatch.sdk.input.DeleteUserInput;
+import com.saasquatch.sdk.input.GetUserLinkInput;
+import com.saasquatch.sdk.input.GraphQLInput;
+import com.saasquatch.sdk.input.PushWidgetAnalyticsEventInput;
+import com.saasquatch.sdk.input.RenderWidgetInput;
+import com.saasquatch.sdk.input.UserEventInput;
+import com.saasquatch.sdk.input.UserInput;
+import com.saasquatch.sdk.input.WidgetUpsertInput;
+import com.saasquatch.sdk.output.GraphQLApiResponse;
+import com.saasquatch.sdk.output.JsonObjectApiResponse;
+import com.saasquatch.sdk.output.StatusOnlyApiResponse;
+import com.saasquatch.sdk.output.TextApiResponse;
+import java.io.Closeable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * {@link CompletionStage} version of {@link SaaSquatchClient}. Every method sends the request right
+ * away, and the returned {@link CompletionStage} is completed straight from the HTTP client
+ * callback with the response, or with the {@link SaaSquatchException} the
+ * {@link SaaSquatchClient} method would have emitted. No reactive operators are involved.<br>
+ * The returned stages are {@link java.util.concurrent.CompletableFuture}s, and cancelling one
+ * cancels its request. This client requires {@code CompletableFuture}, which on Android means API
+ * level 24 or later.
+ *
+ * @author sli
+ * @see #create(ClientOptions)
+ */
+@Beta
+public interface AsyncSaaSquatchClient extends Closeable {
+
+  /**
+   * Initialize a {@link AsyncSaaSquatchClient} with a tenantAlias and default options.
+   *
+   * @see SaaSquatchClient#createForTenant(String)
+   */
+  static AsyncSaaSquatchClient createForTenant(@Nonnull String tenantAlias) {
+    return create(ClientOptions.newBuilder().setTenantAlias(tenantAlias).build());
+  }
+
+  /**
+   * Initialize a {@link AsyncSaaSquatchClient} with a custom {@link ClientOptions}.
+   *
+   * @see SaaSquatchClient#create(ClientOptions)
+   */
+  static AsyncSaaSquatchClient create(@Nonnull ClientOptions clientOptions) {
+    return new AsyncSaaSquatchClientImpl(
+        new SaaSquatchClientImpl(Objects.requireNonNull(clientOptions, "clientOptions")));
+  }
+
+  /**
+   * @see SaaSquatchClient#buildUserMessageLink(GetUserLinkInput, RequestOptions)
+   */
+  @Nonnull
+  String buildUserMessageLink(@Nonnull GetUserLinkInput getUserLinkInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#graphQL(GraphQLInput, RequestOptions)
+   */
+  CompletionStage<GraphQLApiResponse> graphQL(@Nonnull GraphQLInput graphQLInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#getUser(String, String, RequestOptions)
+   */
+  CompletionStage<JsonObjectApiResponse> getUser(@Nonnull String accountId, @Nonnull String userId,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#getUserWithUserJwt(String, RequestOptions)
+   */
+  CompletionStage<JsonObjectApiResponse> getUserWithUserJwt(@Nonnull String userJwt,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#renderWidget(RenderWidgetInput, RequestOptions)
+   */
+  CompletionStage<TextApiResponse> renderWidget(@Nonnull RenderWidgetInput renderWidgetInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#getWidgetConfigValues(RenderWidgetInput, RequestOptions)
+   */
+  CompletionStage<JsonObjectApiResponse> getWidgetConfigValues(
+      @Nonnull RenderWidgetInput renderWidgetInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#userUpsert(UserInput, RequestOptions)
+   */
+  CompletionStage<JsonObjectApiResponse> userUpsert(@Nonnull UserInput userInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#userUpsert(Map, RequestOptions)
+   */
+  CompletionStage<JsonObjectApiResponse> userUpsert(@Nonnull Map<String, Object> userInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#userUpsertWithUserJwt(String, RequestOptions)
+   */
+  CompletionStage<JsonObjectApiResponse> userUpsertWithUserJwt(@Nonnull String userJwt,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#widgetUpsert(WidgetUpsertInput, RequestOptions)
+   */
+  CompletionStage<JsonObjectApiResponse> widgetUpsert(@Nonnull WidgetUpsertInput widgetUpsertInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#getUserShareLinks(GetUserLinkInput, RequestOptions)
+   */
+  CompletionStage<JsonObjectApiResponse> getUserShareLinks(
+      @Nonnull GetUserLinkInput getUserLinkInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#logUserEvent(UserEventInput, RequestOptions)
+   */
+  CompletionStage<JsonObjectApiResponse> logUserEvent(@Nonnull UserEventInput userEventInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#logUserEvent(Map, RequestOptions)
+   */
+  CompletionStage<JsonObjectApiResponse> logUserEvent(@Nonnull Map<String, Object> userEventInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#applyReferralCode(ApplyReferralCodeInput, RequestOptions)
+   */
+  CompletionStage<JsonObjectApiResponse> applyReferralCode(
+      @Nonnull ApplyReferralCodeInput applyReferralCodeInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#validateReferralCode(String, RequestOptions)
+   */
+  CompletionStage<JsonObjectApiResponse> validateReferralCode(@Nonnull String referralCode,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#deleteUser(DeleteUserInput, RequestOptions)
+   */
+  CompletionStage<StatusOnlyApiResponse> deleteUser(@Nonnull DeleteUserInput deleteUserInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#deleteAccount(DeleteAccountInput, RequestOptions)
+   */
+  CompletionStage<StatusOnlyApiResponse> deleteAccount(
+      @Nonnull DeleteAccountInput deleteAccountInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#blockUser(String, String, RequestOptions)
+   */
+  CompletionStage<JsonObjectApiResponse> blockUser(
+      @Nonnull String accountId, @Nonnull String userId,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#unblockUser(String, String, RequestOptions)
+   */
+  CompletionStage<JsonObjectApiResponse> unblockUser(
+      @Nonnull String accountId, @Nonnull String userId,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#pushWidgetLoadedAnalyticsEvent(PushWidgetAnalyticsEventInput,
+   * RequestOptions)
+   */
+  CompletionStage<StatusOnlyApiResponse> pushWidgetLoadedAnalyticsEvent(
+      @Nonnull PushWidgetAnalyticsEventInput pushWidgetAnalyticsEventInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#pushWidgetSharedAnalyticsEvent(PushWidgetAnalyticsEventInput,
+   * RequestOptions)
+   */
+  CompletionStage<StatusOnlyApiResponse> pushWidgetSharedAnalyticsEvent(
+      @Nonnull PushWidgetAnalyticsEventInput pushWidgetAnalyticsEventInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#getInFlightRequestCount()
+   */
+  int getInFlightRequestCount();
+
+  /**
+   * @see SaaSquatchClient#getConcurrencyLimit()
+   */
+  int getConcurrencyLimit();
+
+}
@@ -0,0 +1,231 @@
+package com.saasquatch.sdk;
+
+import com.saasquatch.sdk.input.ApplyReferralCodeInput;
+import com.saasquatch.sdk.input.DeleteAccountInput;
+import com.saasquatch.sdk.input.DeleteUserInput;
+import com.saasquatch.sdk.input.GetUserLinkInput;
+import com.saasquatch.sdk.input.GraphQLInput;
+import com.saasquatch.sdk.input.PushWidgetAnalyticsEventInput;
+import com.saasquatch.sdk.input.RenderWidgetInput;
+import com.saasquatch.sdk.input.UserEventInput;
+import com.saasquatch.sdk.input.UserInput;
+import com.saasquatch.sdk.input.WidgetUpsertInput;
+import com.saasquatch.sdk.output.GraphQLApiResponse;
+import com.saasquatch.sdk.output.JsonObjectApiResponse;
+import com.saasquatch.sdk.output.StatusOnlyApiResponse;
+import com.saasquatch.sdk.output.TextApiResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.concurrent.FutureCallback;
+
+final class AsyncSaaSquatchClientImpl implements AsyncSaaSquatchClient {
+
+  private final SaaSquatchClientImpl delegate;
+
+  AsyncSaaSquatchClientImpl(@Nonnull SaaSquatchClientImpl delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void close() throws IOException {
+    delegate.close();
+  }
+
+  @Nonnull
+  @Override
+  public String buildUserMessageLink(@Nonnull GetUserLinkInput getUserLinkInput,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.buildUserMessageLink(getUserLinkInput, requestOptions);
+  }
+
+  @Override
+  public CompletionStage<GraphQLApiResponse> graphQL(@Nonnull GraphQLInput graphQLInput,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.graphQL(graphQLInput, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<JsonObjectApiResponse> getUser(
+      @Nonnull String accountId, @Nonnull String userId,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.getUser(accountId, userId, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<JsonObjectApiResponse> getUserWithUserJwt(@Nonnull String userJwt,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.getUserWithUserJwt(userJwt, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<TextApiResponse> renderWidget(@Nonnull RenderWidgetInput renderWidgetInput,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.renderWidget(renderWidgetInput, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<JsonObjectApiResponse> getWidgetConfigValues(
+      @Nonnull RenderWidgetInput renderWidgetInput,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.getWidgetConfigValues(renderWidgetInput, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<JsonObjectApiResponse> userUpsert(@Nonnull UserInput userInput,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.userUpsert(userInput, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<JsonObjectApiResponse> userUpsert(@Nonnull Map<String, Object> userInput,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.userUpsert(userInput, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<JsonObjectApiResponse> userUpsertWithUserJwt(@Nonnull String userJwt,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.userUpsertWithUserJwt(userJwt, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<JsonObjectApiResponse> widgetUpsert(
+      @Nonnull WidgetUpsertInput widgetUpsertInput,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.widgetUpsert(widgetUpsertInput, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<JsonObjectApiResponse> getUserShareLinks(
+      @Nonnull GetUserLinkInput getUserLinkInput,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.getUserShareLinks(getUserLinkInput, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<JsonObjectApiResponse> logUserEvent(@Nonnull UserEventInput userEventInput,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.logUserEvent(userEventInput, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<JsonObjectApiResponse> logUserEvent(
+      @Nonnull Map<String, Object> userEventInput,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.logUserEvent(userEventInput, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<JsonObjectApiResponse> applyReferralCode(
+      @Nonnull ApplyReferralCodeInput applyReferralCodeInput,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.applyReferralCode(applyReferralCodeInput, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<JsonObjectApiResponse> validateReferralCode(@Nonnull String referralCode,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.validateReferralCode(referralCode, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<StatusOnlyApiResponse> deleteUser(@Nonnull DeleteUserInput deleteUserInput,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.deleteUser(deleteUserInput, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<StatusOnlyApiResponse> deleteAccount(
+      @Nonnull DeleteAccountInput deleteAccountInput,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.deleteAccount(deleteAccountInput, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<JsonObjectApiResponse> blockUser(
+      @Nonnull String accountId, @Nonnull String userId,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.blockUser(accountId, userId, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<JsonObjectApiResponse> unblockUser(
+      @Nonnull String accountId, @Nonnull String userId,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(delegate.unblockUser(accountId, userId, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<StatusOnlyApiResponse> pushWidgetLoadedAnalyticsEvent(
+      @Nonnull PushWidgetAnalyticsEventInput pushWidgetAnalyticsEventInput,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(
+        delegate.pushWidgetLoadedAnalyticsEvent(pushWidgetAnalyticsEventInput, requestOptions));
+  }
+
+  @Override
+  public CompletionStage<StatusOnlyApiResponse> pushWidgetSharedAnalyticsEvent(
+      @Nonnull PushWidgetAnalyticsEventInput pushWidgetAnalyticsEventInput,
+      @Nullable RequestOptions requestOptions) {
+    return toCompletableFuture(
+        delegate.pushWidgetSharedAnalyticsEvent(pushWidgetAnalyticsEventInput, requestOptions));
+  }
+
+  @Override
+  public int getInFlightRequestCount() {
+    return delegate.getInFlightRequestCount();
+  }
+
+  @Override
+  public int getConcurrencyLimit() {
+    return delegate.getConcurrencyLimit();
+  }
+
+  /**
+   * Start the call and return a {@link CompletableFuture} that is completed straight from the HTTP
+   * client callback. Cancelling the future cancels the call.
+   */
+  private static <T> CompletableFuture<T> toCompletableFuture(@Nonnull ApiCall<T> call) {
+    final CallFuture<T> future = new CallFuture<>();
+    future.cancellable = call.start(future);
+    return future;
+  }
+
+  private static final class CallFuture<T> extends CompletableFuture<T>
+      implements FutureCallback<T> {
+
+    volatile Cancellable cancellable;
+
+    @Override
+    public void completed(T result) {
+      complete(result);
+    }
+
+    @Override
+    public void failed(Exception ex) {
+      completeExceptionally(ex);
+    }
+
+    @Override
+    public void cancelled() {
+      super.cancel(false);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      final boolean cancelled = super.cancel(mayInterruptIfRunning);
+      final Cancellable _cancellable = cancellable;
+      if (cancelled && _cancellable != null) {
+        _cancellable.cancel();
+      }
+      return cancelled;
+    }
+
+  }
+
+}
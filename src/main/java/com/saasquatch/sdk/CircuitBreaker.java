@@ -0,0 +1,227 @@
+package com.saasquatch.sdk;
+
+import com.saasquatch.sdk.exceptions.SaaSquatchCircuitBreakerOpenException;
+import com.saasquatch.sdk.exceptions.SaaSquatchHttpResponseEnclosedException;
+import com.saasquatch.sdk.exceptions.SaaSquatchIOException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import javax.annotation.Nonnull;
+
+/**
+ * The circuit breaker of one operation and tenant. The outcomes of the last requests are kept in
+ * a ring buffer along with running counts of the failed and slow ones, so recording an outcome
+ * and checking the rates don't depend on the window size.<br>
+ * Every state change starts a new generation, and the outcome of a request only counts if it was
+ * let through in the current generation, so e.g. a slow request from before the circuit breaker
+ * opened doesn't count as a trial request.<br>
+ * State changes are queued while holding the lock and delivered to the listener outside of it, by
+ * one thread at a time, so the listener sees them in the order they happened.
+ *
+ * @author sli
+ * @see CircuitBreakerPolicy
+ */
+final class CircuitBreaker {
+
+  private static final byte FAILED = 1;
+  private static final byte SLOW = 2;
+
+  private final CircuitBreakerPolicy policy;
+  private final ApiOperation operation;
+  private final String tenantAlias;
+  // All guarded by this
+  private CircuitBreakerState state = CircuitBreakerState.CLOSED;
+  private long generation;
+  private final byte[] outcomes;
+  private int outcomeIndex;
+  private int outcomeCount;
+  private int failedCount;
+  private int slowCount;
+  private long openUntilNanos;
+  private int halfOpenPermits;
+  private final Queue<StateChange> pendingStateChanges = new ArrayDeque<>();
+  private boolean notifying;
+
+  CircuitBreaker(@Nonnull CircuitBreakerPolicy policy, @Nonnull ApiOperation operation,
+      @Nonnull String tenantAlias) {
+    this.policy = policy;
+    this.operation = operation;
+    this.tenantAlias = tenantAlias;
+    this.outcomes = new byte[policy.getSlidingWindowSize()];
+  }
+
+  /**
+   * @return the generation to report the outcome of the request with, or -1 if the request is not
+   *         allowed
+   */
+  long tryAcquirePermission() {
+    final long result;
+    boolean transitioned = false;
+    synchronized (this) {
+      if (state == CircuitBreakerState.OPEN) {
+        if (System.nanoTime() - openUntilNanos < 0) {
+          return -1;
+        }
+        transition(CircuitBreakerState.HALF_OPEN);
+        transitioned = true;
+      }
+      if (state == CircuitBreakerState.HALF_OPEN) {
+        if (halfOpenPermits < policy.getHalfOpenCalls()) {
+          halfOpenPermits++;
+          result = generation;
+        } else {
+          result = -1;
+        }
+      } else {
+        result = generation;
+      }
+    }
+    if (transitioned) {
+      notifyStateChanges();
+    }
+    return result;
+  }
+
+  /**
+   * Record the outcome of a request
+   */
+  void onResult(long permissionGeneration, long durationNanos, boolean failed) {
+    final byte outcome = (byte) ((failed ? FAILED : 0)
+        | (durationNanos >= policy.getSlowCallDurationNanos() ? SLOW : 0));
+    final CircuitBreakerState to;
+    synchronized (this) {
+      if (permissionGeneration != generation) {
+        return;
+      }
+      record(outcome);
+      if (state == CircuitBreakerState.CLOSED) {
+        if (outcomeCount < policy.getMinimumCalls() || !isOverThreshold()) {
+          return;
+        }
+        to = CircuitBreakerState.OPEN;
+      } else if (outcomeCount < policy.getHalfOpenCalls()) {
+        // More trial requests to go
+        return;
+      } else {
+        to = isOverThreshold() ? CircuitBreakerState.OPEN : CircuitBreakerState.CLOSED;
+      }
+      transition(to);
+    }
+    notifyStateChanges();
+  }
+
+  /**
+   * Record a request that was cancelled, which only counts if it was already slow
+   */
+  void onCancelled(long permissionGeneration, long durationNanos) {
+    if (durationNanos >= policy.getSlowCallDurationNanos()) {
+      onResult(permissionGeneration, durationNanos, false);
+      return;
+    }
+    synchronized (this) {
+      // Let another trial request through instead
+      if (permissionGeneration == generation && state == CircuitBreakerState.HALF_OPEN) {
+        halfOpenPermits--;
+      }
+    }
+  }
+
+  @Nonnull
+  SaaSquatchCircuitBreakerOpenException newOpenException() {
+    return new SaaSquatchCircuitBreakerOpenException(operation.name(), tenantAlias);
+  }
+
+  /**
+   * @return whether the given exception means that the server is failing, as opposed to e.g. a
+   *         4xx response for a bad request
+   */
+  static boolean isFailure(@Nonnull Exception ex) {
+    if (ex instanceof SaaSquatchHttpResponseEnclosedException) {
+      return ((SaaSquatchHttpResponseEnclosedException) ex).getHttpResponse().getStatusCode()
+          >= 500;
+    }
+    return ex instanceof SaaSquatchIOException && ex.getCause() instanceof IOException;
+  }
+
+  private void record(byte outcome) {
+    if (outcomeCount == outcomes.length) {
+      final byte evicted = outcomes[outcomeIndex];
+      failedCount -= evicted & FAILED;
+      slowCount -= (evicted & SLOW) >> 1;
+    } else {
+      outcomeCount++;
+    }
+    outcomes[outcomeIndex] = outcome;
+    outcomeIndex = (outcomeIndex + 1) % outcomes.length;
+    failedCount += outcome & FAILED;
+    slowCount += (outcome & SLOW) >> 1;
+  }
+
+  private boolean isOverThreshold() {
+    return failedCount * 100.0 >= policy.getFailureRateThreshold() * outcomeCount
+        || slowCount * 100.0 >= policy.getSlowCallRateThreshold() * outcomeCount;
+  }
+
+  private void transition(@Nonnull CircuitBreakerState to) {
+    if (policy.getStateListener() != null) {
+      pendingStateChanges.add(new StateChange(state, to));
+    }
+    state = to;
+    generation++;
+    // Closed and half-open both start counting from scratch
+    outcomeIndex = 0;
+    outcomeCount = 0;
+    failedCount = 0;
+    slowCount = 0;
+    halfOpenPermits = 0;
+    if (to == CircuitBreakerState.OPEN) {
+      openUntilNanos = System.nanoTime() + policy.getOpenDurationNanos();
+    }
+  }
+
+  /**
+   * Deliver the queued state changes, unless another thread is already delivering them, in which
+   * case that thread delivers the ones queued by this thread as well
+   */
+  private void notifyStateChanges() {
+    final CircuitBreakerListener stateListener = policy.getStateListener();
+    if (stateListener == null) {
+      return;
+    }
+    synchronized (this) {
+      if (notifying) {
+        return;
+      }
+      notifying = true;
+    }
+    while (true) {
+      final StateChange stateChange;
+      synchronized (this) {
+        stateChange = pendingStateChanges.poll();
+        if (stateChange == null) {
+          notifying = false;
+          return;
+        }
+      }
+      try {
+        stateListener.onStateChange(operation.name(), tenantAlias, stateChange.from,
+            stateChange.to);
+      } catch (RuntimeException e) {
+        // A broken listener must not break the request
+      }
+    }
+  }
+
+  private static final class StateChange {
+
+    final CircuitBreakerState from;
+    final CircuitBreakerState to;
+
+    StateChange(@Nonnull CircuitBreakerState from, @Nonnull CircuitBreakerState to) {
+      this.from = from;
+      this.to = to;
+    }
+
+  }
+
+}
@@ -0,0 +1,25 @@
+package com.saasquatch.sdk;
+
+import com.saasquatch.sdk.annotations.Beta;
+import javax.annotation.Nonnull;
+
+/**
+ * Listener for the state changes of circuit breakers, e.g. for logging or metrics. The state
+ * changes of a circuit breaker are delivered one at a time and in the order they happened. It's
+ * called on whatever thread caused the state change, or on the thread that is delivering an earlier
+ * one, which may be an I/O thread, so it must be quick and must not block.
+ *
+ * @author sli
+ * @see CircuitBreakerPolicy.Builder#setStateListener(CircuitBreakerListener)
+ */
+@Beta
+public interface CircuitBreakerListener {
+
+  /**
+   * @param operation the operation the circuit breaker is for, e.g. {@code GET_USER}
+   * @param tenantAlias the tenant the circuit breaker is for
+   */
+  void onStateChange(@Nonnull String operation, @Nonnull String tenantAlias,
+      @Nonnull CircuitBreakerState from, @Nonnull CircuitBreakerState to);
+
+}
@@ -0,0 +1,248 @@
+package com.saasquatch.sdk;
+
+import com.saasquatch.sdk.annotations.Beta;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * How circuit breakers stop requests to a failing server. There is a circuit breaker for every
+ * operation and tenant, e.g. {@code getUser} requests for one tenant, so one failing endpoint
+ * doesn't take the others down with it.<br>
+ * A circuit breaker tracks the outcomes of the last requests. A request fails if it gets an I/O
+ * error like a timeout or a 5xx response, and is slow if it takes longer than the slow call
+ * duration. Once enough requests have been tracked and the rate of failed or slow ones reaches
+ * its threshold, the circuit breaker opens, and requests fail right away with
+ * {@link com.saasquatch.sdk.exceptions.SaaSquatchCircuitBreakerOpenException} instead of tying up
+ * threads and connections. After the open duration, a few trial requests go through, and the
+ * circuit breaker closes again if they are fine, or opens again if they are not.<br>
+ * Every attempt of a request is tracked, including retries and hedges, and a request is not
+ * retried if the circuit breaker is open. The circuit breakers belong to the
+ * {@link CircuitBreakerPolicy} instance, so a policy should be created once and shared, e.g.
+ * through {@link ClientOptions.Builder#setCircuitBreakerPolicy(CircuitBreakerPolicy)}.
+ *
+ * @author sli
+ * @see #newBuilder()
+ * @see CircuitBreakerListener
+ */
+@Beta
+public final class CircuitBreakerPolicy {
+
+  static final double DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+  static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 50;
+  static final long DEFAULT_SLOW_CALL_DURATION_MILLIS = 5000;
+  static final int DEFAULT_SLIDING_WINDOW_SIZE = 50;
+  static final int DEFAULT_MINIMUM_CALLS = 20;
+  static final long DEFAULT_OPEN_DURATION_MILLIS = 30000;
+  static final int DEFAULT_HALF_OPEN_CALLS = 5;
+
+  private final double failureRateThreshold;
+  private final double slowCallRateThreshold;
+  private final long slowCallDurationNanos;
+  private final int slidingWindowSize;
+  private final int minimumCalls;
+  private final long openDurationNanos;
+  private final int halfOpenCalls;
+  private final CircuitBreakerListener stateListener;
+  private final Map<ApiOperation, ConcurrentMap<String, CircuitBreaker>> circuitBreakers;
+
+  private CircuitBreakerPolicy(double failureRateThreshold, double slowCallRateThreshold,
+      long slowCallDurationMillis, int slidingWindowSize, int minimumCalls,
+      long openDurationMillis, int halfOpenCalls,
+      @Nullable CircuitBreakerListener stateListener) {
+    this.failureRateThreshold = failureRateThreshold;
+    this.slowCallRateThreshold = slowCallRateThreshold;
+    this.slowCallDurationNanos = TimeUnit.MILLISECONDS.toNanos(slowCallDurationMillis);
+    this.slidingWindowSize = slidingWindowSize;
+    this.minimumCalls = minimumCalls;
+    this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+    this.halfOpenCalls = halfOpenCalls;
+    this.stateListener = stateListener;
+    final Map<ApiOperation, ConcurrentMap<String, CircuitBreaker>> _circuitBreakers =
+        new EnumMap<>(ApiOperation.class);
+    for (ApiOperation operation : ApiOperation.values()) {
+      _circuitBreakers.put(operation, new ConcurrentHashMap<>());
+    }
+    this.circuitBreakers = Collections.unmodifiableMap(_circuitBreakers);
+  }
+
+  double getFailureRateThreshold() {
+    return failureRateThreshold;
+  }
+
+  double getSlowCallRateThreshold() {
+    return slowCallRateThreshold;
+  }
+
+  long getSlowCallDurationNanos() {
+    return slowCallDurationNanos;
+  }
+
+  int getSlidingWindowSize() {
+    return slidingWindowSize;
+  }
+
+  int getMinimumCalls() {
+    return minimumCalls;
+  }
+
+  long getOpenDurationNanos() {
+    return openDurationNanos;
+  }
+
+  int getHalfOpenCalls() {
+    return halfOpenCalls;
+  }
+
+  @Nullable
+  CircuitBreakerListener getStateListener() {
+    return stateListener;
+  }
+
+  /**
+   * @return the circuit breaker for the given operation and tenant, which is created on first use
+   */
+  @Nonnull
+  CircuitBreaker getCircuitBreaker(@Nonnull ApiOperation operation, @Nonnull String tenantAlias) {
+    final ConcurrentMap<String, CircuitBreaker> tenantCircuitBreakers =
+        circuitBreakers.get(operation);
+    final CircuitBreaker circuitBreaker = tenantCircuitBreakers.get(tenantAlias);
+    if (circuitBreaker != null) {
+      return circuitBreaker;
+    }
+    // Not computeIfAbsent, which is not available on older Android versions
+    final CircuitBreaker newCircuitBreaker = new CircuitBreaker(this, operation, tenantAlias);
+    final CircuitBreaker existing = tenantCircuitBreakers.putIfAbsent(tenantAlias,
+        newCircuitBreaker);
+    return existing == null ? newCircuitBreaker : existing;
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  public static final class Builder {
+
+    private double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+    private double slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+    private long slowCallDurationMillis = DEFAULT_SLOW_CALL_DURATION_MILLIS;
+    private int slidingWindowSize = DEFAULT_SLIDING_WINDOW_SIZE;
+    private int minimumCalls = DEFAULT_MINIMUM_CALLS;
+    private long openDurationMillis = DEFAULT_OPEN_DURATION_MILLIS;
+    private int halfOpenCalls = DEFAULT_HALF_OPEN_CALLS;
+    private CircuitBreakerListener stateListener;
+
+    private Builder() {}
+
+    /**
+     * Set the percentage of failed requests at which a circuit breaker opens. The default is 50.
+     */
+    public Builder setFailureRateThreshold(double failureRateThreshold) {
+      this.failureRateThreshold = validatePercentage(failureRateThreshold, "failureRateThreshold");
+      return this;
+    }
+
+    /**
+     * Set the percentage of slow requests at which a circuit breaker opens. The default is 50.
+     */
+    public Builder setSlowCallRateThreshold(double slowCallRateThreshold) {
+      this.slowCallRateThreshold =
+          validatePercentage(slowCallRateThreshold, "slowCallRateThreshold");
+      return this;
+    }
+
+    /**
+     * Set how long a request has to take to be slow. The default is 5 seconds.
+     */
+    public Builder setSlowCallDuration(long duration, @Nonnull TimeUnit timeUnit) {
+      this.slowCallDurationMillis =
+          ClientOptions.validatePositiveDuration(duration, timeUnit, "slowCallDuration");
+      return this;
+    }
+
+    /**
+     * Set the number of recent requests a circuit breaker tracks. The default is 50.
+     */
+    public Builder setSlidingWindowSize(int slidingWindowSize) {
+      if (slidingWindowSize <= 0) {
+        throw new IllegalArgumentException("non-positive slidingWindowSize");
+      }
+      this.slidingWindowSize = slidingWindowSize;
+      return this;
+    }
+
+    /**
+     * Set the number of requests a circuit breaker has to track before it can open. The default
+     * is 20.
+     */
+    public Builder setMinimumCalls(int minimumCalls) {
+      if (minimumCalls <= 0) {
+        throw new IllegalArgumentException("non-positive minimumCalls");
+      }
+      this.minimumCalls = minimumCalls;
+      return this;
+    }
+
+    /**
+     * Set how long a circuit breaker stays open before it lets trial requests through. The
+     * default is 30 seconds.
+     */
+    public Builder setOpenDuration(long duration, @Nonnull TimeUnit timeUnit) {
+      this.openDurationMillis =
+          ClientOptions.validatePositiveDuration(duration, timeUnit, "openDuration");
+      return this;
+    }
+
+    /**
+     * Set the number of trial requests a half-open circuit breaker lets through. The default is
+     * 5.
+     */
+    public Builder setHalfOpenCalls(int halfOpenCalls) {
+      if (halfOpenCalls <= 0) {
+        throw new IllegalArgumentException("non-positive halfOpenCalls");
+      }
+      this.halfOpenCalls = halfOpenCalls;
+      return this;
+    }
+
+    /**
+     * Set a {@link CircuitBreakerListener} for the state changes of the circuit breakers
+     */
+    public Builder setStateListener(@Nonnull CircuitBreakerListener stateListener) {
+      this.stateListener = Objects.requireNonNull(stateListener, "stateListener");
+      return this;
+    }
+
+    /**
+     * Build a {@link CircuitBreakerPolicy} with its own circuit breakers
+     */
+    public CircuitBreakerPolicy build() {
+      if (minimumCalls > slidingWindowSize) {
+        throw new IllegalArgumentException(
+            "minimumCalls cannot be greater than slidingWindowSize");
+      }
+      if (halfOpenCalls > slidingWindowSize) {
+        throw new IllegalArgumentException(
+            "halfOpenCalls cannot be greater than slidingWindowSize");
+      }
+      return new CircuitBreakerPolicy(failureRateThreshold, slowCallRateThreshold,
+          slowCallDurationMillis, slidingWindowSize, minimumCalls, openDurationMillis,
+          halfOpenCalls, stateListener);
+    }
+
+    private static double validatePercentage(double percentage, @Nonnull String propertyName) {
+      if (!(percentage > 0 && percentage <= 100)) {
+        throw new IllegalArgumentException(propertyName + " must be between 0 and 100");
+      }
+      return percentage;
+    }
+
+  }
+
+}
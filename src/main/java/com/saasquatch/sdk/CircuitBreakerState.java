@@ -0,0 +1,32 @@
+package com.saasquatch.sdk;
+
+import com.saasquatch.sdk.annotations.Beta;
+
+/**
+ * The state of a circuit breaker
+ *
+ * @author sli
+ * @see CircuitBreakerPolicy
+ */
+@Beta
+public enum CircuitBreakerState {
+
+  /**
+   * Requests go through, and their outcomes are tracked. This is the initial state.
+   */
+  CLOSED,
+
+  /**
+   * Requests fail right away with
+   * {@link com.saasquatch.sdk.exceptions.SaaSquatchCircuitBreakerOpenException} without being
+   * sent, until the open duration is over.
+   */
+  OPEN,
+
+  /**
+   * A few trial requests go through to find out whether the server has recovered, and the other
+   * requests fail right away like when the circuit breaker is open.
+   */
+  HALF_OPEN,
+
+}
@@ -20,10 +20,21 @@ public final class ClientOptions {
   private static final String DEFAULT_APP_DOMAIN = "app.referralsaasquatch.com";
   private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 2;
   private static final int MAX_MAX_CONCURRENT_REQUESTS = 32;
+  private static final int MAX_MAX_CONCURRENT_REQUESTS_HTTP_2 = 256;
   static final int DEFAULT_REQUEST_TIMEOUT_MILLIS = 10000;
   static final int MAX_REQUEST_TIMEOUT_MILLIS = 60000;
   static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 5000;
   static final int MAX_CONNECT_TIMEOUT_MILLIS = 30000;
+  static final int REQUEST_COMPRESSION_DISABLED = -1;
+  private static final int DEFAULT_BUFFER_POOL_MAX_BYTES = 512 * 1024;
+  private static final int MAX_BUFFER_POOL_MAX_BYTES = 64 * 1024 * 1024;
+  static final long CONNECTION_TIME_TO_LIVE_UNLIMITED = -1;
+  static final long DEFAULT_VALIDATE_AFTER_INACTIVITY_MILLIS = 2000;
+  static final long DEFAULT_KEEP_ALIVE_TIMEOUT_MILLIS = 30000;
+  // Means the HttpClient default for the I/O reactor settings below
+  static final int IO_REACTOR_DEFAULT = 0;
+  private static final int MAX_IO_THREAD_COUNT = 256;
+  private static final int MAX_SOCKET_BUFFER_SIZE = 16 * 1024 * 1024;
 
   private final String tenantAlias;
   private final AuthMethod authMethod;
@@ -32,10 +43,41 @@ public final class ClientOptions {
   private final int requestTimeoutMillis;
   private final int connectTimeoutMillis;
   private final boolean contentCompressionEnabled;
+  private final boolean eagerResponseParsingEnabled;
+  private final int requestCompressionThreshold;
+  private final int bufferPoolMaxBytes;
+  private final boolean directBuffersEnabled;
+  private final HttpProtocolPolicy httpProtocolPolicy;
+  private final boolean adaptiveConcurrencyEnabled;
+  private final long connectionTimeToLiveMillis;
+  private final long validateAfterInactivityMillis;
+  private final long keepAliveTimeoutMillis;
+  private final int prewarmConnections;
+  private final SaaSquatchTransport transport;
+  private final int ioThreadCount;
+  private final int socketTimeoutMillis;
+  private final boolean tcpNoDelayEnabled;
+  private final int socketSendBufferSize;
+  private final int socketReceiveBufferSize;
+  private final int selectIntervalMillis;
+  private final HttpEngineType httpEngineType;
+  private final RetryPolicy retryPolicy;
+  private final HedgingPolicy hedgingPolicy;
+  private final CircuitBreakerPolicy circuitBreakerPolicy;
 
   private ClientOptions(@Nullable String tenantAlias, @Nullable AuthMethod authMethod,
       @Nonnull String appDomain, int maxConcurrentRequests, int requestTimeoutMillis,
-      int connectTimeoutMillis, boolean contentCompressionEnabled) {
+      int connectTimeoutMillis, boolean contentCompressionEnabled,
+      boolean eagerResponseParsingEnabled, int requestCompressionThreshold,
+      int bufferPoolMaxBytes, boolean directBuffersEnabled,
+      @Nonnull HttpProtocolPolicy httpProtocolPolicy, boolean adaptiveConcurrencyEnabled,
+      long connectionTimeToLiveMillis, long validateAfterInactivityMillis,
+      long keepAliveTimeoutMillis, int prewarmConnections,
+      @Nullable SaaSquatchTransport transport, int ioThreadCount, int socketTimeoutMillis,
+      boolean tcpNoDelayEnabled, int socketSendBufferSize, int socketReceiveBufferSize,
+      int selectIntervalMillis, @Nonnull HttpEngineType httpEngineType,
+      @Nullable RetryPolicy retryPolicy, @Nullable HedgingPolicy hedgingPolicy,
+      @Nullable CircuitBreakerPolicy circuitBreakerPolicy) {
     this.tenantAlias = tenantAlias;
     this.authMethod = authMethod;
     this.appDomain = appDomain;
@@ -43,6 +85,27 @@ public final class ClientOptions {
     this.requestTimeoutMillis = requestTimeoutMillis;
     this.connectTimeoutMillis = connectTimeoutMillis;
     this.contentCompressionEnabled = contentCompressionEnabled;
+    this.eagerResponseParsingEnabled = eagerResponseParsingEnabled;
+    this.requestCompressionThreshold = requestCompressionThreshold;
+    this.bufferPoolMaxBytes = bufferPoolMaxBytes;
+    this.directBuffersEnabled = directBuffersEnabled;
+    this.httpProtocolPolicy = httpProtocolPolicy;
+    this.adaptiveConcurrencyEnabled = adaptiveConcurrencyEnabled;
+    this.connectionTimeToLiveMillis = connectionTimeToLiveMillis;
+    this.validateAfterInactivityMillis = validateAfterInactivityMillis;
+    this.keepAliveTimeoutMillis = keepAliveTimeoutMillis;
+    this.prewarmConnections = prewarmConnections;
+    this.transport = transport;
+    this.ioThreadCount = ioThreadCount;
+    this.socketTimeoutMillis = socketTimeoutMillis;
+    this.tcpNoDelayEnabled = tcpNoDelayEnabled;
+    this.socketSendBufferSize = socketSendBufferSize;
+    this.socketReceiveBufferSize = socketReceiveBufferSize;
+    this.selectIntervalMillis = selectIntervalMillis;
+    this.httpEngineType = httpEngineType;
+    this.retryPolicy = retryPolicy;
+    this.hedgingPolicy = hedgingPolicy;
+    this.circuitBreakerPolicy = circuitBreakerPolicy;
   }
 
   @Nullable
@@ -76,6 +139,96 @@ public final class ClientOptions {
     return contentCompressionEnabled;
   }
 
+  boolean isEagerResponseParsingEnabled() {
+    return eagerResponseParsingEnabled;
+  }
+
+  int getRequestCompressionThreshold() {
+    return requestCompressionThreshold;
+  }
+
+  int getBufferPoolMaxBytes() {
+    return bufferPoolMaxBytes;
+  }
+
+  boolean isDirectBuffersEnabled() {
+    return directBuffersEnabled;
+  }
+
+  @Nonnull
+  HttpProtocolPolicy getHttpProtocolPolicy() {
+    return httpProtocolPolicy;
+  }
+
+  boolean isAdaptiveConcurrencyEnabled() {
+    return adaptiveConcurrencyEnabled;
+  }
+
+  long getConnectionTimeToLiveMillis() {
+    return connectionTimeToLiveMillis;
+  }
+
+  long getValidateAfterInactivityMillis() {
+    return validateAfterInactivityMillis;
+  }
+
+  long getKeepAliveTimeoutMillis() {
+    return keepAliveTimeoutMillis;
+  }
+
+  int getPrewarmConnections() {
+    return prewarmConnections;
+  }
+
+  @Nullable
+  SaaSquatchTransport getTransport() {
+    return transport;
+  }
+
+  int getIoThreadCount() {
+    return ioThreadCount;
+  }
+
+  int getSocketTimeoutMillis() {
+    return socketTimeoutMillis;
+  }
+
+  boolean isTcpNoDelayEnabled() {
+    return tcpNoDelayEnabled;
+  }
+
+  int getSocketSendBufferSize() {
+    return socketSendBufferSize;
+  }
+
+  int getSocketReceiveBufferSize() {
+    return socketReceiveBufferSize;
+  }
+
+  int getSelectIntervalMillis() {
+    return selectIntervalMillis;
+  }
+
+  @Nonnull
+  HttpEngineType getHttpEngineType() {
+    return httpEngineType;
+  }
+
+  @Nullable
+  RetryPolicy getRetryPolicy() {
+    return retryPolicy;
+  }
+
+  @Nullable
+  HedgingPolicy getHedgingPolicy() {
+    return hedgingPolicy;
+  }
+
+  @Nullable
+  CircuitBreakerPolicy getCircuitBreakerPolicy() {
+    return circuitBreakerPolicy;
+  }
+
   public static Builder newBuilder() {
     return new Builder();
   }
@@ -92,6 +245,13 @@ public final class ClientOptions {
     return millis;
   }
 
+  static int validateRequestCompressionThreshold(int thresholdBytes) {
+    if (thresholdBytes < 0) {
+      throw new IllegalArgumentException("negative requestCompressionThreshold");
+    }
+    return thresholdBytes;
+  }
+
   static int validateConnectTimeout(long duration, @Nonnull TimeUnit timeUnit) {
     final int millis = (int) timeUnit.toMillis(duration);
     if (millis <= 0) {
@@ -104,6 +264,26 @@ public final class ClientOptions {
     return millis;
   }
 
+  static long validatePositiveDuration(long duration, @Nonnull TimeUnit timeUnit,
+      @Nonnull String name) {
+    final long millis = timeUnit.toMillis(duration);
+    if (millis <= 0) {
+      throw new IllegalArgumentException("non-positive " + name);
+    }
+    return millis;
+  }
+
+  private static int validateSocketBufferSize(int bufferSize, @Nonnull String name) {
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("non-positive " + name);
+    }
+    if (bufferSize > MAX_SOCKET_BUFFER_SIZE) {
+      throw new IllegalArgumentException(
+          name + " cannot be greater than " + MAX_SOCKET_BUFFER_SIZE);
+    }
+    return bufferSize;
+  }
+
   public static final class Builder {
 
     private String tenantAlias;
@@ -113,6 +293,27 @@ public final class ClientOptions {
     private int requestTimeoutMillis = DEFAULT_REQUEST_TIMEOUT_MILLIS;
     private int connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
     private boolean contentCompressionEnabled = true;
+    private boolean eagerResponseParsingEnabled;
+    private int requestCompressionThreshold = REQUEST_COMPRESSION_DISABLED;
+    private int bufferPoolMaxBytes = DEFAULT_BUFFER_POOL_MAX_BYTES;
+    private boolean directBuffersEnabled;
+    private HttpProtocolPolicy httpProtocolPolicy = HttpProtocolPolicy.HTTP_1_1;
+    private boolean adaptiveConcurrencyEnabled;
+    private long connectionTimeToLiveMillis = CONNECTION_TIME_TO_LIVE_UNLIMITED;
+    private long validateAfterInactivityMillis = DEFAULT_VALIDATE_AFTER_INACTIVITY_MILLIS;
+    private long keepAliveTimeoutMillis = DEFAULT_KEEP_ALIVE_TIMEOUT_MILLIS;
+    private int prewarmConnections;
+    private SaaSquatchTransport transport;
+    private int ioThreadCount = IO_REACTOR_DEFAULT;
+    private int socketTimeoutMillis = IO_REACTOR_DEFAULT;
+    private boolean tcpNoDelayEnabled = true;
+    private int socketSendBufferSize = IO_REACTOR_DEFAULT;
+    private int socketReceiveBufferSize = IO_REACTOR_DEFAULT;
+    private int selectIntervalMillis = IO_REACTOR_DEFAULT;
+    private HttpEngineType httpEngineType = HttpEngineType.APACHE_HTTP_CLIENT_5;
+    private RetryPolicy retryPolicy;
+    private HedgingPolicy hedgingPolicy;
+    private CircuitBreakerPolicy circuitBreakerPolicy;
 
     private Builder() {}
 
@@ -151,13 +352,17 @@ public final class ClientOptions {
       return this;
     }
 
+    /**
+     * Set the maximum number of requests in flight. It cannot be greater than 32, or 256 with
+     * {@link HttpProtocolPolicy#HTTP_2}.
+     */
     public Builder setMaxConcurrentRequests(int maxConcurrentRequests) {
       if (maxConcurrentRequests <= 0) {
         throw new IllegalArgumentException("non-positive maxConcurrentRequests");
       }
-      if (maxConcurrentRequests > MAX_MAX_CONCURRENT_REQUESTS) {
+      if (maxConcurrentRequests > MAX_MAX_CONCURRENT_REQUESTS_HTTP_2) {
         throw new IllegalArgumentException(
-            "maxConcurrentRequests cannot be greater than " + MAX_MAX_CONCURRENT_REQUESTS);
+            "maxConcurrentRequests cannot be greater than " + MAX_MAX_CONCURRENT_REQUESTS_HTTP_2);
       }
       this.maxConcurrentRequests = maxConcurrentRequests;
       return this;
@@ -179,6 +384,252 @@ public final class ClientOptions {
       return this;
     }
 
+    /**
+     * Set whether the response body should be parsed before the response is emitted. When enabled,
+     * {@link com.saasquatch.sdk.output.ApiResponse#getData()} returns the already parsed data
+     * instead of parsing the body on first access.
+     */
+    @Beta
+    public Builder setEagerResponseParsingEnabled(boolean eagerResponseParsingEnabled) {
+      this.eagerResponseParsingEnabled = eagerResponseParsingEnabled;
+      return this;
+    }
+
+    /**
+     * Gzip the request bodies of {@code userUpsert}, {@code logUserEvent} and {@code graphQL}
+     * requests that are larger than the given number of bytes. Request bodies are not compressed
+     * by default.
+     */
+    @Beta
+    public Builder setRequestCompressionThreshold(int thresholdBytes) {
+      this.requestCompressionThreshold = validateRequestCompressionThreshold(thresholdBytes);
+      return this;
+    }
+
+    /**
+     * Set the maximum number of bytes the client keeps in its pool of idle buffers, which are used
+     * for encoding request bodies and decoding response bodies. Set it to 0 to disable pooling.
+     */
+    @Beta
+    public Builder setBufferPoolMaxBytes(int bufferPoolMaxBytes) {
+      if (bufferPoolMaxBytes < 0) {
+        throw new IllegalArgumentException("negative bufferPoolMaxBytes");
+      }
+      if (bufferPoolMaxBytes > MAX_BUFFER_POOL_MAX_BYTES) {
+        throw new IllegalArgumentException(
+            "bufferPoolMaxBytes cannot be greater than " + MAX_BUFFER_POOL_MAX_BYTES);
+      }
+      this.bufferPoolMaxBytes = bufferPoolMaxBytes;
+      return this;
+    }
+
+    /**
+     * Set whether the buffer pool should use direct memory instead of the heap. Direct memory is
+     * capped at {@code bufferPoolMaxBytes}, and heap buffers are used beyond that. Disabled by
+     * default, since the response bodies end up on the heap anyway.
+     */
+    @Beta
+    public Builder setDirectBuffersEnabled(boolean directBuffersEnabled) {
+      this.directBuffersEnabled = directBuffersEnabled;
+      return this;
+    }
+
+    /**
+     * Set the HTTP protocol versions the client may use. The default is
+     * {@link HttpProtocolPolicy#HTTP_1_1}.
+     */
+    @Beta
+    public Builder setHttpProtocolPolicy(@Nonnull HttpProtocolPolicy httpProtocolPolicy) {
+      this.httpProtocolPolicy = Objects.requireNonNull(httpProtocolPolicy, "httpProtocolPolicy");
+      return this;
+    }
+
+    /**
+     * Set whether the limit on requests in flight should adapt to how the server is doing. When
+     * enabled, the limit starts low, grows while requests succeed without their round trip times
+     * inflating, and shrinks on timeouts and 429 or 503 responses, never going over
+     * {@link #setMaxConcurrentRequests(int) maxConcurrentRequests}. Disabled by default.
+     */
+    @Beta
+    public Builder setAdaptiveConcurrencyEnabled(boolean adaptiveConcurrencyEnabled) {
+      this.adaptiveConcurrencyEnabled = adaptiveConcurrencyEnabled;
+      return this;
+    }
+
+    /**
+     * Set the maximum lifetime of a pooled connection, after which it's closed instead of being
+     * reused. Connections live as long as they are kept alive by default.
+     */
+    @Beta
+    public Builder setConnectionTimeToLive(long duration, @Nonnull TimeUnit timeUnit) {
+      this.connectionTimeToLiveMillis =
+          validatePositiveDuration(duration, timeUnit, "connectionTimeToLive");
+      return this;
+    }
+
+    /**
+     * Set how long a pooled connection can be idle before it's checked for staleness on its next
+     * use. The default is 2 seconds.
+     */
+    @Beta
+    public Builder setValidateAfterInactivity(long duration, @Nonnull TimeUnit timeUnit) {
+      this.validateAfterInactivityMillis =
+          validatePositiveDuration(duration, timeUnit, "validateAfterInactivity");
+      return this;
+    }
+
+    /**
+     * Set the maximum time an idle connection is kept alive. It caps the keep-alive duration
+     * announced by the server, and a background thread closes connections that have been idle for
+     * longer. It should be lower than the idle timeout of any load balancer between the client and
+     * the server. The default is 30 seconds.
+     */
+    @Beta
+    public Builder setKeepAliveTimeout(long duration, @Nonnull TimeUnit timeUnit) {
+      this.keepAliveTimeoutMillis =
+          validatePositiveDuration(duration, timeUnit, "keepAliveTimeout");
+      return this;
+    }
+
+    /**
+     * Set the number of connections the client should open to the app domain as soon as it's
+     * created, in the background. The default is 0, which disables pre-warming.
+     *
+     * @see SaaSquatchClient#warmUp(int)
+     */
+    @Beta
+    public Builder setPrewarmConnections(int prewarmConnections) {
+      if (prewarmConnections < 0) {
+        throw new IllegalArgumentException("negative prewarmConnections");
+      }
+      this.prewarmConnections = prewarmConnections;
+      return this;
+    }
+
+    /**
+     * Set a shared {@link SaaSquatchTransport} for the client to send its requests through. The
+     * transport's own settings then apply instead of the connection, concurrency and buffer
+     * settings of these options, and closing the client doesn't close the transport.
+     *
+     * @see SaaSquatchTransport#create(ClientOptions)
+     */
+    @Beta
+    public Builder setTransport(@Nonnull SaaSquatchTransport transport) {
+      this.transport = Objects.requireNonNull(transport, "transport");
+      return this;
+    }
+
+    /**
+     * Set the number of I/O threads. The default is the number of available processors.
+     */
+    @Beta
+    public Builder setIoThreadCount(int ioThreadCount) {
+      if (ioThreadCount <= 0) {
+        throw new IllegalArgumentException("non-positive ioThreadCount");
+      }
+      if (ioThreadCount > MAX_IO_THREAD_COUNT) {
+        throw new IllegalArgumentException(
+            "ioThreadCount cannot be greater than " + MAX_IO_THREAD_COUNT);
+      }
+      this.ioThreadCount = ioThreadCount;
+      return this;
+    }
+
+    /**
+     * Set the default socket timeout, which is how long a connection can go without any data
+     * before it's closed. Note that {@link #setRequestTimeout(long, TimeUnit) requestTimeout} still
+     * applies to each request.
+     */
+    @Beta
+    public Builder setSocketTimeout(long duration, @Nonnull TimeUnit timeUnit) {
+      this.socketTimeoutMillis =
+          (int) Math.min(validatePositiveDuration(duration, timeUnit, "socketTimeout"),
+              Integer.MAX_VALUE);
+      return this;
+    }
+
+    /**
+     * Set whether {@code TCP_NODELAY} is set on sockets, which disables Nagle's algorithm so that
+     * small writes aren't delayed. Enabled by default.
+     */
+    @Beta
+    public Builder setTcpNoDelayEnabled(boolean tcpNoDelayEnabled) {
+      this.tcpNoDelayEnabled = tcpNoDelayEnabled;
+      return this;
+    }
+
+    /**
+     * Set the socket send buffer size ({@code SO_SNDBUF}). The default is the system default.
+     */
+    @Beta
+    public Builder setSocketSendBufferSize(int socketSendBufferSize) {
+      this.socketSendBufferSize =
+          validateSocketBufferSize(socketSendBufferSize, "socketSendBufferSize");
+      return this;
+    }
+
+    /**
+     * Set the socket receive buffer size ({@code SO_RCVBUF}). The default is the system default.
+     */
+    @Beta
+    public Builder setSocketReceiveBufferSize(int socketReceiveBufferSize) {
+      this.socketReceiveBufferSize =
+          validateSocketBufferSize(socketReceiveBufferSize, "socketReceiveBufferSize");
+      return this;
+    }
+
+    /**
+     * Set how often the I/O threads wake up to check for timeouts and other events, when there is
+     * no I/O. The default is 1 second.
+     */
+    @Beta
+    public Builder setSelectInterval(long duration, @Nonnull TimeUnit timeUnit) {
+      this.selectIntervalMillis =
+          (int) Math.min(validatePositiveDuration(duration, timeUnit, "selectInterval"),
+              Integer.MAX_VALUE);
+      return this;
+    }
+
+    /**
+     * Set the HTTP client requests are executed with. The default is
+     * {@link HttpEngineType#APACHE_HTTP_CLIENT_5}.
+     */
+    @Beta
+    public Builder setHttpEngineType(@Nonnull HttpEngineType httpEngineType) {
+      this.httpEngineType = Objects.requireNonNull(httpEngineType, "httpEngineType");
+      return this;
+    }
+
+    /**
+     * Set the {@link RetryPolicy} for requests that are safe to retry. Requests are not retried by
+     * default.
+     */
+    @Beta
+    public Builder setRetryPolicy(@Nonnull RetryPolicy retryPolicy) {
+      this.retryPolicy = Objects.requireNonNull(retryPolicy, "retryPolicy");
+      return this;
+    }
+
+    /**
+     * Set the {@link HedgingPolicy} for reads. Requests are not hedged by default.
+     */
+    @Beta
+    public Builder setHedgingPolicy(@Nonnull HedgingPolicy hedgingPolicy) {
+      this.hedgingPolicy = Objects.requireNonNull(hedgingPolicy, "hedgingPolicy");
+      return this;
+    }
+
+    /**
+     * Set the {@link CircuitBreakerPolicy}, which gives every operation and tenant a circuit
+     * breaker. There are no circuit breakers by default.
+     */
+    @Beta
+    public Builder setCircuitBreakerPolicy(@Nonnull CircuitBreakerPolicy circuitBreakerPolicy) {
+      this.circuitBreakerPolicy =
+          Objects.requireNonNull(circuitBreakerPolicy, "circuitBreakerPolicy");
+      return this;
+    }
+
     /**
      * Build an immutable {@link ClientOptions}
      */
@@ -186,8 +637,20 @@ public final class ClientOptions {
       if (authMethod != null && tenantAlias == null) {
         throw new IllegalArgumentException("tenantAlias is required if you set the authMethod");
       }
+      if (httpProtocolPolicy != HttpProtocolPolicy.HTTP_2
+          && maxConcurrentRequests > MAX_MAX_CONCURRENT_REQUESTS) {
+        throw new IllegalArgumentException(format(
+            "maxConcurrentRequests cannot be greater than %d unless httpProtocolPolicy is %s",
+            MAX_MAX_CONCURRENT_REQUESTS, HttpProtocolPolicy.HTTP_2));
+      }
       return new ClientOptions(tenantAlias, authMethod, appDomain, maxConcurrentRequests,
-          requestTimeoutMillis, connectTimeoutMillis, contentCompressionEnabled);
+          requestTimeoutMillis, connectTimeoutMillis, contentCompressionEnabled,
+          eagerResponseParsingEnabled, requestCompressionThreshold, bufferPoolMaxBytes,
+          directBuffersEnabled, httpProtocolPolicy, adaptiveConcurrencyEnabled,
+          connectionTimeToLiveMillis, validateAfterInactivityMillis, keepAliveTimeoutMillis,
+          prewarmConnections, transport, ioThreadCount, socketTimeoutMillis, tcpNoDelayEnabled,
+          socketSendBufferSize, socketReceiveBufferSize, selectIntervalMillis, httpEngineType,
+          retryPolicy, hedgingPolicy, circuitBreakerPolicy);
     }
 
   }
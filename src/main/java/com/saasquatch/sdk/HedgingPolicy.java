@@ -0,0 +1,159 @@
+package com.saasquatch.sdk;
+
+import com.saasquatch.sdk.annotations.Beta;
+import com.saasquatch.sdk.internal.LatencyPercentileTracker;
+import com.saasquatch.sdk.internal.RetryBudget;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * How slow reads are hedged. A hedged request that has not answered within the hedging delay is
+ * sent a second time, whichever attempt answers first wins, and the other one is cancelled. This
+ * cuts the tail latency caused by the occasional slow response at the cost of a few more requests.
+ * <br>
+ * Only reads are ever hedged, which are {@code getUser}, {@code getUserWithUserJwt},
+ * {@code validateReferralCode}, {@code getUserShareLinks}, {@code renderWidget} and
+ * {@code getWidgetConfigValues}.<br>
+ * The hedging delay is either fixed, or a percentile of the recent latencies of each operation,
+ * e.g. the p95, which hedges about 5% of the requests, but never less than the fixed delay if
+ * there is one, or 1 millisecond otherwise. The latencies are tracked by the
+ * {@link HedgingPolicy} instance, so a policy should be created once and shared, e.g. through
+ * {@link ClientOptions.Builder#setHedgingPolicy(HedgingPolicy)}. Hedges are also capped by a
+ * budget like the one of {@link RetryPolicy}, so a slow server doesn't get twice the load.
+ *
+ * @author sli
+ * @see #newBuilder()
+ */
+@Beta
+public final class HedgingPolicy {
+
+  static final double DEFAULT_HEDGING_BUDGET_RATIO = 0.1;
+  static final int DEFAULT_HEDGING_BUDGET_MAX_TOKENS = 10;
+  static final int LATENCY_WINDOW_SIZE = 1000;
+  static final int LATENCY_MIN_SAMPLES = 20;
+  static final long MIN_HEDGING_DELAY_MILLIS = 1;
+
+  private final Long delayMillis;
+  private final Map<ApiOperation, LatencyPercentileTracker> latencyTrackers;
+  private final RetryBudget hedgingBudget;
+
+  private HedgingPolicy(@Nullable Long delayMillis,
+      @Nonnull Map<ApiOperation, LatencyPercentileTracker> latencyTrackers,
+      @Nonnull RetryBudget hedgingBudget) {
+    this.delayMillis = delayMillis;
+    this.latencyTrackers = latencyTrackers;
+    this.hedgingBudget = hedgingBudget;
+  }
+
+  /**
+   * @return the delay in milliseconds before a request of the given operation is hedged, or a
+   *         negative number if it should not be hedged
+   */
+  long getHedgingDelayMillis(@Nonnull ApiOperation operation) {
+    final LatencyPercentileTracker latencyTracker = latencyTrackers.get(operation);
+    if (latencyTracker != null) {
+      final long percentileMillis = latencyTracker.getPercentileMillis();
+      if (percentileMillis >= 0) {
+        // A percentile of 0 would hedge every request right away
+        return Math.max(percentileMillis,
+            delayMillis == null ? MIN_HEDGING_DELAY_MILLIS : delayMillis);
+      }
+    }
+    return delayMillis == null ? -1 : delayMillis;
+  }
+
+  /**
+   * Record the latency of a call that answered, from the start of its original attempt
+   */
+  void recordLatency(@Nonnull ApiOperation operation, long latencyMillis) {
+    final LatencyPercentileTracker latencyTracker = latencyTrackers.get(operation);
+    if (latencyTracker != null) {
+      latencyTracker.record(latencyMillis);
+    }
+  }
+
+  @Nonnull
+  RetryBudget getHedgingBudget() {
+    return hedgingBudget;
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  public static final class Builder {
+
+    private Long delayMillis;
+    private Double latencyPercentile;
+    private double hedgingBudgetRatio = DEFAULT_HEDGING_BUDGET_RATIO;
+    private int hedgingBudgetMaxTokens = DEFAULT_HEDGING_BUDGET_MAX_TOKENS;
+
+    private Builder() {}
+
+    /**
+     * Set a fixed hedging delay. If a latency percentile is also set, this is the delay until
+     * enough latencies have been observed for the percentile, and the minimum delay after that.
+     */
+    public Builder setDelay(long duration, @Nonnull TimeUnit timeUnit) {
+      this.delayMillis = ClientOptions.validatePositiveDuration(duration, timeUnit, "delay");
+      return this;
+    }
+
+    /**
+     * Hedge a request once it's slower than the given percentile of the recent latencies of its
+     * operation, e.g. 95 for the p95. Until enough latencies have been observed, requests are
+     * hedged after the fixed delay if there is one, and not hedged otherwise.
+     */
+    public Builder setLatencyPercentile(double latencyPercentile) {
+      if (!(latencyPercentile > 0 && latencyPercentile < 100)) {
+        throw new IllegalArgumentException("latencyPercentile must be between 0 and 100");
+      }
+      this.latencyPercentile = latencyPercentile;
+      return this;
+    }
+
+    /**
+     * Set the hedging budget, where every hedgeable request adds {@code ratio} tokens up to
+     * {@code maxTokens}, and every hedge takes one token. The default is 0.1 tokens per request,
+     * i.e. 1 hedge for every 10 requests, with up to 10 tokens.
+     */
+    public Builder setHedgingBudget(double ratio, int maxTokens) {
+      if (!(ratio >= 0 && ratio <= 1)) {
+        throw new IllegalArgumentException("ratio must be between 0 and 1");
+      }
+      if (maxTokens <= 0) {
+        throw new IllegalArgumentException("non-positive maxTokens");
+      }
+      this.hedgingBudgetRatio = ratio;
+      this.hedgingBudgetMaxTokens = maxTokens;
+      return this;
+    }
+
+    /**
+     * Build a {@link HedgingPolicy} with its own latency tracking and hedging budget
+     */
+    public HedgingPolicy build() {
+      if (delayMillis == null && latencyPercentile == null) {
+        throw new IllegalArgumentException("delay or latencyPercentile is required");
+      }
+      final Map<ApiOperation, LatencyPercentileTracker> latencyTrackers =
+          new EnumMap<>(ApiOperation.class);
+      if (latencyPercentile != null) {
+        for (ApiOperation operation : ApiOperation.values()) {
+          if (operation.isRead()) {
+            latencyTrackers.put(operation, new LatencyPercentileTracker(latencyPercentile,
+                LATENCY_WINDOW_SIZE, LATENCY_MIN_SAMPLES));
+          }
+        }
+      }
+      return new HedgingPolicy(delayMillis, Collections.unmodifiableMap(latencyTrackers),
+          new RetryBudget(hedgingBudgetRatio, hedgingBudgetMaxTokens));
+    }
+
+  }
+
+}
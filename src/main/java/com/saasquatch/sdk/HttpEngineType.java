@@ -0,0 +1,31 @@
+package com.saasquatch.sdk;
+
+import com.saasquatch.sdk.annotations.Beta;
+
+/**
+ * The HTTP client a {@link SaaSquatchClient} executes its requests with
+ *
+ * @author sli
+ * @see ClientOptions.Builder#setHttpEngineType(HttpEngineType)
+ */
+@Beta
+public enum HttpEngineType {
+
+  /**
+   * Apache HttpClient 5, which supports every option in {@link ClientOptions}. This is the
+   * default.
+   */
+  APACHE_HTTP_CLIENT_5,
+
+  /**
+   * The {@code java.net.http.HttpClient} of Java 11 and later, which does its I/O on a single
+   * selector thread instead of an I/O reactor, and starts faster. The connection pool, I/O thread
+   * and socket options of {@link ClientOptions} don't apply to it, and
+   * {@link HttpProtocolPolicy#NEGOTIATE}
+   * behaves the same as {@link HttpProtocolPolicy#HTTP_2}, since it always falls back to HTTP/1.1
+   * when HTTP/2 is not available. Creating a client with this engine on Java 8 or Android throws
+   * {@link UnsupportedOperationException}.
+   */
+  JAVA_NET_HTTP,
+
+}
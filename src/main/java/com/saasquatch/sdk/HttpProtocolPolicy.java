@@ -0,0 +1,38 @@
+package com.saasquatch.sdk;
+
+import com.saasquatch.sdk.annotations.Beta;
+
+/**
+ * The HTTP protocol versions a {@link SaaSquatchClient} may use
+ *
+ * @author sli
+ * @see ClientOptions.Builder#setHttpProtocolPolicy(HttpProtocolPolicy)
+ */
+@Beta
+public enum HttpProtocolPolicy {
+
+  /**
+   * Always use HTTP/1.1, with one request per pooled connection. This is the default.
+   */
+  HTTP_1_1,
+
+  /**
+   * Negotiate HTTP/2 through TLS ALPN, and fall back to HTTP/1.1 if the server doesn't support it.
+   * Requests still take a pooled connection each and are never multiplexed, so the concurrency
+   * limit is the same as with {@link #HTTP_1_1}, but HTTP/2 framing and HPACK header compression
+   * apply to the negotiated connections.
+   */
+  NEGOTIATE,
+
+  /**
+   * Always use HTTP/2, with concurrent requests multiplexed as streams over a single connection
+   * per host. This allows a much higher
+   * {@link ClientOptions.Builder#setMaxConcurrentRequests(int) maxConcurrentRequests}, but the
+   * server must support HTTP/2. There is no fallback to HTTP/1.1: with the default
+   * {@link HttpEngineType}, requests fail if ALPN doesn't select HTTP/2, and plain {@code http}
+   * app domains are spoken to with HTTP/2 prior knowledge. Use {@link #NEGOTIATE} if the server
+   * may not support HTTP/2.
+   */
+  HTTP_2,
+
+}
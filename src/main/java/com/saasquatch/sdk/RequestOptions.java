@@ -42,18 +42,29 @@ public final class RequestOptions {
   private final Integer requestTimeoutMillis;
   private final Integer connectTimeoutMillis;
   private final Boolean contentCompressionEnabled;
+  private final Integer requestCompressionThreshold;
+  private final Long deadlineEpochMillis;
+  private final RetryPolicy retryPolicy;
+  private final HedgingPolicy hedgingPolicy;
   private final List<Map.Entry<String, String>> headers;
   private final List<Map.Entry<String, String>> queryParams;
 
   private RequestOptions(@Nullable String tenantAlias, @Nullable AuthMethod authMethod,
       @Nullable Integer requestTimeoutMillis, @Nullable Integer connectTimeoutMillis,
-      @Nullable Boolean contentCompressionEnabled, @Nonnull List<Map.Entry<String, String>> headers,
+      @Nullable Boolean contentCompressionEnabled, @Nullable Integer requestCompressionThreshold,
+      @Nullable Long deadlineEpochMillis, @Nullable RetryPolicy retryPolicy,
+      @Nullable HedgingPolicy hedgingPolicy,
+      @Nonnull List<Map.Entry<String, String>> headers,
       @Nonnull List<Map.Entry<String, String>> queryParams) {
     this.tenantAlias = tenantAlias;
     this.authMethod = authMethod;
     this.requestTimeoutMillis = requestTimeoutMillis;
     this.connectTimeoutMillis = connectTimeoutMillis;
     this.contentCompressionEnabled = contentCompressionEnabled;
+    this.requestCompressionThreshold = requestCompressionThreshold;
+    this.deadlineEpochMillis = deadlineEpochMillis;
+    this.retryPolicy = retryPolicy;
+    this.hedgingPolicy = hedgingPolicy;
     this.headers = headers;
     this.queryParams = queryParams;
   }
@@ -84,6 +95,26 @@ public final class RequestOptions {
     return contentCompressionEnabled;
   }
 
+  @Nullable
+  Integer getRequestCompressionThreshold() {
+    return requestCompressionThreshold;
+  }
+
+  @Nullable
+  Long getDeadlineEpochMillis() {
+    return deadlineEpochMillis;
+  }
+
+  @Nullable
+  RetryPolicy getRetryPolicy() {
+    return retryPolicy;
+  }
+
+  @Nullable
+  HedgingPolicy getHedgingPolicy() {
+    return hedgingPolicy;
+  }
+
   void mutateUri(@Nonnull URIBuilder urlBuilder) {
     for (final Map.Entry<String, String> e : queryParams) {
       urlBuilder.addParameter(e.getKey(), e.getValue());
@@ -107,6 +138,10 @@ public final class RequestOptions {
     private Integer requestTimeoutMillis;
     private Integer connectTimeoutMillis;
     private Boolean contentCompressionEnabled;
+    private Integer requestCompressionThreshold;
+    private Long deadlineEpochMillis;
+    private RetryPolicy retryPolicy;
+    private HedgingPolicy hedgingPolicy;
     private List<Map.Entry<String, String>> headers;
     private List<Map.Entry<String, String>> queryParams;
 
@@ -148,6 +183,56 @@ public final class RequestOptions {
       return this;
     }
 
+    /**
+     * Override the request body size in bytes above which the request body is gzipped
+     *
+     * @see ClientOptions.Builder#setRequestCompressionThreshold(int)
+     */
+    @Beta
+    public Builder setRequestCompressionThreshold(int thresholdBytes) {
+      this.requestCompressionThreshold =
+          ClientOptions.validateRequestCompressionThreshold(thresholdBytes);
+      return this;
+    }
+
+    /**
+     * Set an absolute deadline for a request, in milliseconds since the epoch like
+     * {@link System#currentTimeMillis()}, e.g. the deadline of the incoming request being served.
+     * The deadline caps the whole request, including the wait for a permit to send it, the wait
+     * for a connection and the response timeout. A request still going at its deadline is
+     * aborted, which frees its connection right away, and fails with a
+     * {@link com.saasquatch.sdk.exceptions.SaaSquatchIOException} caused by a
+     * {@link java.util.concurrent.TimeoutException}. A request is not retried if the retry would
+     * start past its deadline.
+     */
+    @Beta
+    public Builder setDeadlineEpochMillis(long deadlineEpochMillis) {
+      if (deadlineEpochMillis <= 0) {
+        throw new IllegalArgumentException("non-positive deadlineEpochMillis");
+      }
+      this.deadlineEpochMillis = deadlineEpochMillis;
+      return this;
+    }
+
+    /**
+     * Override the {@link RetryPolicy} for a request, which only applies if the request is safe to
+     * retry
+     */
+    @Beta
+    public Builder setRetryPolicy(@Nonnull RetryPolicy retryPolicy) {
+      this.retryPolicy = Objects.requireNonNull(retryPolicy, "retryPolicy");
+      return this;
+    }
+
+    /**
+     * Override the {@link HedgingPolicy} for a request, which only applies if the request is a read
+     */
+    @Beta
+    public Builder setHedgingPolicy(@Nonnull HedgingPolicy hedgingPolicy) {
+      this.hedgingPolicy = Objects.requireNonNull(hedgingPolicy, "hedgingPolicy");
+      return this;
+    }
+
     /**
      * Add an HTTP header
      */
@@ -212,8 +297,8 @@ public final class RequestOptions {
      */
     public RequestOptions build() {
       return new RequestOptions(tenantAlias, authMethod, requestTimeoutMillis, connectTimeoutMillis,
-          contentCompressionEnabled,
-          headers == null ? Collections.emptyList() : unmodifiableList(headers),
+          contentCompressionEnabled, requestCompressionThreshold, deadlineEpochMillis, retryPolicy,
+          hedgingPolicy, headers == null ? Collections.emptyList() : unmodifiableList(headers),
           queryParams == null ? Collections.emptyList() : unmodifiableList(queryParams));
     }
 
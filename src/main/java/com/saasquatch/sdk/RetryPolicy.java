@@ -0,0 +1,186 @@
+package com.saasquatch.sdk;
+
+import com.saasquatch.sdk.annotations.Beta;
+import com.saasquatch.sdk.exceptions.SaaSquatchHttpResponseEnclosedException;
+import com.saasquatch.sdk.exceptions.SaaSquatchIOException;
+import com.saasquatch.sdk.http.SaaSquatchHttpResponse;
+import com.saasquatch.sdk.internal.InternalUtils;
+import com.saasquatch.sdk.internal.RetryBudget;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * How failed requests are retried. Only requests that are safe to send more than once are ever
+ * retried, which are the {@code GET} requests, the user upserts, the widget rendering queries, and
+ * {@code logUserEvent} with an {@code idempotencyKey}.<br>
+ * A request is retried after an I/O error like a connection reset or a timeout, or after a 429,
+ * 502, 503 or 504 response. The delay before each retry is picked at random between 0 and an
+ * exponential backoff, and is at least as long as the {@code Retry-After} header of a 429 or 503
+ * response. A request is not retried if its {@code Retry-After} is longer than the maximum backoff,
+ * or if the retry would start past the deadline of the request.<br>
+ * Retries are capped by a retry budget, which is a token bucket where every request adds a
+ * fraction of a token and every retry takes a whole token, so retries can't multiply the load on
+ * a struggling server. The budget belongs to the {@link RetryPolicy} instance, so a policy should
+ * be created once and shared, e.g. through
+ * {@link ClientOptions.Builder#setRetryPolicy(RetryPolicy)}.
+ *
+ * @author sli
+ * @see #newBuilder()
+ */
+@Beta
+public final class RetryPolicy {
+
+  static final int DEFAULT_MAX_ATTEMPTS = 3;
+  static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 100;
+  static final long DEFAULT_MAX_BACKOFF_MILLIS = 5000;
+  static final double DEFAULT_RETRY_BUDGET_RATIO = 0.1;
+  static final int DEFAULT_RETRY_BUDGET_MAX_TOKENS = 10;
+
+  private final int maxAttempts;
+  private final long initialBackoffMillis;
+  private final long maxBackoffMillis;
+  private final RetryBudget retryBudget;
+
+  private RetryPolicy(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis,
+      @Nonnull RetryBudget retryBudget) {
+    this.maxAttempts = maxAttempts;
+    this.initialBackoffMillis = initialBackoffMillis;
+    this.maxBackoffMillis = maxBackoffMillis;
+    this.retryBudget = retryBudget;
+  }
+
+  int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  @Nonnull
+  RetryBudget getRetryBudget() {
+    return retryBudget;
+  }
+
+  /**
+   * Decide whether a failed attempt should be retried, and withdraw from the retry budget if so
+   *
+   * @param attempts the number of attempts made so far
+   * @return the delay in milliseconds before the next attempt, or a negative number if the request
+   *         should not be retried
+   */
+  long getRetryDelayMillis(@Nonnull Exception ex, int attempts,
+      @Nullable Long deadlineEpochMillis) {
+    if (attempts >= maxAttempts) {
+      return -1;
+    }
+    long retryAfterMillis = 0;
+    if (ex instanceof SaaSquatchHttpResponseEnclosedException) {
+      final SaaSquatchHttpResponse httpResponse =
+          ((SaaSquatchHttpResponseEnclosedException) ex).getHttpResponse();
+      final int statusCode = httpResponse.getStatusCode();
+      if (!isRetryableStatus(statusCode)) {
+        return -1;
+      }
+      if (statusCode == 429 || statusCode == 503) {
+        retryAfterMillis = Math.max(0, InternalUtils.parseRetryAfterMillis(
+            httpResponse.getFirstHeader("Retry-After"), System.currentTimeMillis()));
+        if (retryAfterMillis > maxBackoffMillis) {
+          return -1;
+        }
+      }
+    } else if (!(ex instanceof SaaSquatchIOException && ex.getCause() instanceof IOException)) {
+      // Not an I/O error, e.g. a request body that can't be serialized
+      return -1;
+    }
+    final long backoffMillis = Math.min(maxBackoffMillis,
+        initialBackoffMillis << Math.min(attempts - 1, 20));
+    final long delayMillis = Math.max(retryAfterMillis,
+        ThreadLocalRandom.current().nextLong(backoffMillis + 1));
+    if (deadlineEpochMillis != null
+        && System.currentTimeMillis() + delayMillis >= deadlineEpochMillis) {
+      return -1;
+    }
+    return retryBudget.tryWithdraw() ? delayMillis : -1;
+  }
+
+  private static boolean isRetryableStatus(int statusCode) {
+    return statusCode == 429 || statusCode == 502 || statusCode == 503 || statusCode == 504;
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  public static final class Builder {
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private long initialBackoffMillis = DEFAULT_INITIAL_BACKOFF_MILLIS;
+    private long maxBackoffMillis = DEFAULT_MAX_BACKOFF_MILLIS;
+    private double retryBudgetRatio = DEFAULT_RETRY_BUDGET_RATIO;
+    private int retryBudgetMaxTokens = DEFAULT_RETRY_BUDGET_MAX_TOKENS;
+
+    private Builder() {}
+
+    /**
+     * Set the maximum number of attempts for a request, including the first one. The default is
+     * 3.
+     */
+    public Builder setMaxAttempts(int maxAttempts) {
+      if (maxAttempts <= 0) {
+        throw new IllegalArgumentException("non-positive maxAttempts");
+      }
+      this.maxAttempts = maxAttempts;
+      return this;
+    }
+
+    /**
+     * Set the backoff before the first retry, which doubles for every retry after that. The
+     * default is 100 milliseconds.
+     */
+    public Builder setInitialBackoff(long duration, @Nonnull TimeUnit timeUnit) {
+      this.initialBackoffMillis =
+          ClientOptions.validatePositiveDuration(duration, timeUnit, "initialBackoff");
+      return this;
+    }
+
+    /**
+     * Set the maximum backoff before a retry, which is also the longest {@code Retry-After} that
+     * is honored. The default is 5 seconds.
+     */
+    public Builder setMaxBackoff(long duration, @Nonnull TimeUnit timeUnit) {
+      this.maxBackoffMillis =
+          ClientOptions.validatePositiveDuration(duration, timeUnit, "maxBackoff");
+      return this;
+    }
+
+    /**
+     * Set the retry budget, where every request adds {@code ratio} tokens up to
+     * {@code maxTokens}, and every retry takes one token. The default is 0.1 tokens per request,
+     * i.e. 1 retry for every 10 requests, with up to 10 tokens.
+     */
+    public Builder setRetryBudget(double ratio, int maxTokens) {
+      if (!(ratio >= 0 && ratio <= 1)) {
+        throw new IllegalArgumentException("ratio must be between 0 and 1");
+      }
+      if (maxTokens <= 0) {
+        throw new IllegalArgumentException("non-positive maxTokens");
+      }
+      this.retryBudgetRatio = ratio;
+      this.retryBudgetMaxTokens = maxTokens;
+      return this;
+    }
+
+    /**
+     * Build a {@link RetryPolicy} with its own retry budget
+     */
+    public RetryPolicy build() {
+      if (initialBackoffMillis > maxBackoffMillis) {
+        throw new IllegalArgumentException("initialBackoff cannot be greater than maxBackoff");
+      }
+      return new RetryPolicy(maxAttempts, initialBackoffMillis, maxBackoffMillis,
+          new RetryBudget(retryBudgetRatio, retryBudgetMaxTokens));
+    }
+
+  }
+
+}
@@ -0,0 +1,200 @@
+package com.saasquatch.sdk;
+
+import com.saasquatch.sdk.annotations.Beta;
+import com.saasquatch.sdk.exceptions.SaaSquatchException;
+import com.saasquatch.sdk.input.ApplyReferralCodeInput;
+import com.saasquatch.sdk.input.DeleteAccountInput;
+import com.saasquatch.sdk.input.DeleteUserInput;
+import com.saasquatch.sdk.input.GetUserLinkInput;
+import com.saasquatch.sdk.input.GraphQLInput;
+import com.saasquatch.sdk.input.PushWidgetAnalyticsEventInput;
+import com.saasquatch.sdk.input.RenderWidgetInput;
+import com.saasquatch.sdk.input.UserEventInput;
+import com.saasquatch.sdk.input.UserInput;
+import com.saasquatch.sdk.input.WidgetUpsertInput;
+import com.saasquatch.sdk.output.GraphQLApiResponse;
+import com.saasquatch.sdk.output.JsonObjectApiResponse;
+import com.saasquatch.sdk.output.StatusOnlyApiResponse;
+import com.saasquatch.sdk.output.TextApiResponse;
+import java.io.Closeable;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Blocking version of {@link SaaSquatchClient}, where every method waits for the response and
+ * returns it directly, or throws the {@link SaaSquatchException} the {@link SaaSquatchClient}
+ * method would have emitted.<br>
+ * Requests are not sent through any reactive operators, and the calling thread waits by parking
+ * rather than by blocking on a monitor, so this client works well with virtual threads: a waiting
+ * virtual thread gives its carrier thread back. Interrupting a waiting thread makes the method
+ * throw a {@link com.saasquatch.sdk.exceptions.SaaSquatchIOException} with the interrupt flag set.
+ *
+ * @author sli
+ * @see #create(ClientOptions)
+ */
+@Beta
+public interface SaaSquatchBlockingClient extends Closeable {
+
+  /**
+   * Initialize a {@link SaaSquatchBlockingClient} with a tenantAlias and default options.
+   *
+   * @see SaaSquatchClient#createForTenant(String)
+   */
+  static SaaSquatchBlockingClient createForTenant(@Nonnull String tenantAlias) {
+    return create(ClientOptions.newBuilder().setTenantAlias(tenantAlias).build());
+  }
+
+  /**
+   * Initialize a {@link SaaSquatchBlockingClient} with a custom {@link ClientOptions}.
+   *
+   * @see SaaSquatchClient#create(ClientOptions)
+   */
+  static SaaSquatchBlockingClient create(@Nonnull ClientOptions clientOptions) {
+    return new SaaSquatchBlockingClientImpl(
+        new SaaSquatchClientImpl(Objects.requireNonNull(clientOptions, "clientOptions")));
+  }
+
+  /**
+   * @see SaaSquatchClient#buildUserMessageLink(GetUserLinkInput, RequestOptions)
+   */
+  @Nonnull
+  String buildUserMessageLink(@Nonnull GetUserLinkInput getUserLinkInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#graphQL(GraphQLInput, RequestOptions)
+   */
+  GraphQLApiResponse graphQL(@Nonnull GraphQLInput graphQLInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#getUser(String, String, RequestOptions)
+   */
+  JsonObjectApiResponse getUser(@Nonnull String accountId, @Nonnull String userId,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#getUserWithUserJwt(String, RequestOptions)
+   */
+  JsonObjectApiResponse getUserWithUserJwt(@Nonnull String userJwt,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#renderWidget(RenderWidgetInput, RequestOptions)
+   */
+  TextApiResponse renderWidget(@Nonnull RenderWidgetInput renderWidgetInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#getWidgetConfigValues(RenderWidgetInput, RequestOptions)
+   */
+  JsonObjectApiResponse getWidgetConfigValues(@Nonnull RenderWidgetInput renderWidgetInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#userUpsert(UserInput, RequestOptions)
+   */
+  JsonObjectApiResponse userUpsert(@Nonnull UserInput userInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#userUpsert(Map, RequestOptions)
+   */
+  JsonObjectApiResponse userUpsert(@Nonnull Map<String, Object> userInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#userUpsertWithUserJwt(String, RequestOptions)
+   */
+  JsonObjectApiResponse userUpsertWithUserJwt(@Nonnull String userJwt,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#widgetUpsert(WidgetUpsertInput, RequestOptions)
+   */
+  JsonObjectApiResponse widgetUpsert(@Nonnull WidgetUpsertInput widgetUpsertInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#getUserShareLinks(GetUserLinkInput, RequestOptions)
+   */
+  JsonObjectApiResponse getUserShareLinks(@Nonnull GetUserLinkInput getUserLinkInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#logUserEvent(UserEventInput, RequestOptions)
+   */
+  JsonObjectApiResponse logUserEvent(@Nonnull UserEventInput userEventInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#logUserEvent(Map, RequestOptions)
+   */
+  JsonObjectApiResponse logUserEvent(@Nonnull Map<String, Object> userEventInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#applyReferralCode(ApplyReferralCodeInput, RequestOptions)
+   */
+  JsonObjectApiResponse applyReferralCode(@Nonnull ApplyReferralCodeInput applyReferralCodeInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#validateReferralCode(String, RequestOptions)
+   */
+  JsonObjectApiResponse validateReferralCode(@Nonnull String referralCode,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#deleteUser(DeleteUserInput, RequestOptions)
+   */
+  StatusOnlyApiResponse deleteUser(@Nonnull DeleteUserInput deleteUserInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#deleteAccount(DeleteAccountInput, RequestOptions)
+   */
+  StatusOnlyApiResponse deleteAccount(@Nonnull DeleteAccountInput deleteAccountInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#blockUser(String, String, RequestOptions)
+   */
+  JsonObjectApiResponse blockUser(@Nonnull String accountId, @Nonnull String userId,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#unblockUser(String, String, RequestOptions)
+   */
+  JsonObjectApiResponse unblockUser(@Nonnull String accountId, @Nonnull String userId,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#pushWidgetLoadedAnalyticsEvent(PushWidgetAnalyticsEventInput,
+   * RequestOptions)
+   */
+  StatusOnlyApiResponse pushWidgetLoadedAnalyticsEvent(
+      @Nonnull PushWidgetAnalyticsEventInput pushWidgetAnalyticsEventInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#pushWidgetSharedAnalyticsEvent(PushWidgetAnalyticsEventInput,
+   * RequestOptions)
+   */
+  StatusOnlyApiResponse pushWidgetSharedAnalyticsEvent(
+      @Nonnull PushWidgetAnalyticsEventInput pushWidgetAnalyticsEventInput,
+      @Nullable RequestOptions requestOptions);
+
+  /**
+   * @see SaaSquatchClient#getInFlightRequestCount()
+   */
+  int getInFlightRequestCount();
+
+  /**
+   * @see SaaSquatchClient#getConcurrencyLimit()
+   */
+  int getConcurrencyLimit();
+
+}
@@ -0,0 +1,177 @@
+package com.saasquatch.sdk;
+
+import com.saasquatch.sdk.input.ApplyReferralCodeInput;
+import com.saasquatch.sdk.input.DeleteAccountInput;
+import com.saasquatch.sdk.input.DeleteUserInput;
+import com.saasquatch.sdk.input.GetUserLinkInput;
+import com.saasquatch.sdk.input.GraphQLInput;
+import com.saasquatch.sdk.input.PushWidgetAnalyticsEventInput;
+import com.saasquatch.sdk.input.RenderWidgetInput;
+import com.saasquatch.sdk.input.UserEventInput;
+import com.saasquatch.sdk.input.UserInput;
+import com.saasquatch.sdk.input.WidgetUpsertInput;
+import com.saasquatch.sdk.output.GraphQLApiResponse;
+import com.saasquatch.sdk.output.JsonObjectApiResponse;
+import com.saasquatch.sdk.output.StatusOnlyApiResponse;
+import com.saasquatch.sdk.output.TextApiResponse;
+import java.io.IOException;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+final class SaaSquatchBlockingClientImpl implements SaaSquatchBlockingClient {
+
+  private final SaaSquatchClientImpl delegate;
+
+  SaaSquatchBlockingClientImpl(@Nonnull SaaSquatchClientImpl delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void close() throws IOException {
+    delegate.close();
+  }
+
+  @Nonnull
+  @Override
+  public String buildUserMessageLink(@Nonnull GetUserLinkInput getUserLinkInput,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.buildUserMessageLink(getUserLinkInput, requestOptions);
+  }
+
+  @Override
+  public GraphQLApiResponse graphQL(@Nonnull GraphQLInput graphQLInput,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.graphQL(graphQLInput, requestOptions).await();
+  }
+
+  @Override
+  public JsonObjectApiResponse getUser(@Nonnull String accountId, @Nonnull String userId,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.getUser(accountId, userId, requestOptions).await();
+  }
+
+  @Override
+  public JsonObjectApiResponse getUserWithUserJwt(@Nonnull String userJwt,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.getUserWithUserJwt(userJwt, requestOptions).await();
+  }
+
+  @Override
+  public TextApiResponse renderWidget(@Nonnull RenderWidgetInput renderWidgetInput,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.renderWidget(renderWidgetInput, requestOptions).await();
+  }
+
+  @Override
+  public JsonObjectApiResponse getWidgetConfigValues(@Nonnull RenderWidgetInput renderWidgetInput,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.getWidgetConfigValues(renderWidgetInput, requestOptions).await();
+  }
+
+  @Override
+  public JsonObjectApiResponse userUpsert(@Nonnull UserInput userInput,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.userUpsert(userInput, requestOptions).await();
+  }
+
+  @Override
+  public JsonObjectApiResponse userUpsert(@Nonnull Map<String, Object> userInput,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.userUpsert(userInput, requestOptions).await();
+  }
+
+  @Override
+  public JsonObjectApiResponse userUpsertWithUserJwt(@Nonnull String userJwt,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.userUpsertWithUserJwt(userJwt, requestOptions).await();
+  }
+
+  @Override
+  public JsonObjectApiResponse widgetUpsert(@Nonnull WidgetUpsertInput widgetUpsertInput,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.widgetUpsert(widgetUpsertInput, requestOptions).await();
+  }
+
+  @Override
+  public JsonObjectApiResponse getUserShareLinks(@Nonnull GetUserLinkInput getUserLinkInput,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.getUserShareLinks(getUserLinkInput, requestOptions).await();
+  }
+
+  @Override
+  public JsonObjectApiResponse logUserEvent(@Nonnull UserEventInput userEventInput,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.logUserEvent(userEventInput, requestOptions).await();
+  }
+
+  @Override
+  public JsonObjectApiResponse logUserEvent(@Nonnull Map<String, Object> userEventInput,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.logUserEvent(userEventInput, requestOptions).await();
+  }
+
+  @Override
+  public JsonObjectApiResponse applyReferralCode(
+      @Nonnull ApplyReferralCodeInput applyReferralCodeInput,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.applyReferralCode(applyReferralCodeInput, requestOptions).await();
+  }
+
+  @Override
+  public JsonObjectApiResponse validateReferralCode(@Nonnull String referralCode,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.validateReferralCode(referralCode, requestOptions).await();
+  }
+
+  @Override
+  public StatusOnlyApiResponse deleteUser(@Nonnull DeleteUserInput deleteUserInput,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.deleteUser(deleteUserInput, requestOptions).await();
+  }
+
+  @Override
+  public StatusOnlyApiResponse deleteAccount(@Nonnull DeleteAccountInput deleteAccountInput,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.deleteAccount(deleteAccountInput, requestOptions).await();
+  }
+
+  @Override
+  public JsonObjectApiResponse blockUser(@Nonnull String accountId, @Nonnull String userId,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.blockUser(accountId, userId, requestOptions).await();
+  }
+
+  @Override
+  public JsonObjectApiResponse unblockUser(@Nonnull String accountId, @Nonnull String userId,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.unblockUser(accountId, userId, requestOptions).await();
+  }
+
+  @Override
+  public StatusOnlyApiResponse pushWidgetLoadedAnalyticsEvent(
+      @Nonnull PushWidgetAnalyticsEventInput pushWidgetAnalyticsEventInput,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.pushWidgetLoadedAnalyticsEvent(pushWidgetAnalyticsEventInput, requestOptions)
+        .await();
+  }
+
+  @Override
+  public StatusOnlyApiResponse pushWidgetSharedAnalyticsEvent(
+      @Nonnull PushWidgetAnalyticsEventInput pushWidgetAnalyticsEventInput,
+      @Nullable RequestOptions requestOptions) {
+    return delegate.pushWidgetSharedAnalyticsEvent(pushWidgetAnalyticsEventInput, requestOptions)
+        .await();
+  }
+
+  @Override
+  public int getInFlightRequestCount() {
+    return delegate.getInFlightRequestCount();
+  }
+
+  @Override
+  public int getConcurrencyLimit() {
+    return delegate.getConcurrencyLimit();
+  }
+
+}
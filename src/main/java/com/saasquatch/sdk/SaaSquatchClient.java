@@ -240,4 +240,36 @@ public interface SaaSquatchClient extends Closeable {
       @Nonnull PushWidgetAnalyticsEventInput pushWidgetAnalyticsEventInput,
       @Nullable RequestOptions requestOptions);
 
+  /**
+   * @return The number of requests currently in flight
+   */
+  @Beta
+  int getInFlightRequestCount();
+
+  /**
+   * @return The current limit on the number of requests in flight. This is
+   * {@link ClientOptions.Builder#setMaxConcurrentRequests(int) maxConcurrentRequests}, unless
+   * {@link ClientOptions.Builder#setAdaptiveConcurrencyEnabled(boolean) adaptive concurrency} is
+   * enabled.
+   */
+  @Beta
+  int getConcurrencyLimit();
+
+  /**
+   * Open connections to the app domain ahead of time, so the first requests don't have to wait for
+   * DNS, TCP and TLS handshakes. The connections are opened in parallel by sending a lightweight
+   * {@code HEAD} request over each of them, and stay in the connection pool afterwards.<br>
+   * The number of connections is capped by
+   * {@link ClientOptions.Builder#setMaxConcurrentRequests(int) maxConcurrentRequests}, and with
+   * {@link HttpProtocolPolicy#HTTP_2} only one connection is ever needed. The {@code HEAD} requests
+   * don't count against the limit on requests in flight, and don't affect an
+   * {@link ClientOptions.Builder#setAdaptiveConcurrencyEnabled(boolean) adaptive} limit.
+   *
+   * @return a {@link Publisher} that completes without emitting anything once the connections
+   * are ready, or fails if any of them couldn't be opened
+   * @see ClientOptions.Builder#setPrewarmConnections(int)
+   */
+  @Beta
+  Publisher<Void> warmUp(int connections);
+
 }
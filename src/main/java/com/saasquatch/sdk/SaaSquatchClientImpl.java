@@ -26,60 +26,173 @@ import com.saasquatch.sdk.input.UserIdInput;
 import com.saasquatch.sdk.input.UserInput;
 import com.saasquatch.sdk.input.WidgetType;
 import com.saasquatch.sdk.input.WidgetUpsertInput;
+import com.saasquatch.sdk.internal.ByteBufferPool;
 import com.saasquatch.sdk.internal.GraphQLQueries;
+import com.saasquatch.sdk.internal.HttpEngine;
 import com.saasquatch.sdk.internal.InternalUtils;
+import com.saasquatch.sdk.internal.JsonEntityProducer;
+import com.saasquatch.sdk.internal.RequestLimiter;
+import com.saasquatch.sdk.internal.TaskScheduler;
 import com.saasquatch.sdk.output.ApiError;
+import com.saasquatch.sdk.output.ApiResponse;
 import com.saasquatch.sdk.output.GraphQLApiResponse;
 import com.saasquatch.sdk.output.GraphQLResult;
 import com.saasquatch.sdk.output.JsonObjectApiResponse;
 import com.saasquatch.sdk.output.StatusOnlyApiResponse;
 import com.saasquatch.sdk.output.TextApiResponse;
-import io.reactivex.rxjava3.core.Flowable;
 import java.io.IOException;
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
 import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
 import org.apache.hc.client5.http.config.RequestConfig;
-import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
-import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
-import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
-import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.net.URIBuilder;
+import org.apache.hc.core5.util.Timeout;
 import org.reactivestreams.Publisher;
 
 final class SaaSquatchClientImpl implements SaaSquatchClient {
 
   private final ClientOptions clientOptions;
-  private final String scheme;
-  @SuppressWarnings("FieldCanBeLocal")
-  private final String clientId;
-  private final CloseableHttpAsyncClient httpAsyncClient;
+  private final URI baseUri;
+  private final SaaSquatchTransport transport;
+  // Whether the transport was created by and belongs to this client
+  private final boolean ownsTransport;
+  private final HttpEngine httpEngine;
+  private final ByteBufferPool bufferPool;
+  private final RequestLimiter requestLimiter;
 
   SaaSquatchClientImpl(@Nonnull ClientOptions clientOptions) {
     this.clientOptions = clientOptions;
-    this.scheme = clientOptions.getAppDomain().startsWith("localhost:") ? "http" : "https";
-    this.clientId = InternalUtils.randomHexString(8);
-    this.httpAsyncClient = HttpAsyncClients.custom().disableCookieManagement()
-        .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
-            .setMaxConnPerRoute(clientOptions.getMaxConcurrentRequests())
-            .setMaxConnTotal(clientOptions.getMaxConcurrentRequests())
-            .build())
-        .setUserAgent(InternalUtils.buildUserAgent(this.clientId))
-        .build();
-    this.httpAsyncClient.start();
+    final String scheme =
+        clientOptions.getAppDomain().startsWith("localhost:") ? "http" : "https";
+    // Parsed rather than set as the host so that an appDomain with a port works
+    this.baseUri = URI.create(scheme + "://" + clientOptions.getAppDomain());
+    this.ownsTransport = clientOptions.getTransport() == null;
+    this.transport = ownsTransport
+        ? SaaSquatchTransport.create(clientOptions) : clientOptions.getTransport();
+    this.httpEngine = transport.getHttpEngine();
+    this.bufferPool = transport.getBufferPool();
+    this.requestLimiter = transport.getRequestLimiter();
+    if (clientOptions.getPrewarmConnections() > 0) {
+      // Best effort. Requests will open their own connections if this fails.
+      _warmUp(clientOptions.getPrewarmConnections()).start(new FutureCallback<Void>() {
+
+        @Override
+        public void completed(Void result) {}
+
+        @Override
+        public void failed(Exception ex) {}
+
+        @Override
+        public void cancelled() {}
+
+      });
+    }
   }
 
   @Override
   public void close() throws IOException {
-    this.httpAsyncClient.close();
+    if (ownsTransport) {
+      transport.close();
+    }
+  }
+
+  @Override
+  public int getInFlightRequestCount() {
+    return requestLimiter.getInFlight();
+  }
+
+  @Override
+  public int getConcurrencyLimit() {
+    return requestLimiter.getLimit();
+  }
+
+  @Override
+  public Publisher<Void> warmUp(int connections) {
+    if (connections <= 0) {
+      throw new IllegalArgumentException("non-positive connections");
+    }
+    return _warmUp(connections);
+  }
+
+  private ApiCall<Void> _warmUp(int connections) {
+    final ClientOptions transportOptions = transport.getTransportOptions();
+    final int connectionCount =
+        transportOptions.getHttpProtocolPolicy() == HttpProtocolPolicy.HTTP_2
+            ? 1 : Math.min(connections, transportOptions.getMaxConcurrentRequests());
+    final SimpleHttpRequest request =
+        SimpleRequestBuilder.head(baseUriBuilder(null).setPath("/").toString()).build();
+    return new ApiCall<Void>() {
+      @Override
+      protected Cancellable start(@Nonnull FutureCallback<Void> callback) {
+        // The requests are in flight at the same time, so each of them needs its own connection.
+        // The call completes once all of them are over, with the first error if any. They bypass
+        // the request limiter, so they are not held back by an adaptive limit that starts low, and
+        // their round trip times, which include the handshakes, don't feed into it.
+        final AtomicInteger remaining = new AtomicInteger(connectionCount);
+        final AtomicReference<Exception> firstError = new AtomicReference<>();
+        final FutureCallback<SimpleHttpResponse> requestCallback =
+            new FutureCallback<SimpleHttpResponse>() {
+
+              @Override
+              public void completed(SimpleHttpResponse result) {
+                requestDone();
+              }
+
+              @Override
+              public void failed(Exception ex) {
+                firstError.compareAndSet(null, ex);
+                requestDone();
+              }
+
+              @Override
+              public void cancelled() {
+                firstError.compareAndSet(null, new CancellationException());
+                requestDone();
+              }
+
+              private void requestDone() {
+                if (remaining.decrementAndGet() != 0) {
+                  return;
+                }
+                final Exception error = firstError.get();
+                if (error == null) {
+                  callback.completed(null);
+                } else {
+                  callback.failed(new SaaSquatchIOException(error.getMessage(), error));
+                }
+              }
+
+            };
+        final Cancellable[] cancellables = new Cancellable[connectionCount];
+        for (int i = 0; i < connectionCount; i++) {
+          cancellables[i] = InternalUtils.executeRequest(httpEngine, request, null, null,
+              requestCallback);
+        }
+        return () -> {
+          boolean cancelled = false;
+          for (Cancellable cancellable : cancellables) {
+            cancelled |= cancellable.cancel();
+          }
+          return cancelled;
+        };
+      }
+    };
   }
 
   @Nonnull
@@ -104,13 +217,14 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
   }
 
   @Override
-  public Publisher<GraphQLApiResponse> graphQL(@Nonnull GraphQLInput graphQLInput,
+  public ApiCall<GraphQLApiResponse> graphQL(@Nonnull GraphQLInput graphQLInput,
       @Nullable RequestOptions requestOptions) {
-    return _graphQL(graphQLInput, null, requestOptions);
+    return _graphQL(graphQLInput, null, requestOptions, ApiOperation.GRAPHQL);
   }
 
-  private Flowable<GraphQLApiResponse> _graphQL(@Nonnull GraphQLInput graphQLInput,
-      @Nullable String userJwt, @Nullable RequestOptions requestOptions) {
+  private ApiCall<GraphQLApiResponse> _graphQL(@Nonnull GraphQLInput graphQLInput,
+      @Nullable String userJwt, @Nullable RequestOptions requestOptions,
+      @Nonnull ApiOperation operation) {
     Objects.requireNonNull(graphQLInput, "graphQLInput");
     final URIBuilder uriBuilder = baseUriBuilder(requestOptions);
     final List<String> pathSegments = baseTenantApiPathSegments(requestOptions);
@@ -121,28 +235,26 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
     if (userJwt != null) {
       AuthMethod.ofJwt(userJwt).mutateRequest(requestBuilder);
     }
-    setJsonPojoBody(requestBuilder, graphQLInput);
-    return executeRequest(requestBuilder).map(GraphQLApiResponse::new);
+    return executeRequest(requestBuilder, requestOptions, operation, operation.isRead(),
+        graphQLInput, getRequestCompressionThreshold(requestOptions), GraphQLApiResponse::new);
   }
 
   @Override
-  public Publisher<JsonObjectApiResponse> getUser(@Nonnull String accountId, @Nonnull String userId,
+  public ApiCall<JsonObjectApiResponse> getUser(@Nonnull String accountId, @Nonnull String userId,
       @Nullable RequestOptions requestOptions) {
-    return _getUser(accountId, userId, null, null, requestOptions, false)
-        .map(JsonObjectApiResponse::new);
+    return _getUser(accountId, userId, null, null, requestOptions, false);
   }
 
   @Override
-  public Publisher<JsonObjectApiResponse> getUserWithUserJwt(@Nonnull String userJwt,
+  public ApiCall<JsonObjectApiResponse> getUserWithUserJwt(@Nonnull String userJwt,
       @Nullable RequestOptions requestOptions) {
     requireNotBlank(userJwt, "userJwt");
     final UserIdInput userIdInput = getUserIdInputFromUserJwt(userJwt);
     return _getUser(userIdInput.getAccountId(), userIdInput.getId(), userJwt, null, requestOptions,
-        false)
-        .map(JsonObjectApiResponse::new);
+        false);
   }
 
-  private Flowable<SaaSquatchHttpResponse> _getUser(@Nonnull String accountId,
+  private ApiCall<JsonObjectApiResponse> _getUser(@Nonnull String accountId,
       @Nonnull String userId, @Nullable String userJwt,
       @SuppressWarnings("SameParameterValue") @Nullable WidgetType widgetType,
       @Nullable RequestOptions requestOptions,
@@ -163,11 +275,12 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
     if (userJwt != null) {
       AuthMethod.ofJwt(userJwt).mutateRequest(requestBuilder);
     }
-    return executeRequest(requestBuilder);
+    return executeRequest(requestBuilder, requestOptions, ApiOperation.GET_USER, true,
+        JsonObjectApiResponse::new);
   }
 
   @Override
-  public Publisher<TextApiResponse> renderWidget(@Nonnull RenderWidgetInput renderWidgetInput,
+  public ApiCall<TextApiResponse> renderWidget(@Nonnull RenderWidgetInput renderWidgetInput,
       @Nullable RequestOptions requestOptions) {
     Objects.requireNonNull(renderWidgetInput, "renderWidgetInput");
     final Map<String, Object> variables = new HashMap<>();
@@ -181,9 +294,9 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
     return _graphQL(GraphQLInput.newBuilder()
         .setQuery(GraphQLQueries.RENDER_WIDGET)
         .setVariables(variables)
-        .build(), renderWidgetInput.getUserJwt(), requestOptions)
-        .doOnNext(InternalUtils::throwSquatchExceptionForPotentialGraphQLError)
+        .build(), renderWidgetInput.getUserJwt(), requestOptions, ApiOperation.RENDER_WIDGET)
         .map(graphQLApiResponse -> {
+          InternalUtils.throwSquatchExceptionForPotentialGraphQLError(graphQLApiResponse);
           final GraphQLResult graphQLResult = Objects.requireNonNull(graphQLApiResponse.getData());
           final String templateString = (String) getNestedMapValue(graphQLResult.getData(),
               "renderWidget", "template");
@@ -192,7 +305,7 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
   }
 
   @Override
-  public Publisher<JsonObjectApiResponse> getWidgetConfigValues(
+  public ApiCall<JsonObjectApiResponse> getWidgetConfigValues(
       @Nonnull RenderWidgetInput renderWidgetInput, @Nullable RequestOptions requestOptions) {
     Objects.requireNonNull(renderWidgetInput, "renderWidgetInput");
     final Map<String, Object> variables = new HashMap<>();
@@ -206,9 +319,10 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
     return _graphQL(GraphQLInput.newBuilder()
         .setQuery(GraphQLQueries.GET_WIDGET_CONFIG_VALUES)
         .setVariables(variables)
-        .build(), renderWidgetInput.getUserJwt(), requestOptions)
-        .doOnNext(InternalUtils::throwSquatchExceptionForPotentialGraphQLError)
+        .build(), renderWidgetInput.getUserJwt(), requestOptions,
+            ApiOperation.GET_WIDGET_CONFIG_VALUES)
         .map(graphQLApiResponse -> {
+          InternalUtils.throwSquatchExceptionForPotentialGraphQLError(graphQLApiResponse);
           final GraphQLResult graphQLResult = Objects.requireNonNull(graphQLApiResponse.getData());
           @SuppressWarnings("unchecked") final Map<String, Object> widgetConfigValues =
               (Map<String, Object>) getNestedMapValue(graphQLResult.getData(), "renderWidget",
@@ -219,46 +333,41 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
   }
 
   @Override
-  public Publisher<JsonObjectApiResponse> userUpsert(@Nonnull UserInput userInput,
+  public ApiCall<JsonObjectApiResponse> userUpsert(@Nonnull UserInput userInput,
       @Nullable RequestOptions requestOptions) {
     return _userUpsert(userInput.getAccountId(), userInput.getId(), userInput, null, null, null,
-        requestOptions, false)
-        .map(JsonObjectApiResponse::new);
+        requestOptions, false);
   }
 
   @Override
-  public Publisher<JsonObjectApiResponse> userUpsert(@Nonnull Map<String, Object> userInput,
+  public ApiCall<JsonObjectApiResponse> userUpsert(@Nonnull Map<String, Object> userInput,
       @Nullable RequestOptions requestOptions) {
     return _userUpsert((String) userInput.get("accountId"), (String) userInput.get("id"), userInput,
-        null, null, null, requestOptions, false)
-        .map(JsonObjectApiResponse::new);
+        null, null, null, requestOptions, false);
   }
 
   @Override
-  public Publisher<JsonObjectApiResponse> userUpsertWithUserJwt(@Nonnull String userJwt,
+  public ApiCall<JsonObjectApiResponse> userUpsertWithUserJwt(@Nonnull String userJwt,
       @Nullable RequestOptions requestOptions) {
     requireNotBlank(userJwt, "userJwt");
     final Map<String, Object> payload = getJwtPayload(userJwt);
     @SuppressWarnings("unchecked") final Map<String, Object> userInput =
         (Map<String, Object>) Objects.requireNonNull(payload.get("user"), "user");
     return _userUpsert((String) userInput.get("accountId"), (String) userInput.get("id"), userInput,
-        userJwt, null, null, requestOptions, false)
-        .map(JsonObjectApiResponse::new);
+        userJwt, null, null, requestOptions, false);
   }
 
   @Override
-  public Publisher<JsonObjectApiResponse> widgetUpsert(@Nonnull WidgetUpsertInput widgetUpsertInput,
+  public ApiCall<JsonObjectApiResponse> widgetUpsert(@Nonnull WidgetUpsertInput widgetUpsertInput,
       @Nullable RequestOptions requestOptions) {
     Objects.requireNonNull(widgetUpsertInput, "widgetUpsertInput");
-    return Flowable.fromPublisher(_userUpsert(
-            widgetUpsertInput.getAccountId(), widgetUpsertInput.getUserId(),
-            widgetUpsertInput.getUserInput(), widgetUpsertInput.getUserJwt(),
-            widgetUpsertInput.getWidgetType(), widgetUpsertInput.getEngagementMedium(),
-            requestOptions, true))
-        .map(JsonObjectApiResponse::new);
+    return _userUpsert(widgetUpsertInput.getAccountId(), widgetUpsertInput.getUserId(),
+        widgetUpsertInput.getUserInput(), widgetUpsertInput.getUserJwt(),
+        widgetUpsertInput.getWidgetType(), widgetUpsertInput.getEngagementMedium(),
+        requestOptions, true);
   }
 
-  private Flowable<SaaSquatchHttpResponse> _userUpsert(@Nonnull String accountId,
+  private ApiCall<JsonObjectApiResponse> _userUpsert(@Nonnull String accountId,
       @Nonnull String userId, @Nonnull Object body, @Nullable String userJwt,
       @Nullable WidgetType widgetType, @Nullable String engagementMedium,
       @Nullable RequestOptions requestOptions, boolean widgetRequest) {
@@ -281,12 +390,16 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
     if (userJwt != null) {
       AuthMethod.ofJwt(userJwt).mutateRequest(requestBuilder);
     }
-    setJsonPojoBody(requestBuilder, body);
-    return executeRequest(requestBuilder);
+    final int requestCompressionThreshold = widgetRequest
+        ? ClientOptions.REQUEST_COMPRESSION_DISABLED
+        : getRequestCompressionThreshold(requestOptions);
+    return executeRequest(requestBuilder, requestOptions,
+        widgetRequest ? ApiOperation.WIDGET_UPSERT : ApiOperation.USER_UPSERT, true, body,
+        requestCompressionThreshold, JsonObjectApiResponse::new);
   }
 
   @Override
-  public Publisher<JsonObjectApiResponse> getUserShareLinks(
+  public ApiCall<JsonObjectApiResponse> getUserShareLinks(
       @Nonnull GetUserLinkInput getUserLinkInput, @Nullable RequestOptions requestOptions) {
     final URIBuilder uriBuilder = baseUriBuilder(requestOptions);
     final List<String> pathSegments = baseTenantApiPathSegments(requestOptions);
@@ -301,38 +414,41 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
     }
     final SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.get(uriBuilder.toString());
     mutateRequest(requestBuilder, requestOptions);
-    return executeRequest(requestBuilder).map(JsonObjectApiResponse::new);
+    return executeRequest(requestBuilder, requestOptions, ApiOperation.GET_USER_SHARE_LINKS, true,
+        JsonObjectApiResponse::new);
   }
 
   @Override
-  public Publisher<JsonObjectApiResponse> logUserEvent(@Nonnull UserEventInput userEventInput,
+  public ApiCall<JsonObjectApiResponse> logUserEvent(@Nonnull UserEventInput userEventInput,
       @Nullable RequestOptions requestOptions) {
     return _logUserEvent(userEventInput.getAccountId(), userEventInput.getUserId(), userEventInput,
-        requestOptions);
+        userEventInput.getIdempotencyKey() != null, requestOptions);
   }
 
   @Override
-  public Publisher<JsonObjectApiResponse> logUserEvent(@Nonnull Map<String, Object> userEventInput,
+  public ApiCall<JsonObjectApiResponse> logUserEvent(@Nonnull Map<String, Object> userEventInput,
       @Nullable RequestOptions requestOptions) {
     final String accountId = requireNotBlank((String) userEventInput.get("accountId"), "accountId");
     final String userId = requireNotBlank((String) userEventInput.get("userId"), "userId");
-    return _logUserEvent(accountId, userId, userEventInput, requestOptions);
+    return _logUserEvent(accountId, userId, userEventInput,
+        userEventInput.get("idempotencyKey") != null, requestOptions);
   }
 
-  private Publisher<JsonObjectApiResponse> _logUserEvent(@Nonnull String accountId,
-      @Nonnull String userId, @Nonnull Object body, @Nullable RequestOptions requestOptions) {
+  private ApiCall<JsonObjectApiResponse> _logUserEvent(@Nonnull String accountId,
+      @Nonnull String userId, @Nonnull Object body, boolean idempotent,
+      @Nullable RequestOptions requestOptions) {
     final URIBuilder uriBuilder = baseUriBuilder(requestOptions);
     final List<String> pathSegments = baseTenantApiPathSegments(requestOptions);
     Collections.addAll(pathSegments, "open", "account", accountId, "user", userId, "events");
     mutateUri(uriBuilder, pathSegments, requestOptions);
     final SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.post(uriBuilder.toString());
     mutateRequest(requestBuilder, requestOptions);
-    setJsonPojoBody(requestBuilder, body);
-    return executeRequest(requestBuilder).map(JsonObjectApiResponse::new);
+    return executeRequest(requestBuilder, requestOptions, ApiOperation.LOG_USER_EVENT, idempotent,
+        body, getRequestCompressionThreshold(requestOptions), JsonObjectApiResponse::new);
   }
 
   @Override
-  public Publisher<JsonObjectApiResponse> applyReferralCode(
+  public ApiCall<JsonObjectApiResponse> applyReferralCode(
       @Nonnull ApplyReferralCodeInput applyReferralCodeInput,
       @Nullable RequestOptions requestOptions) {
     Objects.requireNonNull(applyReferralCodeInput, "applyReferralCodeInput");
@@ -344,12 +460,12 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
     mutateUri(uriBuilder, pathSegments, requestOptions);
     final SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.post(uriBuilder.toString());
     mutateRequest(requestBuilder, requestOptions);
-    setJsonPojoBody(requestBuilder, Collections.emptyMap());
-    return executeRequest(requestBuilder).map(JsonObjectApiResponse::new);
+    return executeRequest(requestBuilder, requestOptions, ApiOperation.APPLY_REFERRAL_CODE, false,
+        Collections.emptyMap(), JsonObjectApiResponse::new);
   }
 
   @Override
-  public Publisher<JsonObjectApiResponse> validateReferralCode(@Nonnull String referralCode,
+  public ApiCall<JsonObjectApiResponse> validateReferralCode(@Nonnull String referralCode,
       @Nullable RequestOptions requestOptions) {
     final URIBuilder uriBuilder = baseUriBuilder(requestOptions);
     final List<String> pathSegments = baseTenantApiPathSegments(requestOptions);
@@ -357,24 +473,25 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
     mutateUri(uriBuilder, pathSegments, requestOptions);
     final SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.get(uriBuilder.toString());
     mutateRequest(requestBuilder, requestOptions);
-    return executeRequest(requestBuilder).map(JsonObjectApiResponse::new);
+    return executeRequest(requestBuilder, requestOptions, ApiOperation.VALIDATE_REFERRAL_CODE, true,
+        JsonObjectApiResponse::new);
   }
 
   @Override
-  public Publisher<StatusOnlyApiResponse> deleteUser(@Nonnull DeleteUserInput deleteUserInput,
+  public ApiCall<StatusOnlyApiResponse> deleteUser(@Nonnull DeleteUserInput deleteUserInput,
       @Nullable RequestOptions requestOptions) {
     return _deleteUserOrAccount(deleteUserInput.getAccountId(), deleteUserInput.getUserId(),
         deleteUserInput.getDoNotTrack(), deleteUserInput.getPreserveEmptyAccount(), requestOptions);
   }
 
   @Override
-  public Publisher<StatusOnlyApiResponse> deleteAccount(
+  public ApiCall<StatusOnlyApiResponse> deleteAccount(
       @Nonnull DeleteAccountInput deleteAccountInput, @Nullable RequestOptions requestOptions) {
     return _deleteUserOrAccount(deleteAccountInput.getAccountId(), null,
         deleteAccountInput.getDoNotTrack(), null, requestOptions);
   }
 
-  private Publisher<StatusOnlyApiResponse> _deleteUserOrAccount(@Nonnull String accountId,
+  private ApiCall<StatusOnlyApiResponse> _deleteUserOrAccount(@Nonnull String accountId,
       @Nullable String userId, @Nullable Boolean doNotTrack, @Nullable Boolean preserveEmptyAccount,
       @Nullable RequestOptions requestOptions) {
     final URIBuilder uriBuilder = baseUriBuilder(requestOptions);
@@ -392,22 +509,24 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
     }
     final SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.delete(uriBuilder.toString());
     mutateRequest(requestBuilder, requestOptions);
-    return executeRequest(requestBuilder).map(StatusOnlyApiResponse::new);
+    return executeRequest(requestBuilder, requestOptions,
+        userId == null ? ApiOperation.DELETE_ACCOUNT : ApiOperation.DELETE_USER, false,
+        StatusOnlyApiResponse::new);
   }
 
   @Override
-  public Publisher<JsonObjectApiResponse> blockUser(@Nonnull String accountId,
+  public ApiCall<JsonObjectApiResponse> blockUser(@Nonnull String accountId,
       @Nonnull String userId, @Nullable RequestOptions requestOptions) {
     return _blockOrUnblockUser(accountId, userId, true, requestOptions);
   }
 
   @Override
-  public Publisher<JsonObjectApiResponse> unblockUser(@Nonnull String accountId,
+  public ApiCall<JsonObjectApiResponse> unblockUser(@Nonnull String accountId,
       @Nonnull String userId, @Nullable RequestOptions requestOptions) {
     return _blockOrUnblockUser(accountId, userId, false, requestOptions);
   }
 
-  private Publisher<JsonObjectApiResponse> _blockOrUnblockUser(@Nonnull String accountId,
+  private ApiCall<JsonObjectApiResponse> _blockOrUnblockUser(@Nonnull String accountId,
       @Nonnull String userId, boolean block, @Nullable RequestOptions requestOptions) {
     final URIBuilder uriBuilder = baseUriBuilder(requestOptions);
     final List<String> pathSegments = baseTenantApiPathSegments(requestOptions);
@@ -416,24 +535,26 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
     mutateUri(uriBuilder, pathSegments, requestOptions);
     final SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.post(uriBuilder.toString());
     mutateRequest(requestBuilder, requestOptions);
-    return executeRequest(requestBuilder).map(JsonObjectApiResponse::new);
+    return executeRequest(requestBuilder, requestOptions,
+        block ? ApiOperation.BLOCK_USER : ApiOperation.UNBLOCK_USER, false,
+        JsonObjectApiResponse::new);
   }
 
   @Override
-  public Publisher<StatusOnlyApiResponse> pushWidgetLoadedAnalyticsEvent(
+  public ApiCall<StatusOnlyApiResponse> pushWidgetLoadedAnalyticsEvent(
       @Nonnull PushWidgetAnalyticsEventInput pushWidgetAnalyticsEventInput,
       @Nullable RequestOptions requestOptions) {
     return _pushWidgetAnalyticsEvent("loaded", pushWidgetAnalyticsEventInput, requestOptions);
   }
 
   @Override
-  public Publisher<StatusOnlyApiResponse> pushWidgetSharedAnalyticsEvent(
+  public ApiCall<StatusOnlyApiResponse> pushWidgetSharedAnalyticsEvent(
       @Nonnull PushWidgetAnalyticsEventInput pushWidgetAnalyticsEventInput,
       @Nullable RequestOptions requestOptions) {
     return _pushWidgetAnalyticsEvent("shared", pushWidgetAnalyticsEventInput, requestOptions);
   }
 
-  private Publisher<StatusOnlyApiResponse> _pushWidgetAnalyticsEvent(@Nonnull String type,
+  private ApiCall<StatusOnlyApiResponse> _pushWidgetAnalyticsEvent(@Nonnull String type,
       @Nonnull PushWidgetAnalyticsEventInput pushWidgetAnalyticsEventInput,
       @Nullable RequestOptions requestOptions) {
     Objects.requireNonNull(pushWidgetAnalyticsEventInput, "pushWidgetAnalyticsEventInput");
@@ -460,8 +581,10 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
     }
     final SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.post(uriBuilder.toString());
     mutateRequest(requestBuilder, requestOptions);
-    setJsonPojoBody(requestBuilder, Collections.emptyMap());
-    return executeRequest(requestBuilder).map(StatusOnlyApiResponse::new);
+    return executeRequest(requestBuilder, requestOptions,
+        type.equals("loaded") ? ApiOperation.PUSH_WIDGET_LOADED_ANALYTICS_EVENT
+            : ApiOperation.PUSH_WIDGET_SHARED_ANALYTICS_EVENT,
+        false, Collections.emptyMap(), StatusOnlyApiResponse::new);
   }
 
   ////////////////////////////////////////////////////////////////////////////////
@@ -471,7 +594,7 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
   /**
    * All the common url mutations happen here
    */
-  private void mutateUri(@Nonnull URIBuilder uriBuilder, @Nonnull List<String> pathSegments,
+  void mutateUri(@Nonnull URIBuilder uriBuilder, @Nonnull List<String> pathSegments,
       @Nullable RequestOptions requestOptions) {
     uriBuilder.setPathSegments(pathSegments);
     if (requestOptions != null) {
@@ -482,7 +605,7 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
   /**
    * All the common request mutations happen here
    */
-  private void mutateRequest(@Nonnull SimpleRequestBuilder requestBuilder,
+  void mutateRequest(@Nonnull SimpleRequestBuilder requestBuilder,
       @Nullable RequestOptions requestOptions) {
     if (requestOptions != null) {
       requestOptions.mutateRequest(requestBuilder);
@@ -514,6 +637,25 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
     return requireNotBlank(tenantAlias, "tenantAlias");
   }
 
+  private int getRequestCompressionThreshold(@Nullable RequestOptions requestOptions) {
+    return defaultIfNull(
+        requestOptions == null ? null : requestOptions.getRequestCompressionThreshold(),
+        clientOptions.getRequestCompressionThreshold());
+  }
+
+  @Nullable
+  private RetryPolicy getRetryPolicy(@Nullable RequestOptions requestOptions) {
+    final RetryPolicy retryPolicy = requestOptions == null ? null : requestOptions.getRetryPolicy();
+    return retryPolicy == null ? clientOptions.getRetryPolicy() : retryPolicy;
+  }
+
+  @Nullable
+  private HedgingPolicy getHedgingPolicy(@Nullable RequestOptions requestOptions) {
+    final HedgingPolicy hedgingPolicy =
+        requestOptions == null ? null : requestOptions.getHedgingPolicy();
+    return hedgingPolicy == null ? clientOptions.getHedgingPolicy() : hedgingPolicy;
+  }
+
   @Nonnull
   private AuthMethod getAuthMethod(@Nullable RequestOptions requestOptions) {
     AuthMethod authMethod = null;
@@ -529,9 +671,9 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
   /**
    * Get the base url builder with protocol and app domain
    */
-  private URIBuilder baseUriBuilder(
+  URIBuilder baseUriBuilder(
       @SuppressWarnings("unused") @Nullable RequestOptions requestOptions) {
-    return new URIBuilder().setScheme(scheme).setHost(clientOptions.getAppDomain());
+    return new URIBuilder(baseUri);
   }
 
   /**
@@ -539,7 +681,7 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
    *
    * @return a mutable list of path segments
    */
-  private List<String> baseTenantApiPathSegments(@Nullable RequestOptions requestOptions) {
+  List<String> baseTenantApiPathSegments(@Nullable RequestOptions requestOptions) {
     final List<String> pathSegments = new ArrayList<>();
     Collections.addAll(pathSegments, "api", "v1", getTenantAlias(requestOptions));
     return pathSegments;
@@ -556,20 +698,152 @@ final class SaaSquatchClientImpl implements SaaSquatchClient {
     return pathSegments;
   }
 
-  private void setJsonPojoBody(@Nonnull SimpleRequestBuilder requestBuilder, Object body) {
-    setJsonStringBody(requestBuilder, gson.toJson(body));
+  /**
+   * Create a {@link JsonEntityProducer} that streams the given body as JSON, gzipped if it's larger
+   * than the given threshold
+   */
+  JsonEntityProducer newJsonEntityProducer(@Nullable Object body, int requestCompressionThreshold) {
+    return JsonEntityProducer.create(gson, body, bufferPool, requestCompressionThreshold);
   }
 
-  private void setJsonStringBody(@Nonnull SimpleRequestBuilder requestBuilder, String jsonStr) {
-    requestBuilder.setBody(jsonStr, ContentType.APPLICATION_JSON);
+  /**
+   * Execute the request and wrap the response with the given {@link ApiResponse} factory
+   */
+  private <R extends ApiResponse<?>> ApiCall<R> executeRequest(
+      @Nonnull SimpleRequestBuilder requestBuilder, @Nullable RequestOptions requestOptions,
+      @Nonnull ApiOperation operation, boolean idempotent,
+      @Nonnull ApiCall.Mapper<SaaSquatchHttpResponse, R> apiResponseFactory) {
+    return executeRequest(requestBuilder, requestOptions, operation, idempotent, null,
+        apiResponseFactory);
+  }
+
+  /**
+   * Execute the request with the given body serialized as JSON, and wrap the response with the
+   * given {@link ApiResponse} factory
+   */
+  private <R extends ApiResponse<?>> ApiCall<R> executeRequest(
+      @Nonnull SimpleRequestBuilder requestBuilder, @Nullable RequestOptions requestOptions,
+      @Nonnull ApiOperation operation, boolean idempotent, @Nullable Object jsonBody,
+      @Nonnull ApiCall.Mapper<SaaSquatchHttpResponse, R> apiResponseFactory) {
+    return executeRequest(requestBuilder, requestOptions, operation, idempotent, jsonBody,
+        ClientOptions.REQUEST_COMPRESSION_DISABLED, apiResponseFactory);
+  }
+
+  /**
+   * Execute the request with the given body serialized as JSON and gzipped if it's larger than the
+   * given threshold, and wrap the response with the given {@link ApiResponse} factory
+   */
+  private <R extends ApiResponse<?>> ApiCall<R> executeRequest(
+      @Nonnull SimpleRequestBuilder requestBuilder, @Nullable RequestOptions requestOptions,
+      @Nonnull ApiOperation operation, boolean idempotent, @Nullable Object jsonBody,
+      int requestCompressionThreshold,
+      @Nonnull ApiCall.Mapper<SaaSquatchHttpResponse, R> apiResponseFactory) {
+    return executeRequest(requestBuilder, requestOptions, operation, idempotent, jsonBody,
+        requestCompressionThreshold)
+        .map(httpResponse -> {
+          final R apiResponse = apiResponseFactory.apply(httpResponse);
+          if (clientOptions.isEagerResponseParsingEnabled()) {
+            apiResponse.getData();
+          }
+          return apiResponse;
+        });
   }
 
-  private Flowable<SaaSquatchHttpResponse> executeRequest(
-      @Nonnull SimpleRequestBuilder requestBuilder) {
-    return InternalUtils.executeRequest(httpAsyncClient, requestBuilder.build())
-        .onErrorResumeNext(t -> Flowable.error(new SaaSquatchIOException(t.getMessage(), t)))
-        .<SaaSquatchHttpResponse>map(Client5SaaSquatchHttpResponse::new)
-        .doOnNext(this::httpResponseToPossibleException);
+  /**
+   * Execute the request with the given body serialized as JSON and gzipped if it's larger than the
+   * given threshold, within the deadline of the given {@link RequestOptions} if any, with retries
+   * if the request is idempotent and there is a {@link RetryPolicy}, with hedging if the
+   * operation is a read and there is a {@link HedgingPolicy}, and behind the circuit breaker of
+   * the operation and tenant if there is a {@link CircuitBreakerPolicy}
+   */
+  private ApiCall<SaaSquatchHttpResponse> executeRequest(
+      @Nonnull SimpleRequestBuilder requestBuilder, @Nullable RequestOptions requestOptions,
+      @Nonnull ApiOperation operation, boolean idempotent, @Nullable Object jsonBody,
+      int requestCompressionThreshold) {
+    final SimpleHttpRequest request = requestBuilder.build();
+    final Long deadlineEpochMillis =
+        requestOptions == null ? null : requestOptions.getDeadlineEpochMillis();
+    final ApiCall<SaaSquatchHttpResponse> call = new ApiCall<SaaSquatchHttpResponse>() {
+      @Override
+      protected Cancellable start(@Nonnull FutureCallback<SaaSquatchHttpResponse> callback) {
+        final JsonEntityProducer entityProducer;
+        try {
+          entityProducer = jsonBody == null ? null
+              : newJsonEntityProducer(jsonBody, requestCompressionThreshold);
+        } catch (RuntimeException e) {
+          callback.failed(new SaaSquatchIOException(e.getMessage(), e));
+          return () -> false;
+        }
+        return InternalUtils.executeRequest(httpEngine,
+            deadlineEpochMillis == null ? request : capTimeouts(request, deadlineEpochMillis),
+            entityProducer, requestLimiter, new FutureCallback<SimpleHttpResponse>() {
+
+              @Override
+              public void completed(SimpleHttpResponse result) {
+                final SaaSquatchHttpResponse httpResponse =
+                    new Client5SaaSquatchHttpResponse(result);
+                try {
+                  httpResponseToPossibleException(httpResponse);
+                } catch (RuntimeException e) {
+                  callback.failed(e);
+                  return;
+                }
+                callback.completed(httpResponse);
+              }
+
+              @Override
+              public void failed(Exception ex) {
+                callback.failed(new SaaSquatchIOException(ex.getMessage(), ex));
+              }
+
+              @Override
+              public void cancelled() {
+                callback.cancelled();
+              }
+
+            });
+      }
+    };
+    ApiCall<SaaSquatchHttpResponse> result = call;
+    final CircuitBreakerPolicy circuitBreakerPolicy = clientOptions.getCircuitBreakerPolicy();
+    if (circuitBreakerPolicy != null) {
+      // Innermost, so every attempt is tracked and an open circuit breaker stops the retries
+      result = result.withCircuitBreaker(circuitBreakerPolicy.getCircuitBreaker(operation,
+          getTenantAlias(requestOptions)));
+    }
+    final RetryPolicy retryPolicy = idempotent ? getRetryPolicy(requestOptions) : null;
+    if (retryPolicy != null) {
+      result = result.withRetries(retryPolicy, deadlineEpochMillis, transport.getScheduler());
+    }
+    final HedgingPolicy hedgingPolicy =
+        operation.isRead() ? getHedgingPolicy(requestOptions) : null;
+    if (hedgingPolicy != null) {
+      result = result.withHedging(hedgingPolicy, operation, transport.getScheduler());
+    }
+    if (deadlineEpochMillis != null) {
+      result = result.withDeadline(deadlineEpochMillis, transport.getScheduler());
+    }
+    return result;
+  }
+
+  /**
+   * @return a copy of the given request with the connection lease timeout and the response timeout
+   *         capped at the time left until the given deadline. The deadline itself is enforced by
+   *         {@link ApiCall#withDeadline(long, TaskScheduler)}, and this only makes the HTTP client
+   *         give up on its own around the same time.
+   */
+  private static SimpleHttpRequest capTimeouts(@Nonnull SimpleHttpRequest request,
+      long deadlineEpochMillis) {
+    final long remainingMillis = Math.max(1, deadlineEpochMillis - System.currentTimeMillis());
+    final RequestConfig requestConfig = request.getConfig();
+    final Timeout responseTimeout = requestConfig.getResponseTimeout();
+    final RequestConfig.Builder requestConfigBuilder = RequestConfig.copy(requestConfig)
+        .setConnectionRequestTimeout(remainingMillis, TimeUnit.MILLISECONDS);
+    if (responseTimeout == null || responseTimeout.toMilliseconds() > remainingMillis) {
+      requestConfigBuilder.setResponseTimeout(remainingMillis, TimeUnit.MILLISECONDS);
+    }
+    return SimpleRequestBuilder.copy(request).setRequestConfig(requestConfigBuilder.build())
+        .build();
   }
 
   private void httpResponseToPossibleException(@Nonnull SaaSquatchHttpResponse httpResponse) {
@@ -0,0 +1,196 @@
+package com.saasquatch.sdk;
+
+import com.saasquatch.sdk.annotations.Beta;
+import com.saasquatch.sdk.internal.ByteBufferPool;
+import com.saasquatch.sdk.internal.Client5HttpEngine;
+import com.saasquatch.sdk.internal.HttpEngine;
+import com.saasquatch.sdk.internal.InternalUtils;
+import com.saasquatch.sdk.internal.JdkHttpEngines;
+import com.saasquatch.sdk.internal.RequestLimiter;
+import com.saasquatch.sdk.internal.TaskScheduler;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+
+/**
+ * The HTTP resources behind a {@link SaaSquatchClient}, which are the I/O threads, the connection
+ * pool, the buffer pool, the limit on requests in flight and the timer thread for deadlines.
+ * Every {@link SaaSquatchClient} creates its own transport by default. A transport can instead be
+ * created once and shared by many clients through
+ * {@link ClientOptions.Builder#setTransport(SaaSquatchTransport)}, e.g. with one client per tenant,
+ * so they all share the same threads and connections.<br>
+ * A shared transport is not closed when its clients are closed. It should be closed once all the
+ * clients using it are no longer needed.
+ *
+ * @author sli
+ * @see #create(ClientOptions)
+ */
+@Beta
+public final class SaaSquatchTransport implements Closeable {
+
+  private final ClientOptions transportOptions;
+  private final HttpEngine httpEngine;
+  private final ByteBufferPool bufferPool;
+  private final RequestLimiter requestLimiter;
+  private final TaskScheduler scheduler = new TaskScheduler();
+
+  private SaaSquatchTransport(@Nonnull ClientOptions transportOptions) {
+    this.transportOptions = transportOptions;
+    this.bufferPool = new ByteBufferPool(ByteBufferPool.DEFAULT_BUFFER_SIZE,
+        transportOptions.getBufferPoolMaxBytes(), transportOptions.isDirectBuffersEnabled());
+    this.requestLimiter = transportOptions.isAdaptiveConcurrencyEnabled()
+        ? RequestLimiter.adaptive(transportOptions.getMaxConcurrentRequests())
+        : new RequestLimiter(transportOptions.getMaxConcurrentRequests());
+    this.httpEngine = buildHttpEngine(transportOptions, bufferPool,
+        InternalUtils.buildUserAgent(InternalUtils.randomHexString(8)));
+  }
+
+  /**
+   * Create a transport with the connection, concurrency and buffer settings of the given
+   * {@link ClientOptions}, which are {@code maxConcurrentRequests}, {@code connectTimeout},
+   * {@code httpProtocolPolicy}, {@code adaptiveConcurrencyEnabled},
+   * {@code connectionTimeToLive}, {@code validateAfterInactivity}, {@code keepAliveTimeout},
+   * {@code bufferPoolMaxBytes}, {@code directBuffersEnabled}, {@code httpEngineType} and the I/O
+   * thread and socket settings. The other settings are ignored.
+   *
+   * @throws UnsupportedOperationException if the {@link HttpEngineType} is not available on this
+   *         runtime
+   */
+  public static SaaSquatchTransport create(@Nonnull ClientOptions transportOptions) {
+    Objects.requireNonNull(transportOptions, "transportOptions");
+    if (transportOptions.getTransport() != null) {
+      throw new IllegalArgumentException("transportOptions cannot have a transport");
+    }
+    return new SaaSquatchTransport(transportOptions);
+  }
+
+  @Override
+  public void close() throws IOException {
+    scheduler.close();
+    httpEngine.close();
+  }
+
+  @Nonnull
+  ClientOptions getTransportOptions() {
+    return transportOptions;
+  }
+
+  @Nonnull
+  HttpEngine getHttpEngine() {
+    return httpEngine;
+  }
+
+  @Nonnull
+  ByteBufferPool getBufferPool() {
+    return bufferPool;
+  }
+
+  @Nonnull
+  RequestLimiter getRequestLimiter() {
+    return requestLimiter;
+  }
+
+  @Nonnull
+  TaskScheduler getScheduler() {
+    return scheduler;
+  }
+
+  private static HttpEngine buildHttpEngine(@Nonnull ClientOptions clientOptions,
+      @Nonnull ByteBufferPool bufferPool, @Nonnull String userAgent) {
+    if (clientOptions.getHttpEngineType() == HttpEngineType.JAVA_NET_HTTP) {
+      return JdkHttpEngines.create(clientOptions.getConnectTimeoutMillis(),
+          clientOptions.getHttpProtocolPolicy() != HttpProtocolPolicy.HTTP_1_1, userAgent);
+    }
+    final CloseableHttpAsyncClient httpAsyncClient =
+        buildHttpAsyncClient(clientOptions, userAgent);
+    httpAsyncClient.start();
+    return new Client5HttpEngine(httpAsyncClient, bufferPool);
+  }
+
+  private static CloseableHttpAsyncClient buildHttpAsyncClient(
+      @Nonnull ClientOptions clientOptions, @Nonnull String userAgent) {
+    final ConnectionConfig.Builder connectionConfigBuilder = ConnectionConfig.custom()
+        .setConnectTimeout(clientOptions.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS)
+        .setValidateAfterInactivity(clientOptions.getValidateAfterInactivityMillis(),
+            TimeUnit.MILLISECONDS);
+    if (clientOptions.getConnectionTimeToLiveMillis()
+        != ClientOptions.CONNECTION_TIME_TO_LIVE_UNLIMITED) {
+      connectionConfigBuilder.setTimeToLive(clientOptions.getConnectionTimeToLiveMillis(),
+          TimeUnit.MILLISECONDS);
+    }
+    final ConnectionConfig connectionConfig = connectionConfigBuilder.build();
+    final TimeValue keepAliveTimeout =
+        TimeValue.ofMilliseconds(clientOptions.getKeepAliveTimeoutMillis());
+    final IOReactorConfig ioReactorConfig = buildIOReactorConfig(clientOptions);
+    if (clientOptions.getHttpProtocolPolicy() == HttpProtocolPolicy.HTTP_2) {
+      // One multiplexed connection per host, so the request limiter is the only concurrency cap
+      return HttpAsyncClients.customHttp2().disableCookieManagement()
+          .disableAutomaticRetries()
+          .setIOReactorConfig(ioReactorConfig)
+          .setDefaultConnectionConfig(connectionConfig)
+          .evictIdleConnections(keepAliveTimeout)
+          .setUserAgent(userAgent)
+          .build();
+    }
+    final HttpVersionPolicy versionPolicy =
+        clientOptions.getHttpProtocolPolicy() == HttpProtocolPolicy.NEGOTIATE
+            ? HttpVersionPolicy.NEGOTIATE : HttpVersionPolicy.FORCE_HTTP_1;
+    // Retries are up to the RetryPolicy, which knows which requests are safe to retry
+    return Client5HttpEngine.discardConnectionsOnCancel(HttpAsyncClients.custom())
+        .disableCookieManagement()
+        .disableAutomaticRetries()
+        .setIOReactorConfig(ioReactorConfig)
+        .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+            .setMaxConnPerRoute(clientOptions.getMaxConcurrentRequests())
+            .setMaxConnTotal(clientOptions.getMaxConcurrentRequests())
+            // The request limiter already caps the total, so the pool doesn't need a global lock
+            .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.LAX)
+            .setDefaultConnectionConfig(connectionConfig)
+            .setDefaultTlsConfig(TlsConfig.custom().setVersionPolicy(versionPolicy).build())
+            .build())
+        .setKeepAliveStrategy((response, context) -> {
+          final TimeValue keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+              .getKeepAliveDuration(response, context);
+          return TimeValue.isPositive(keepAlive) && keepAlive.compareTo(keepAliveTimeout) < 0
+              ? keepAlive : keepAliveTimeout;
+        })
+        .evictExpiredConnections()
+        .evictIdleConnections(keepAliveTimeout)
+        .setUserAgent(userAgent)
+        .build();
+  }
+
+  private static IOReactorConfig buildIOReactorConfig(@Nonnull ClientOptions clientOptions) {
+    final IOReactorConfig.Builder builder = IOReactorConfig.custom()
+        .setTcpNoDelay(clientOptions.isTcpNoDelayEnabled());
+    if (clientOptions.getIoThreadCount() != ClientOptions.IO_REACTOR_DEFAULT) {
+      builder.setIoThreadCount(clientOptions.getIoThreadCount());
+    }
+    if (clientOptions.getSocketTimeoutMillis() != ClientOptions.IO_REACTOR_DEFAULT) {
+      builder.setSoTimeout(clientOptions.getSocketTimeoutMillis(), TimeUnit.MILLISECONDS);
+    }
+    if (clientOptions.getSocketSendBufferSize() != ClientOptions.IO_REACTOR_DEFAULT) {
+      builder.setSndBufSize(clientOptions.getSocketSendBufferSize());
+    }
+    if (clientOptions.getSocketReceiveBufferSize() != ClientOptions.IO_REACTOR_DEFAULT) {
+      builder.setRcvBufSize(clientOptions.getSocketReceiveBufferSize());
+    }
+    if (clientOptions.getSelectIntervalMillis() != ClientOptions.IO_REACTOR_DEFAULT) {
+      builder.setSelectInterval(TimeValue.ofMilliseconds(clientOptions.getSelectIntervalMillis()));
+    }
+    return builder.build();
+  }
+
+}
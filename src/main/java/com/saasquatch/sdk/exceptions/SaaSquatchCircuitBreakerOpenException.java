@@ -0,0 +1,40 @@
+package com.saasquatch.sdk.exceptions;
+
+import com.saasquatch.sdk.annotations.Beta;
+import com.saasquatch.sdk.annotations.Internal;
+import javax.annotation.Nonnull;
+
+/**
+ * {@link Exception} type representing a request that was not sent because the circuit breaker for
+ * its operation and tenant is open, i.e. recent requests have been failing or slow.
+ *
+ * @author sli
+ */
+@Beta
+public final class SaaSquatchCircuitBreakerOpenException extends SaaSquatchException {
+
+  private final String operation;
+  private final String tenantAlias;
+
+  @Internal
+  public SaaSquatchCircuitBreakerOpenException(@Nonnull String operation,
+      @Nonnull String tenantAlias) {
+    super("Circuit breaker is open for " + operation + " of tenant " + tenantAlias);
+    this.operation = operation;
+    this.tenantAlias = tenantAlias;
+  }
+
+  /**
+   * @return the operation the circuit breaker is for, e.g. {@code GET_USER}
+   */
+  @Nonnull
+  public String getOperation() {
+    return operation;
+  }
+
+  @Nonnull
+  public String getTenantAlias() {
+    return tenantAlias;
+  }
+
+}
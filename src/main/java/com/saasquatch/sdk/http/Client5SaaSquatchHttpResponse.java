@@ -4,9 +4,16 @@ import static com.saasquatch.sdk.internal.InternalUtils.collectHeaders;
 
 import com.saasquatch.sdk.annotations.Internal;
 import com.saasquatch.sdk.internal.InternalUtils;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.http.Header;
 
 @Internal
 public final class Client5SaaSquatchHttpResponse implements SaaSquatchHttpResponse {
@@ -31,11 +38,38 @@ public final class Client5SaaSquatchHttpResponse implements SaaSquatchHttpRespon
     return _bodyText;
   }
 
+  @Override
+  public Reader getBodyReader() {
+    final String _bodyText = bodyText;
+    if (_bodyText != null) {
+      return new StringReader(_bodyText);
+    }
+    try {
+      return InternalUtils.getBodyReader(response);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   @Override
   public int getStatusCode() {
     return response.getCode();
   }
 
+  @Nullable
+  @Override
+  public String getFirstHeader(@Nonnull String headerName) {
+    final Header header = response.getFirstHeader(Objects.requireNonNull(headerName));
+    return header == null ? null : header.getValue();
+  }
+
+  @Nullable
+  @Override
+  public String getLastHeader(@Nonnull String headerName) {
+    final Header header = response.getLastHeader(Objects.requireNonNull(headerName));
+    return header == null ? null : header.getValue();
+  }
+
   @Override
   public final Map<String, List<String>> getAllHeaders() {
     Map<String, List<String>> _allHeaders = allHeaders;
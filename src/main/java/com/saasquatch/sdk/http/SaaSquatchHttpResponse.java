@@ -1,6 +1,8 @@
 package com.saasquatch.sdk.http;
 
 import com.saasquatch.sdk.annotations.NoExternalImpl;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +23,17 @@ public interface SaaSquatchHttpResponse {
    */
   String getBodyText();
 
+  /**
+   * @return A {@link Reader} over the response body text, or {@code null} if there is no body.
+   * Unlike {@link #getBodyText()}, this may decode the body straight from the underlying bytes
+   * without buffering the entire body text in memory.
+   */
+  @Nullable
+  default Reader getBodyReader() {
+    final String bodyText = getBodyText();
+    return bodyText == null ? null : new StringReader(bodyText);
+  }
+
   /**
    * @return The HTTP status code
    */
@@ -0,0 +1,129 @@
+package com.saasquatch.sdk.internal;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+
+/**
+ * A bounded, thread-safe and lock-free pool of fixed size {@link ByteBuffer}s, either heap or
+ * direct. Buffers are allocated on demand when the pool is empty, and buffers released while the
+ * pool is at its memory budget are simply left for the GC.<br>
+ * A direct pool never allocates more direct memory than its budget, counting the buffers that are
+ * handed out, and hands out heap buffers beyond that, which it doesn't take back. Direct memory is
+ * only freed by the GC through a cleaner and can force a {@code System.gc()} once the JVM runs
+ * low on it, so it must not be churned like the heap.<br>
+ * Buffers are commonly acquired on the calling thread and released on an I/O reactor thread, so
+ * a single shared queue is used rather than per-thread caches, which would pile up buffers on the
+ * reactor threads and strand budget on threads that have exited.
+ *
+ * @author sli
+ */
+public final class ByteBufferPool {
+
+  public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  private static final ByteBufferPool SHARED_HEAP_POOL =
+      new ByteBufferPool(DEFAULT_BUFFER_SIZE, 256 * 1024, false);
+
+  private final int bufferSize;
+  private final long maxPooledBytes;
+  private final boolean direct;
+  private final Queue<ByteBuffer> pooledBuffers = new ConcurrentLinkedQueue<>();
+  private final AtomicLong pooledBytes = new AtomicLong();
+  // Direct bytes that are pooled or handed out
+  private final AtomicLong directBytes = new AtomicLong();
+
+  /**
+   * @param bufferSize the capacity of every buffer in this pool
+   * @param maxPooledBytes the maximum number of bytes kept in the pool while idle
+   * @param direct whether this pool hands out direct buffers
+   */
+  public ByteBufferPool(int bufferSize, long maxPooledBytes, boolean direct) {
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("Invalid bufferSize");
+    }
+    if (maxPooledBytes < 0) {
+      throw new IllegalArgumentException("Invalid maxPooledBytes");
+    }
+    this.bufferSize = bufferSize;
+    this.maxPooledBytes = maxPooledBytes;
+    this.direct = direct;
+  }
+
+  /**
+   * A small heap buffer pool shared by code that is not tied to a client
+   */
+  public static ByteBufferPool sharedHeapPool() {
+    return SHARED_HEAP_POOL;
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  public boolean isDirect() {
+    return direct;
+  }
+
+  /**
+   * @return the number of bytes currently held by the pool
+   */
+  public long getPooledBytes() {
+    return pooledBytes.get();
+  }
+
+  /**
+   * Get a cleared buffer from the pool, or allocate a new one if the pool is empty. A direct pool
+   * allocates a heap buffer instead once its direct memory budget is used up.
+   */
+  @Nonnull
+  public ByteBuffer acquire() {
+    final ByteBuffer buffer = pooledBuffers.poll();
+    if (buffer == null) {
+      return direct && tryReserve(directBytes)
+          ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+    }
+    pooledBytes.addAndGet(-bufferSize);
+    buffer.clear();
+    return buffer;
+  }
+
+  /**
+   * Return a buffer to the pool. The caller must not touch the buffer afterwards.
+   */
+  public void release(@Nonnull ByteBuffer buffer) {
+    if (buffer.isDirect() != direct || buffer.capacity() != bufferSize) {
+      return;
+    }
+    if (!tryReserve(pooledBytes)) {
+      discard(buffer);
+      return;
+    }
+    pooledBuffers.offer(buffer);
+  }
+
+  /**
+   * Give up on a buffer from this pool without returning it, e.g. because it may still be in use.
+   * A direct buffer gives its share of the direct memory budget back, since the GC frees it
+   * eventually.
+   */
+  public void discard(@Nonnull ByteBuffer buffer) {
+    if (direct && buffer.isDirect() && buffer.capacity() == bufferSize) {
+      directBytes.addAndGet(-bufferSize);
+    }
+  }
+
+  private boolean tryReserve(@Nonnull AtomicLong bytes) {
+    long current;
+    do {
+      current = bytes.get();
+      if (current + bufferSize > maxPooledBytes) {
+        return false;
+      }
+    } while (!bytes.compareAndSet(current, current + bufferSize));
+    return true;
+  }
+
+}
@@ -0,0 +1,125 @@
+package com.saasquatch.sdk.internal;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+/**
+ * {@link OutputStream} that fills buffers from a {@link ByteBufferPool} and flips each one once
+ * it's full. Unlike {@link java.io.ByteArrayOutputStream}, growing never copies what has already
+ * been written. The buffers go back to the pool with {@link #recycle()}.
+ *
+ * @author sli
+ */
+public final class ChunkedOutputStream extends OutputStream {
+
+  private final ByteBufferPool bufferPool;
+  private final List<ByteBuffer> chunks = new ArrayList<>();
+  private ByteBuffer current;
+  private long size;
+
+  public ChunkedOutputStream(@Nonnull ByteBufferPool bufferPool) {
+    this.bufferPool = bufferPool;
+  }
+
+  /**
+   * @return The chunks written so far. Only the chunks before the last one are flipped until this
+   * stream is closed.
+   */
+  public List<ByteBuffer> getChunks() {
+    return chunks;
+  }
+
+  public long size() {
+    return size;
+  }
+
+  @Override
+  public void write(int b) {
+    writableChunk().put((byte) b);
+    size++;
+  }
+
+  @Override
+  public void write(@Nonnull byte[] b, int off, int len) {
+    while (len > 0) {
+      final ByteBuffer chunk = writableChunk();
+      final int n = Math.min(len, chunk.remaining());
+      chunk.put(b, off, n);
+      off += n;
+      len -= n;
+      size += n;
+    }
+  }
+
+  /**
+   * Write all the remaining bytes of the given buffer
+   */
+  public void write(@Nonnull ByteBuffer src) {
+    while (src.hasRemaining()) {
+      final ByteBuffer chunk = writableChunk();
+      final int n = Math.min(src.remaining(), chunk.remaining());
+      if (n == src.remaining()) {
+        chunk.put(src);
+      } else {
+        final int limit = src.limit();
+        src.limit(src.position() + n);
+        chunk.put(src);
+        src.limit(limit);
+      }
+      size += n;
+    }
+  }
+
+  /**
+   * Flip the last chunk. No more bytes can be written after this.
+   */
+  @Override
+  public void close() {
+    if (current != null) {
+      current.flip();
+      current = null;
+    }
+  }
+
+  /**
+   * Copy everything into an exactly sized {@code byte[]}. The stream must be closed first.
+   */
+  public byte[] toByteArray() {
+    final byte[] result = new byte[(int) size];
+    int off = 0;
+    for (ByteBuffer chunk : chunks) {
+      final ByteBuffer dup = chunk.duplicate();
+      final int n = dup.remaining();
+      dup.get(result, off, n);
+      off += n;
+    }
+    return result;
+  }
+
+  /**
+   * Return all the chunks to the pool
+   */
+  public void recycle() {
+    for (ByteBuffer chunk : chunks) {
+      bufferPool.release(chunk);
+    }
+    chunks.clear();
+    current = null;
+  }
+
+  private ByteBuffer writableChunk() {
+    if (current != null && current.hasRemaining()) {
+      return current;
+    }
+    if (current != null) {
+      current.flip();
+    }
+    current = bufferPool.acquire();
+    chunks.add(current);
+    return current;
+  }
+
+}
@@ -0,0 +1,94 @@
+package com.saasquatch.sdk.internal;
+
+import java.io.IOException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.hc.client5.http.async.AsyncExecRuntime;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.HttpVersion;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
+
+/**
+ * {@link HttpEngine} on Apache HttpClient 5. Request bodies are streamed from the
+ * {@link JsonEntityProducer} chunks, and responses are consumed by
+ * {@link InflatingResponseConsumer} with buffers from the given pool.
+ *
+ * @author sli
+ */
+public final class Client5HttpEngine implements HttpEngine {
+
+  private static final String EXEC_RUNTIME_INTERCEPTOR = "saasquatch-exec-runtime";
+  private static final String EXEC_RUNTIME_ATTRIBUTE = "com.saasquatch.sdk.execRuntime";
+
+  private final CloseableHttpAsyncClient httpAsyncClient;
+  private final ByteBufferPool bufferPool;
+
+  public Client5HttpEngine(@Nonnull CloseableHttpAsyncClient httpAsyncClient,
+      @Nonnull ByteBufferPool bufferPool) {
+    this.httpAsyncClient = httpAsyncClient;
+    this.bufferPool = bufferPool;
+  }
+
+  @Override
+  public Cancellable execute(@Nonnull SimpleHttpRequest request,
+      @Nullable JsonEntityProducer entityProducer,
+      @Nonnull FutureCallback<SimpleHttpResponse> callback) {
+    final AsyncRequestProducer requestProducer = entityProducer == null
+        ? SimpleRequestProducer.create(request)
+        : new BasicRequestProducer(request, entityProducer);
+    final HttpClientContext context = HttpClientContext.create();
+    final AtomicReference<AsyncExecRuntime> execRuntime = new AtomicReference<>();
+    context.setAttribute(EXEC_RUNTIME_ATTRIBUTE, execRuntime);
+    final Future<SimpleHttpResponse> future = httpAsyncClient.execute(requestProducer,
+        new InflatingResponseConsumer(bufferPool), null, context, callback);
+    return () -> {
+      if (!future.cancel(true)) {
+        return false;
+      }
+      // Cancelling the future alone leaves an HTTP/1.1 connection that is waiting for a response
+      // leased until the response arrives, and then reuses it. Discarding it frees the pool slot
+      // right away. An HTTP/2 stream is reset by the cancellation, and the connection is shared.
+      final AsyncExecRuntime runtime = execRuntime.get();
+      if (runtime != null && !context.getProtocolVersion().greaterEquals(HttpVersion.HTTP_2)) {
+        runtime.discardEndpoint();
+      }
+      return true;
+    };
+  }
+
+  /**
+   * Add the exec interceptor that lets a cancelled exchange of the client built by the given
+   * builder discard its HTTP/1.1 connection. Without it, cancelling an exchange on a reused
+   * connection holds on to the connection until the server replies.
+   */
+  public static HttpAsyncClientBuilder discardConnectionsOnCancel(
+      @Nonnull HttpAsyncClientBuilder builder) {
+    return builder.addExecInterceptorFirst(EXEC_RUNTIME_INTERCEPTOR,
+        (request, entityProducer, scope, chain, asyncExecCallback) -> {
+          final Object execRuntime = scope.clientContext.getAttribute(EXEC_RUNTIME_ATTRIBUTE);
+          if (execRuntime instanceof AtomicReference) {
+            @SuppressWarnings("unchecked")
+            final AtomicReference<AsyncExecRuntime> execRuntimeRef =
+                (AtomicReference<AsyncExecRuntime>) execRuntime;
+            execRuntimeRef.set(scope.execRuntime);
+          }
+          chain.proceed(request, entityProducer, scope, asyncExecCallback);
+        });
+  }
+
+  @Override
+  public void close() throws IOException {
+    httpAsyncClient.close();
+  }
+
+}
@@ -0,0 +1,155 @@
+package com.saasquatch.sdk.internal;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.apache.hc.core5.http.Header;
+
+/**
+ * Immutable, case-insensitive {@link Map} view of a {@link Header} array, where each key maps to
+ * all the values of that header in order. Nothing is copied out of the headers. Lookups go through
+ * an index from the lowercase header names to the header positions, which is built on first use.
+ * Each key keeps the casing of the first header with that name, and entries iterate in order of
+ * first appearance.
+ *
+ * @author sli
+ */
+public final class HeaderMap extends AbstractMap<String, List<String>> {
+
+  private final Header[] headers;
+  // Lazy init
+  private volatile Map<String, int[]> index;
+  // Lazy init
+  private Set<Map.Entry<String, List<String>>> entrySet;
+
+  public HeaderMap(@Nonnull Header[] headers) {
+    this.headers = headers;
+  }
+
+  @Override
+  public List<String> get(Object key) {
+    if (!(key instanceof String)) {
+      return null;
+    }
+    final int[] positions = index().get(lowerCase((String) key));
+    return positions == null ? null : new ValueList(positions);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof String && index().containsKey(lowerCase((String) key));
+  }
+
+  @Override
+  public int size() {
+    return index().size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return headers.length == 0;
+  }
+
+  @Nonnull
+  @Override
+  public Set<Map.Entry<String, List<String>>> entrySet() {
+    Set<Map.Entry<String, List<String>>> _entrySet = entrySet;
+    if (_entrySet == null) {
+      entrySet = _entrySet = new EntrySet();
+    }
+    return _entrySet;
+  }
+
+  private Map<String, int[]> index() {
+    Map<String, int[]> _index = index;
+    if (_index == null) {
+      index = _index = buildIndex();
+    }
+    return _index;
+  }
+
+  private Map<String, int[]> buildIndex() {
+    final Map<String, int[]> result = new LinkedHashMap<>(headers.length * 2);
+    for (int i = 0; i < headers.length; i++) {
+      final String lowerName = lowerCase(headers[i].getName());
+      final int[] positions = result.get(lowerName);
+      if (positions == null) {
+        result.put(lowerName, new int[]{i});
+      } else {
+        // Repeated headers are rare, so just grow by one
+        final int[] newPositions = Arrays.copyOf(positions, positions.length + 1);
+        newPositions[positions.length] = i;
+        result.put(lowerName, newPositions);
+      }
+    }
+    return result;
+  }
+
+  private static String lowerCase(String s) {
+    return s.toLowerCase(Locale.ROOT);
+  }
+
+  private final class ValueList extends AbstractList<String> implements RandomAccess {
+
+    private final int[] positions;
+
+    ValueList(int[] positions) {
+      this.positions = positions;
+    }
+
+    @Override
+    public String get(int index) {
+      return headers[positions[index]].getValue();
+    }
+
+    @Override
+    public int size() {
+      return positions.length;
+    }
+
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<String, List<String>>> {
+
+    @Nonnull
+    @Override
+    public Iterator<Map.Entry<String, List<String>>> iterator() {
+      final Iterator<int[]> positionsIterator = index().values().iterator();
+      return new Iterator<Map.Entry<String, List<String>>>() {
+
+        @Override
+        public boolean hasNext() {
+          return positionsIterator.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, List<String>> next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          final int[] positions = positionsIterator.next();
+          return new SimpleImmutableEntry<>(headers[positions[0]].getName(),
+              new ValueList(positions));
+        }
+
+      };
+    }
+
+    @Override
+    public int size() {
+      return index().size();
+    }
+
+  }
+
+}
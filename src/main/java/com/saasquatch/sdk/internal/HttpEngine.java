@@ -0,0 +1,37 @@
+package com.saasquatch.sdk.internal;
+
+import java.io.Closeable;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.concurrent.FutureCallback;
+
+/**
+ * The HTTP client that actually executes requests.<br>
+ * The request model is a {@link SimpleHttpRequest}, which is what
+ * {@link com.saasquatch.sdk.auth.AuthMethod} and {@link com.saasquatch.sdk.RequestOptions} already
+ * mutate, along with an optional {@link JsonEntityProducer} for the body. The response model is a
+ * {@link SimpleHttpResponse} with the body fully buffered. A gzipped response body may be either
+ * inflated by the engine or left as is with its {@code Content-Encoding} header, since
+ * {@link InternalUtils#getBodyBytes(SimpleHttpResponse)} inflates it on demand.<br>
+ * Implementations must not recycle the {@link JsonEntityProducer}, and must call exactly one of
+ * the callback methods for every request. Cancelling a request aborts the exchange, so the
+ * connection is not held until the server replies, and calls back with
+ * {@link FutureCallback#cancelled()} unless the request is already over.
+ *
+ * @author sli
+ * @see Client5HttpEngine
+ * @see JdkHttpEngines
+ */
+public interface HttpEngine extends Closeable {
+
+  /**
+   * @return a {@link Cancellable} that aborts the exchange
+   */
+  Cancellable execute(@Nonnull SimpleHttpRequest request,
+      @Nullable JsonEntityProducer entityProducer,
+      @Nonnull FutureCallback<SimpleHttpResponse> callback);
+
+}
@@ -0,0 +1,357 @@
+package com.saasquatch.sdk.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+import javax.annotation.Nonnull;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.nio.support.AbstractAsyncResponseConsumer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+/**
+ * Response consumer that buffers the response body like
+ * {@link org.apache.hc.client5.http.async.methods.SimpleResponseConsumer}, except that gzipped
+ * bodies are inflated chunk by chunk as they arrive on the I/O reactor, so the compressed body is
+ * never buffered as a whole. Like the content decompression in the classic HttpClient, the
+ * {@code Content-Encoding} and {@code Content-Length} headers are removed from inflated responses,
+ * since they no longer describe the body.
+ *
+ * @author sli
+ */
+public final class InflatingResponseConsumer extends
+    AbstractAsyncResponseConsumer<SimpleHttpResponse, InflatingResponseConsumer.DecodedBody> {
+
+  public InflatingResponseConsumer(@Nonnull ByteBufferPool bufferPool) {
+    super(() -> new InflatingEntityConsumer(bufferPool));
+  }
+
+  @Override
+  public void informationResponse(HttpResponse response, HttpContext context) {}
+
+  @Override
+  protected SimpleHttpResponse buildResult(HttpResponse response, DecodedBody entity,
+      ContentType contentType) {
+    final SimpleHttpResponse simpleResponse = SimpleHttpResponse.copy(response);
+    if (entity != null) {
+      if (entity.inflated) {
+        simpleResponse.removeHeaders(HttpHeaders.CONTENT_ENCODING);
+        simpleResponse.removeHeaders(HttpHeaders.CONTENT_LENGTH);
+      }
+      simpleResponse.setBody(entity.bytes, contentType);
+    }
+    return simpleResponse;
+  }
+
+  static final class DecodedBody {
+
+    final byte[] bytes;
+    final boolean inflated;
+
+    DecodedBody(@Nonnull byte[] bytes, boolean inflated) {
+      this.bytes = bytes;
+      this.inflated = inflated;
+    }
+
+  }
+
+  /**
+   * Entity consumer that copies plain bodies straight into a buffer sized by Content-Length, and
+   * runs gzipped bodies through an {@link Inflater} with a small incremental gzip header and
+   * trailer parser. Bodies of unknown or large length are accumulated in pooled chunks as they
+   * arrive and copied once into an exactly sized {@code byte[]} at the end, so a bogus
+   * Content-Length cannot make us allocate more than {@link #MAX_EXACT_LENGTH} up front.
+   */
+  private static final class InflatingEntityConsumer implements AsyncEntityConsumer<DecodedBody> {
+
+    // gzip parsing states, in the order they appear in a gzip member
+    private static final int FIXED_HEADER = 0;
+    private static final int EXTRA_LENGTH = 1;
+    private static final int EXTRA = 2;
+    private static final int NAME = 3;
+    private static final int COMMENT = 4;
+    private static final int HEADER_CRC = 5;
+    private static final int BODY = 6;
+    private static final int TRAILER = 7;
+    private static final int END = 8;
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private static final int MAX_EXACT_LENGTH = 1024 * 1024;
+
+    // Inflater only works with byte[] before Java 11. These are only used on reactor threads.
+    private static final ThreadLocal<byte[]> SCRATCH_IN = new ThreadLocal<byte[]>() {
+      @Override
+      protected byte[] initialValue() {
+        return new byte[ByteBufferPool.DEFAULT_BUFFER_SIZE];
+      }
+    };
+    private static final ThreadLocal<byte[]> SCRATCH_OUT = new ThreadLocal<byte[]>() {
+      @Override
+      protected byte[] initialValue() {
+        return new byte[ByteBufferPool.DEFAULT_BUFFER_SIZE];
+      }
+    };
+
+    private final ByteBufferPool bufferPool;
+    private FutureCallback<DecodedBody> resultCallback;
+    private boolean gzip;
+    // Exactly sized buffer for plain bodies with a known length
+    private byte[] exact;
+    private int exactLength;
+    // Pooled chunks for everything else
+    private ChunkedOutputStream out;
+    private long wireLength;
+    private DecodedBody content;
+
+    // gzip only
+    private Inflater inflater;
+    private CRC32 crc;
+    private int state;
+    private int stateBytes;
+    private int flags;
+    private int extraLength;
+    private byte[] headerOrTrailer;
+    private long memberStart;
+
+    InflatingEntityConsumer(@Nonnull ByteBufferPool bufferPool) {
+      this.bufferPool = bufferPool;
+    }
+
+    @Override
+    public void streamStart(EntityDetails entityDetails,
+        FutureCallback<DecodedBody> resultCallback) {
+      this.resultCallback = resultCallback;
+      this.gzip = InternalUtils.GZIP.equalsIgnoreCase(entityDetails.getContentEncoding());
+      final long contentLength = entityDetails.getContentLength();
+      if (!gzip && contentLength >= 0 && contentLength <= MAX_EXACT_LENGTH) {
+        this.exact = new byte[(int) contentLength];
+      } else {
+        this.out = new ChunkedOutputStream(bufferPool);
+      }
+      if (gzip) {
+        this.inflater = new Inflater(true);
+        this.crc = new CRC32();
+        this.headerOrTrailer = new byte[10];
+      }
+    }
+
+    @Override
+    public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+      capacityChannel.update(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void consume(ByteBuffer src) throws IOException {
+      wireLength += src.remaining();
+      if (exact != null) {
+        final int n = src.remaining();
+        if (n > exact.length - exactLength) {
+          throw new IOException("Response body is longer than its Content-Length");
+        }
+        src.get(exact, exactLength, n);
+        exactLength += n;
+      } else if (!gzip) {
+        out.write(src);
+      } else if (src.hasArray()) {
+        gunzip(src.array(), src.arrayOffset() + src.position(), src.remaining());
+        src.position(src.limit());
+      } else {
+        final byte[] scratchIn = SCRATCH_IN.get();
+        while (src.hasRemaining()) {
+          final int n = Math.min(src.remaining(), scratchIn.length);
+          src.get(scratchIn, 0, n);
+          gunzip(scratchIn, 0, n);
+        }
+      }
+    }
+
+    @Override
+    public void streamEnd(List<? extends Header> trailers) throws IOException {
+      if (gzip && wireLength > 0 && state != END) {
+        throw new ZipException("Unexpected end of gzip stream");
+      }
+      final byte[] bytes;
+      if (exact != null) {
+        bytes = exactLength == exact.length ? exact : Arrays.copyOf(exact, exactLength);
+      } else {
+        out.close();
+        bytes = out.toByteArray();
+      }
+      content = new DecodedBody(bytes, gzip);
+      if (resultCallback != null) {
+        resultCallback.completed(content);
+      }
+      releaseResources();
+    }
+
+    @Override
+    public void failed(Exception cause) {
+      if (resultCallback != null) {
+        resultCallback.failed(cause);
+      }
+      releaseResources();
+    }
+
+    @Override
+    public DecodedBody getContent() {
+      return content;
+    }
+
+    @Override
+    public void releaseResources() {
+      if (inflater != null) {
+        inflater.end();
+        inflater = null;
+      }
+      if (out != null) {
+        out.recycle();
+      }
+    }
+
+    private void gunzip(byte[] b, int off, int len) throws IOException {
+      final int end = off + len;
+      while (off < end) {
+        off += state == BODY ? inflate(b, off, end - off) : parseHeaderOrTrailer(b[off] & 0xff);
+      }
+    }
+
+    /**
+     * Feed bytes to the {@link Inflater}
+     *
+     * @return the number of bytes consumed
+     */
+    private int inflate(byte[] b, int off, int len) throws IOException {
+      final byte[] scratchOut = SCRATCH_OUT.get();
+      inflater.setInput(b, off, len);
+      try {
+        while (!inflater.finished() && !inflater.needsInput()) {
+          if (inflater.needsDictionary()) {
+            throw new ZipException("Unexpected preset dictionary");
+          }
+          final int n = inflater.inflate(scratchOut);
+          crc.update(scratchOut, 0, n);
+          out.write(scratchOut, 0, n);
+        }
+      } catch (DataFormatException e) {
+        throw new ZipException(e.getMessage());
+      }
+      if (!inflater.finished()) {
+        return len;
+      }
+      setState(TRAILER);
+      return len - inflater.getRemaining();
+    }
+
+    /**
+     * Feed a single byte to the gzip header or trailer parser
+     *
+     * @return the number of bytes consumed, which is always 1
+     */
+    private int parseHeaderOrTrailer(int b) throws IOException {
+      switch (state) {
+        case END:
+          // Concatenated gzip member
+          inflater.reset();
+          crc.reset();
+          memberStart = out.size();
+          setState(FIXED_HEADER);
+          return parseHeaderOrTrailer(b);
+        case FIXED_HEADER:
+          headerOrTrailer[stateBytes++] = (byte) b;
+          if (stateBytes == 10) {
+            if ((headerOrTrailer[0] & 0xff) != 0x1f || (headerOrTrailer[1] & 0xff) != 0x8b) {
+              throw new ZipException("Not in GZIP format");
+            }
+            if (headerOrTrailer[2] != 8) {
+              throw new ZipException("Unsupported compression method");
+            }
+            flags = headerOrTrailer[3] & 0xff;
+            setState(nextHeaderState(FIXED_HEADER));
+          }
+          break;
+        case EXTRA_LENGTH:
+          extraLength |= b << (8 * stateBytes++);
+          if (stateBytes == 2) {
+            setState(extraLength > 0 ? EXTRA : nextHeaderState(EXTRA));
+          }
+          break;
+        case EXTRA:
+          if (++stateBytes == extraLength) {
+            setState(nextHeaderState(EXTRA));
+          }
+          break;
+        case NAME:
+        case COMMENT:
+          if (b == 0) {
+            setState(nextHeaderState(state));
+          }
+          break;
+        case HEADER_CRC:
+          if (++stateBytes == 2) {
+            setState(BODY);
+          }
+          break;
+        case TRAILER:
+          headerOrTrailer[stateBytes++] = (byte) b;
+          if (stateBytes == 8) {
+            if (readIntLE(0) != (int) crc.getValue()) {
+              throw new ZipException("Corrupt GZIP trailer");
+            }
+            if (readIntLE(4) != (int) (out.size() - memberStart)) {
+              throw new ZipException("Corrupt GZIP trailer");
+            }
+            setState(END);
+          }
+          break;
+        default:
+          throw new IllegalStateException();
+      }
+      return 1;
+    }
+
+    private int nextHeaderState(int current) {
+      if (current < EXTRA_LENGTH && (flags & FEXTRA) != 0) {
+        return EXTRA_LENGTH;
+      }
+      if (current < NAME && (flags & FNAME) != 0) {
+        return NAME;
+      }
+      if (current < COMMENT && (flags & FCOMMENT) != 0) {
+        return COMMENT;
+      }
+      if (current < HEADER_CRC && (flags & FHCRC) != 0) {
+        return HEADER_CRC;
+      }
+      return BODY;
+    }
+
+    private void setState(int state) {
+      this.state = state;
+      this.stateBytes = 0;
+      this.extraLength = state == EXTRA ? extraLength : 0;
+    }
+
+    private int readIntLE(int off) {
+      return (headerOrTrailer[off] & 0xff) | (headerOrTrailer[off + 1] & 0xff) << 8
+          | (headerOrTrailer[off + 2] & 0xff) << 16 | (headerOrTrailer[off + 3] & 0xff) << 24;
+    }
+
+  }
+
+}
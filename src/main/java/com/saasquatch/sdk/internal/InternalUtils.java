@@ -12,22 +12,24 @@ import com.saasquatch.sdk.input.UserIdInput;
 import com.saasquatch.sdk.output.ApiError;
 import com.saasquatch.sdk.output.GraphQLApiResponse;
 import com.saasquatch.sdk.output.GraphQLResult;
-import io.reactivex.rxjava3.core.Flowable;
-import io.reactivex.rxjava3.core.Single;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -35,9 +37,11 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.concurrent.CancellationException;
+import java.util.TimeZone;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.GZIPInputStream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -47,6 +51,7 @@ import org.apache.commons.codec.net.URLCodec;
 import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
 import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
 import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.Cancellable;
 import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.Header;
@@ -58,6 +63,7 @@ public final class InternalUtils {
 
   public static final String GZIP = "gzip";
   private static final int BUFFER_SIZE = 8192;
+  private static final Cancellable CANCELLED_EXCHANGE = () -> false;
 
   /**
    * RFC-3986 unreserved characters used for standard URL encoding.<br>
@@ -138,55 +144,170 @@ public final class InternalUtils {
    *
    * @return a {@link Publisher} that emits one element
    */
-  public static Flowable<SimpleHttpResponse> executeRequest(
+  public static Publisher<SimpleHttpResponse> executeRequest(
       @Nonnull CloseableHttpAsyncClient httpAsyncClient, @Nonnull SimpleHttpRequest request) {
-    //noinspection CodeBlock2Expr
-    return Single.<SimpleHttpResponse>create(emitter -> {
-      httpAsyncClient.execute(request, new FutureCallback<SimpleHttpResponse>() {
-
-        @Override
-        public void failed(Exception ex) {
-          emitter.onError(ex);
-        }
+    return executeRequest(httpAsyncClient, request, null, ByteBufferPool.sharedHeapPool());
+  }
 
-        @Override
-        public void completed(SimpleHttpResponse result) {
-          emitter.onSuccess(result);
-        }
+  /**
+   * Executes a non-blocking request, with the request body coming from a new
+   * {@link JsonEntityProducer} for every subscription if the given factory is not null. The
+   * {@link JsonEntityProducer} is recycled once the exchange is over. The response is consumed by
+   * {@link InflatingResponseConsumer}, so gzipped response bodies are inflated as they arrive,
+   * using buffers from the given pool.
+   *
+   * @return a {@link Publisher} that emits one element
+   */
+  public static Publisher<SimpleHttpResponse> executeRequest(
+      @Nonnull CloseableHttpAsyncClient httpAsyncClient, @Nonnull SimpleHttpRequest request,
+      @Nullable JsonEntityProducer.Factory entityProducerFactory,
+      @Nonnull ByteBufferPool bufferPool) {
+    return executeRequest(httpAsyncClient, request, entityProducerFactory, bufferPool, null);
+  }
 
-        @Override
-        public void cancelled() {
-          emitter.onError(new CancellationException());
-        }
+  /**
+   * Same as {@link #executeRequest(CloseableHttpAsyncClient, SimpleHttpRequest,
+   * JsonEntityProducer.Factory, ByteBufferPool)}, except that the request waits for a permit from
+   * the given {@link RequestLimiter} if it's not null, and returns it once the exchange is over.
+   *
+   * @return a {@link Publisher} that emits one element
+   */
+  public static Publisher<SimpleHttpResponse> executeRequest(
+      @Nonnull CloseableHttpAsyncClient httpAsyncClient, @Nonnull SimpleHttpRequest request,
+      @Nullable JsonEntityProducer.Factory entityProducerFactory,
+      @Nonnull ByteBufferPool bufferPool, @Nullable RequestLimiter requestLimiter) {
+    return executeRequest(new Client5HttpEngine(httpAsyncClient, bufferPool), request,
+        entityProducerFactory, requestLimiter);
+  }
 
-      });
-    }).toFlowable();
+  /**
+   * Executes a non-blocking request with the given {@link HttpEngine}, with the request body
+   * coming from a new {@link JsonEntityProducer} for every subscription if the given factory is
+   * not null. The {@link JsonEntityProducer} is recycled once the exchange is over. The request
+   * waits for a permit from the given {@link RequestLimiter} if it's not null, and returns it once
+   * the exchange is over.
+   *
+   * @return a {@link Publisher} that emits one element
+   */
+  public static Publisher<SimpleHttpResponse> executeRequest(@Nonnull HttpEngine httpEngine,
+      @Nonnull SimpleHttpRequest request,
+      @Nullable JsonEntityProducer.Factory entityProducerFactory,
+      @Nullable RequestLimiter requestLimiter) {
+    return new SingleValuePublisher<SimpleHttpResponse>() {
+      @Override
+      protected Cancellable start(@Nonnull FutureCallback<SimpleHttpResponse> callback) {
+        return executeRequest(httpEngine, request,
+            entityProducerFactory == null ? null : entityProducerFactory.create(), requestLimiter,
+            callback);
+      }
+    };
   }
 
   /**
-   * Collect all the headers in the given {@link MessageHeaders} into an immutable {@link Map} where
-   * the values are also immutable.
+   * Executes a non-blocking request with the given {@link HttpEngine} and calls back with the
+   * outcome, without going through any reactive operators. The given {@link JsonEntityProducer} is
+   * recycled once the exchange is over, or discarded if the exchange is cancelled. The request
+   * waits for a permit from the given {@link RequestLimiter} if it's not null, and returns it once
+   * the exchange is over.
+   *
+   * @return a {@link Cancellable} that drops the request if it's still waiting for a permit, or
+   *         aborts the exchange otherwise. Either way the callback is told the request was
+   *         cancelled unless it's already over.
    */
-  public static Map<String, List<String>> collectHeaders(@Nonnull MessageHeaders messageHeaders) {
-    final Map<String, List<String>> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-    final Iterator<Header> headerIterator = messageHeaders.headerIterator();
-    while (headerIterator.hasNext()) {
-      final Header header = headerIterator.next();
-      List<String> values = result.get(header.getName());
-      // For Android
-      //noinspection Java8MapApi
-      if (values == null) {
-        values = new ArrayList<>();
-        result.put(header.getName(), values);
+  public static Cancellable executeRequest(@Nonnull HttpEngine httpEngine,
+      @Nonnull SimpleHttpRequest request, @Nullable JsonEntityProducer entityProducer,
+      @Nullable RequestLimiter requestLimiter,
+      @Nonnull FutureCallback<SimpleHttpResponse> callback) {
+    final RecyclingCallback recyclingCallback =
+        new RecyclingCallback(entityProducer, requestLimiter, callback);
+    // The exchange once dispatched, or CANCELLED_EXCHANGE once cancelled
+    final AtomicReference<Cancellable> exchange = new AtomicReference<>();
+    if (requestLimiter == null) {
+      dispatch(httpEngine, request, entityProducer, recyclingCallback, exchange);
+      return () -> cancelExchange(exchange);
+    }
+    final Cancellable waiter = requestLimiter.acquire(() -> {
+      recyclingCallback.startNanos = System.nanoTime();
+      dispatch(httpEngine, request, entityProducer, recyclingCallback, exchange);
+    });
+    return () -> {
+      if (waiter.cancel()) {
+        recyclingCallback.cancelledBeforeDispatch();
+        return true;
       }
-      values.add(header.getValue());
+      return cancelExchange(exchange);
+    };
+  }
+
+  private static void dispatch(@Nonnull HttpEngine httpEngine, @Nonnull SimpleHttpRequest request,
+      @Nullable JsonEntityProducer entityProducer,
+      @Nonnull FutureCallback<SimpleHttpResponse> callback,
+      @Nonnull AtomicReference<Cancellable> exchange) {
+    final Cancellable cancellable;
+    try {
+      cancellable = httpEngine.execute(request, entityProducer, callback);
+    } catch (RuntimeException e) {
+      callback.failed(e);
+      return;
     }
-    final Map<String, List<String>> resultCopy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-    for (Map.Entry<String, List<String>> e : result.entrySet()) {
-      resultCopy.put(e.getKey(), unmodifiableList(e.getValue()));
+    // Cancelled while being dispatched
+    if (!exchange.compareAndSet(null, cancellable)) {
+      cancellable.cancel();
     }
-    // DO NOT use InternalUtils.unmodifiableMap
-    return Collections.unmodifiableMap(resultCopy);
+  }
+
+  private static boolean cancelExchange(@Nonnull AtomicReference<Cancellable> exchange) {
+    final Cancellable cancellable = exchange.getAndSet(CANCELLED_EXCHANGE);
+    return cancellable != null && cancellable.cancel();
+  }
+
+  /**
+   * Parse a {@code Retry-After} header value, which is either a number of seconds or an HTTP date
+   *
+   * @return the delay in milliseconds, or -1 if the value is missing or invalid
+   */
+  public static long parseRetryAfterMillis(@Nullable String retryAfter, long nowEpochMillis) {
+    if (retryAfter == null) {
+      return -1;
+    }
+    final String trimmed = retryAfter.trim();
+    try {
+      final long seconds = Long.parseLong(trimmed);
+      return seconds < 0 ? -1 : TimeUnit.SECONDS.toMillis(seconds);
+    } catch (NumberFormatException e) {
+      // Not a number of seconds
+    }
+    // Not java.time, which is not available on older Android versions
+    final SimpleDateFormat dateFormat =
+        new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+    dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+    try {
+      return Math.max(0, dateFormat.parse(trimmed).getTime() - nowEpochMillis);
+    } catch (ParseException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Whether the given status code means the server wants us to slow down
+   */
+  static boolean isBackoffStatus(int statusCode) {
+    return statusCode == 429 || statusCode == 503;
+  }
+
+  /**
+   * Whether the given exception is a connect, socket or response timeout
+   */
+  static boolean isTimeout(@Nonnull Throwable t) {
+    return t instanceof InterruptedIOException || t instanceof TimeoutException;
+  }
+
+  /**
+   * Get an immutable, case-insensitive {@link Map} view of all the headers in the given
+   * {@link MessageHeaders}, where the values are also immutable.
+   */
+  public static Map<String, List<String>> collectHeaders(@Nonnull MessageHeaders messageHeaders) {
+    return new HeaderMap(messageHeaders.getHeaders());
   }
 
   /**
@@ -298,13 +419,21 @@ public final class InternalUtils {
   }
 
   public static byte[] toByteArray(@WillNotClose InputStream in) throws IOException {
-    try (ByteArrayOutputStream baOut = new ByteArrayOutputStream()) {
-      final byte[] buf = new byte[BUFFER_SIZE];
-      int bytesRead;
-      while ((bytesRead = in.read(buf)) >= 0) {
-        baOut.write(buf, 0, bytesRead);
+    final ChunkedOutputStream chunkedOut = new ChunkedOutputStream(ByteBufferPool.sharedHeapPool());
+    try {
+      final ByteBuffer buf = ByteBufferPool.sharedHeapPool().acquire();
+      try {
+        int bytesRead;
+        while ((bytesRead = in.read(buf.array(), buf.arrayOffset(), buf.capacity())) >= 0) {
+          chunkedOut.write(buf.array(), buf.arrayOffset(), bytesRead);
+        }
+      } finally {
+        ByteBufferPool.sharedHeapPool().release(buf);
       }
-      return baOut.toByteArray();
+      chunkedOut.close();
+      return chunkedOut.toByteArray();
+    } finally {
+      chunkedOut.recycle();
     }
   }
 
@@ -313,12 +442,8 @@ public final class InternalUtils {
     if (bodyBytes == null) {
       return null;
     }
-    final Header contentEncodingHeader = response.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
-    final String contentEncoding =
-        contentEncodingHeader == null ? null : contentEncodingHeader.getValue();
-    if (GZIP.equalsIgnoreCase(contentEncoding)) {
-      try (GZIPInputStream gzipIn = new GZIPInputStream(
-          new ByteArrayInputStream(bodyBytes), BUFFER_SIZE)) {
+    if (isGzipEncoded(response)) {
+      try (InputStream gzipIn = getBodyInputStream(response)) {
         return toByteArray(gzipIn);
       } catch (IOException e) {
         throw new RuntimeException(e);
@@ -333,9 +458,47 @@ public final class InternalUtils {
     if (bodyBytes == null) {
       return null;
     }
+    return new String(bodyBytes, getBodyCharset(response));
+  }
+
+  /**
+   * Get an {@link InputStream} over the decoded response body without copying the body into an
+   * intermediate buffer.
+   */
+  @Nullable
+  public static InputStream getBodyInputStream(SimpleHttpResponse response) throws IOException {
+    final byte[] bodyBytes = response.getBodyBytes();
+    if (bodyBytes == null) {
+      return null;
+    }
+    final InputStream bodyIn = new ByteArrayInputStream(bodyBytes);
+    return isGzipEncoded(response) ? new GZIPInputStream(bodyIn, BUFFER_SIZE) : bodyIn;
+  }
+
+  /**
+   * Same as {@link #getBodyInputStream(SimpleHttpResponse)}, but decodes the body with the charset
+   * of the response.
+   */
+  @Nullable
+  public static Reader getBodyReader(SimpleHttpResponse response) throws IOException {
+    final InputStream bodyIn = getBodyInputStream(response);
+    if (bodyIn == null) {
+      return null;
+    }
+    return new InputStreamReader(bodyIn, getBodyCharset(response));
+  }
+
+  private static boolean isGzipEncoded(SimpleHttpResponse response) {
+    final Header contentEncodingHeader = response.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+    final String contentEncoding =
+        contentEncodingHeader == null ? null : contentEncodingHeader.getValue();
+    return GZIP.equalsIgnoreCase(contentEncoding);
+  }
+
+  private static Charset getBodyCharset(SimpleHttpResponse response) {
     final ContentType contentType = response.getContentType();
     final Charset charset = contentType == null ? null : contentType.getCharset();
-    return new String(bodyBytes, charset == null ? UTF_8 : charset);
+    return charset == null ? UTF_8 : charset;
   }
 
   public static <T> T defaultIfNull(T item, T fallback) {
@@ -397,4 +560,86 @@ public final class InternalUtils {
         (String) getNestedMapValue(payload, "user", "id"));
   }
 
+  /**
+   * Returns the request body buffers to the pool and the permit to the {@link RequestLimiter} once
+   * the exchange is over, then passes the outcome on
+   */
+  private static final class RecyclingCallback implements FutureCallback<SimpleHttpResponse> {
+
+    private final JsonEntityProducer entityProducer;
+    private final RequestLimiter requestLimiter;
+    private final FutureCallback<SimpleHttpResponse> callback;
+    // Set before dispatching, and read once the exchange is over
+    long startNanos;
+
+    RecyclingCallback(@Nullable JsonEntityProducer entityProducer,
+        @Nullable RequestLimiter requestLimiter,
+        @Nonnull FutureCallback<SimpleHttpResponse> callback) {
+      this.entityProducer = entityProducer;
+      this.requestLimiter = requestLimiter;
+      this.callback = callback;
+    }
+
+    @Override
+    public void failed(Exception ex) {
+      recycle();
+      release(isTimeout(ex) ? Boolean.TRUE : null);
+      callback.failed(ex);
+    }
+
+    @Override
+    public void completed(SimpleHttpResponse result) {
+      recycle();
+      release(isBackoffStatus(result.getCode()));
+      callback.completed(result);
+    }
+
+    /**
+     * The exchange was cancelled after it was dispatched, which doesn't mean it's done with the
+     * request body. The I/O reactor of Apache HttpClient may be producing it on another thread
+     * right now, and {@code java.net.http} keeps sending it in the background before Java 16. The
+     * buffers are left to the GC instead, since handing them to another request could corrupt
+     * its body, or send it to the wrong server.
+     */
+    @Override
+    public void cancelled() {
+      if (entityProducer != null) {
+        entityProducer.discard();
+      }
+      release(null);
+      callback.cancelled();
+    }
+
+    /**
+     * The request was cancelled while waiting for a permit, so nothing else has seen its body and
+     * there is no permit to return
+     */
+    void cancelledBeforeDispatch() {
+      recycle();
+      callback.cancelled();
+    }
+
+    private void recycle() {
+      if (entityProducer != null) {
+        entityProducer.recycle();
+      }
+    }
+
+    /**
+     * @param dropped whether the request should count as dropped for the limiter, or null if the
+     *        outcome says nothing about the server
+     */
+    private void release(@Nullable Boolean dropped) {
+      if (requestLimiter == null) {
+        return;
+      }
+      if (dropped == null) {
+        requestLimiter.release();
+      } else {
+        requestLimiter.release(System.nanoTime() - startNanos, dropped);
+      }
+    }
+
+  }
+
 }
@@ -0,0 +1,35 @@
+package com.saasquatch.sdk.internal;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Factory for the {@link HttpEngine} on {@code java.net.http.HttpClient}.<br>
+ * This is the Java 8 version of this class, which is what Android and Java 8 and 9 see. The actual
+ * engine lives in the Java 11 version of this class under {@code META-INF/versions/11} of the
+ * multi-release JAR, so both versions must keep the same signatures.
+ *
+ * @author sli
+ */
+public final class JdkHttpEngines {
+
+  private JdkHttpEngines() {}
+
+  /**
+   * @return whether {@code java.net.http.HttpClient} is available on this runtime
+   */
+  public static boolean isAvailable() {
+    return false;
+  }
+
+  /**
+   * Create an {@link HttpEngine} on a new {@code java.net.http.HttpClient}
+   *
+   * @param http2 whether to prefer HTTP/2, with a fallback to HTTP/1.1
+   * @throws UnsupportedOperationException if {@link #isAvailable()} is false
+   */
+  public static HttpEngine create(int connectTimeoutMillis, boolean http2,
+      @Nonnull String userAgent) {
+    throw new UnsupportedOperationException("java.net.http requires Java 11 or later");
+  }
+
+}
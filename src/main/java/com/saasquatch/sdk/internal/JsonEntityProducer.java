@@ -0,0 +1,382 @@
+package com.saasquatch.sdk.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+
+/**
+ * {@link AsyncEntityProducer} for JSON request bodies. The body is serialized by Gson straight into
+ * pooled {@link ByteBuffer}s, which are then handed to the I/O reactor as it asks for data,
+ * so the body never exists as a full size {@link String} or {@code byte[]}. Once the body grows
+ * past the gzip threshold, the rest of it is gzipped on the fly with a pooled {@link Deflater}.<br>
+ * The chunks are kept until {@link #recycle()} is called so the producer stays repeatable for
+ * retries, which means {@link #recycle()} must only be called once the exchange is over, and
+ * {@link #discard()} must be called instead if the exchange may still be reading them.
+ *
+ * @author sli
+ */
+public final class JsonEntityProducer implements AsyncEntityProducer {
+
+  private static final String CONTENT_TYPE = ContentType.APPLICATION_JSON.toString();
+
+  private final ByteBufferPool bufferPool;
+  private final List<ByteBuffer> chunks;
+  private final long contentLength;
+  private final String contentEncoding;
+  private final AtomicReference<Exception> exception = new AtomicReference<>();
+  private final AtomicBoolean recycled = new AtomicBoolean();
+  private int chunkIndex;
+  private long bytesProduced;
+
+  private JsonEntityProducer(@Nonnull ByteBufferPool bufferPool, @Nonnull List<ByteBuffer> chunks,
+      long contentLength, @Nullable String contentEncoding) {
+    this.bufferPool = bufferPool;
+    this.chunks = chunks;
+    this.contentLength = contentLength;
+    this.contentEncoding = contentEncoding;
+  }
+
+  /**
+   * Serialize the given body with the given {@link Gson} into buffers from the given pool
+   */
+  public static JsonEntityProducer create(@Nonnull Gson gson, @Nullable Object body,
+      @Nonnull ByteBufferPool bufferPool) {
+    return create(gson, body, bufferPool, -1);
+  }
+
+  /**
+   * Serialize the given body with the given {@link Gson} into buffers from the given pool, and
+   * gzip it if it's larger than {@code gzipThreshold} bytes.
+   *
+   * @param gzipThreshold the size in bytes above which the body is gzipped, or a negative number to
+   *        never gzip
+   */
+  public static JsonEntityProducer create(@Nonnull Gson gson, @Nullable Object body,
+      @Nonnull ByteBufferPool bufferPool, int gzipThreshold) {
+    final BodyOutputStream bodyOut = new BodyOutputStream(bufferPool, gzipThreshold);
+    try (Writer writer = new OutputStreamWriter(bodyOut, UTF_8)) {
+      gson.toJson(body, writer);
+    } catch (IOException e) {
+      bodyOut.recycle();
+      throw new JsonIOException(e);
+    } catch (RuntimeException e) {
+      bodyOut.recycle();
+      throw e;
+    }
+    final ChunkedOutputStream out = bodyOut.getOutput();
+    return new JsonEntityProducer(bufferPool, out.getChunks(), out.size(),
+        bodyOut.isGzipped() ? InternalUtils.GZIP : null);
+  }
+
+  @Override
+  public boolean isRepeatable() {
+    return true;
+  }
+
+  @Override
+  public long getContentLength() {
+    return contentLength;
+  }
+
+  @Override
+  public String getContentType() {
+    return CONTENT_TYPE;
+  }
+
+  @Override
+  public String getContentEncoding() {
+    return contentEncoding;
+  }
+
+  @Override
+  public boolean isChunked() {
+    return false;
+  }
+
+  @Override
+  public Set<String> getTrailerNames() {
+    return Collections.emptySet();
+  }
+
+  @Override
+  public int available() {
+    return (int) Math.min(contentLength - bytesProduced, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public void produce(DataStreamChannel channel) throws IOException {
+    while (chunkIndex < chunks.size()) {
+      final ByteBuffer chunk = chunks.get(chunkIndex);
+      if (chunk.hasRemaining()) {
+        bytesProduced += channel.write(chunk);
+        if (chunk.hasRemaining()) {
+          // The channel is full. We'll be called again when it's writable.
+          return;
+        }
+      }
+      chunkIndex++;
+    }
+    channel.endStream();
+  }
+
+  @Override
+  public void failed(Exception cause) {
+    exception.compareAndSet(null, cause);
+  }
+
+  /**
+   * @return rewound read-only views of the body chunks, for HTTP clients that can't take an
+   *         {@link AsyncEntityProducer}. They must not be used after {@link #recycle()}.
+   */
+  public List<ByteBuffer> getChunks() {
+    final List<ByteBuffer> views = new ArrayList<>(chunks.size());
+    for (ByteBuffer chunk : chunks) {
+      final ByteBuffer view = chunk.asReadOnlyBuffer();
+      view.rewind();
+      views.add(view);
+    }
+    return views;
+  }
+
+  @Nullable
+  public Exception getException() {
+    return exception.get();
+  }
+
+  /**
+   * Rewind the chunks so the body can be produced again
+   */
+  @Override
+  public void releaseResources() {
+    if (recycled.get()) {
+      return;
+    }
+    for (ByteBuffer chunk : chunks) {
+      chunk.rewind();
+    }
+    chunkIndex = 0;
+    bytesProduced = 0;
+  }
+
+  /**
+   * Return the chunks to the pool. This is a no-op after the first call.
+   */
+  public void recycle() {
+    if (!recycled.compareAndSet(false, true)) {
+      return;
+    }
+    for (ByteBuffer chunk : chunks) {
+      bufferPool.release(chunk);
+    }
+    chunks.clear();
+  }
+
+  /**
+   * Give up on the chunks without returning them to the pool, for an exchange that was cancelled
+   * and may still be reading them. The chunks are left as is for the GC. This is a no-op after
+   * {@link #recycle()}.
+   */
+  public void discard() {
+    if (!recycled.compareAndSet(false, true)) {
+      return;
+    }
+    // Not cleared, since the exchange may still be reading them
+    for (ByteBuffer chunk : chunks) {
+      bufferPool.discard(chunk);
+    }
+  }
+
+  /**
+   * Creates a new {@link JsonEntityProducer} for every exchange of a request. This is not
+   * {@code java.util.function.Supplier}, which is not available on older Android versions.
+   */
+  public interface Factory {
+
+    @Nonnull
+    JsonEntityProducer create();
+
+  }
+
+  /**
+   * {@link OutputStream} that writes into a {@link ChunkedOutputStream} as is, until the body grows
+   * past the gzip threshold. At that point the chunks written so far are gzipped into a new
+   * {@link ChunkedOutputStream} and released, and the rest of the body is gzipped as it comes in.
+   */
+  private static final class BodyOutputStream extends OutputStream {
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0,
+        0, 0};
+
+    private final ByteBufferPool bufferPool;
+    private final int gzipThreshold;
+    private final ChunkedOutputStream rawOut;
+    private final byte[] singleByte = new byte[1];
+    private ChunkedOutputStream gzipOut;
+    private PooledDeflater deflater;
+
+    BodyOutputStream(@Nonnull ByteBufferPool bufferPool, int gzipThreshold) {
+      this.bufferPool = bufferPool;
+      this.gzipThreshold = gzipThreshold;
+      this.rawOut = new ChunkedOutputStream(bufferPool);
+    }
+
+    ChunkedOutputStream getOutput() {
+      return gzipOut == null ? rawOut : gzipOut;
+    }
+
+    boolean isGzipped() {
+      return gzipOut != null;
+    }
+
+    @Override
+    public void write(int b) {
+      singleByte[0] = (byte) b;
+      write(singleByte, 0, 1);
+    }
+
+    @Override
+    public void write(@Nonnull byte[] b, int off, int len) {
+      if (deflater != null) {
+        deflate(b, off, len);
+        return;
+      }
+      rawOut.write(b, off, len);
+      if (gzipThreshold >= 0 && rawOut.size() > gzipThreshold) {
+        startGzip();
+      }
+    }
+
+    @Override
+    public void close() {
+      if (deflater == null) {
+        rawOut.close();
+        return;
+      }
+      final Deflater def = deflater.deflater;
+      def.finish();
+      while (!def.finished()) {
+        final int n = def.deflate(deflater.outBuf);
+        gzipOut.write(deflater.outBuf, 0, n);
+      }
+      final byte[] trailer = new byte[8];
+      writeIntLE(trailer, 0, (int) deflater.crc.getValue());
+      writeIntLE(trailer, 4, def.getTotalIn());
+      gzipOut.write(trailer, 0, trailer.length);
+      gzipOut.close();
+      releaseDeflater();
+    }
+
+    void recycle() {
+      rawOut.recycle();
+      if (gzipOut != null) {
+        gzipOut.recycle();
+      }
+      releaseDeflater();
+    }
+
+    private void startGzip() {
+      deflater = PooledDeflater.acquire();
+      gzipOut = new ChunkedOutputStream(bufferPool);
+      gzipOut.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+      rawOut.close();
+      final byte[] inBuf = deflater.inBuf;
+      for (ByteBuffer chunk : rawOut.getChunks()) {
+        if (chunk.hasArray()) {
+          deflate(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+          continue;
+        }
+        while (chunk.hasRemaining()) {
+          final int n = Math.min(chunk.remaining(), inBuf.length);
+          chunk.get(inBuf, 0, n);
+          deflate(inBuf, 0, n);
+        }
+      }
+      rawOut.recycle();
+    }
+
+    private void deflate(byte[] b, int off, int len) {
+      final Deflater def = deflater.deflater;
+      deflater.crc.update(b, off, len);
+      def.setInput(b, off, len);
+      while (!def.needsInput()) {
+        final int n = def.deflate(deflater.outBuf);
+        gzipOut.write(deflater.outBuf, 0, n);
+      }
+    }
+
+    private void releaseDeflater() {
+      if (deflater != null) {
+        deflater.release();
+        deflater = null;
+      }
+    }
+
+    private static void writeIntLE(byte[] b, int off, int v) {
+      b[off] = (byte) v;
+      b[off + 1] = (byte) (v >> 8);
+      b[off + 2] = (byte) (v >> 16);
+      b[off + 3] = (byte) (v >> 24);
+    }
+
+  }
+
+  /**
+   * A {@link Deflater} for raw deflate data, along with its checksum and scratch buffers, kept in
+   * a bounded pool so the native zlib state is reused across requests
+   */
+  private static final class PooledDeflater {
+
+    private static final int MAX_POOLED = 16;
+    private static final Queue<PooledDeflater> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED_COUNT = new AtomicInteger();
+
+    final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    final CRC32 crc = new CRC32();
+    final byte[] inBuf = new byte[ByteBufferPool.DEFAULT_BUFFER_SIZE];
+    final byte[] outBuf = new byte[ByteBufferPool.DEFAULT_BUFFER_SIZE];
+
+    static PooledDeflater acquire() {
+      final PooledDeflater pooled = POOL.poll();
+      if (pooled == null) {
+        return new PooledDeflater();
+      }
+      POOLED_COUNT.decrementAndGet();
+      return pooled;
+    }
+
+    void release() {
+      deflater.reset();
+      crc.reset();
+      if (POOLED_COUNT.incrementAndGet() > MAX_POOLED) {
+        POOLED_COUNT.decrementAndGet();
+        deflater.end();
+        return;
+      }
+      POOL.offer(this);
+    }
+
+  }
+
+}
@@ -0,0 +1,131 @@
+package com.saasquatch.sdk.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tracks a percentile of recent latencies in milliseconds. Latencies are counted in a histogram
+ * with 8 buckets per power of 2, so the percentile is rounded up by at most 12.5%, and recording
+ * one is a couple of atomic increments with no allocation.<br>
+ * The percentile covers the last one to two windows of latencies. Once the current window is
+ * full, it becomes the previous window and a new one starts, so the percentile follows changes in
+ * latency without having to age every sample. The percentile is recomputed every few samples
+ * rather than on every read.
+ *
+ * @author sli
+ */
+public final class LatencyPercentileTracker {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final long MAX_LATENCY_MILLIS = Integer.MAX_VALUE;
+  private static final int BUCKET_COUNT = bucketIndex(MAX_LATENCY_MILLIS) + 1;
+  private static final int RECOMPUTE_INTERVAL = 16;
+
+  private final double percentile;
+  private final int windowSize;
+  private final int minSamples;
+  private final AtomicReference<Window> current = new AtomicReference<>(new Window());
+  private volatile Window previous;
+  private final AtomicLong samples = new AtomicLong();
+  private volatile long percentileMillis = -1;
+
+  /**
+   * @param percentile the percentile to track, between 0 and 100 exclusive, e.g. 95
+   * @param windowSize the number of latencies in a window
+   * @param minSamples the number of latencies needed before there is a percentile
+   */
+  public LatencyPercentileTracker(double percentile, int windowSize, int minSamples) {
+    if (!(percentile > 0 && percentile < 100)) {
+      throw new IllegalArgumentException("percentile must be between 0 and 100");
+    }
+    if (windowSize <= 0) {
+      throw new IllegalArgumentException("non-positive windowSize");
+    }
+    if (minSamples <= 0 || minSamples > windowSize) {
+      throw new IllegalArgumentException("minSamples must be between 1 and windowSize");
+    }
+    this.percentile = percentile;
+    this.windowSize = windowSize;
+    this.minSamples = minSamples;
+  }
+
+  /**
+   * Record a latency in milliseconds
+   */
+  public void record(long latencyMillis) {
+    final Window window = current.get();
+    window.counts.incrementAndGet(bucketIndex(latencyMillis));
+    // Samples recorded while the windows are being swapped may land in either one
+    if (window.total.incrementAndGet() == windowSize && current.compareAndSet(window,
+        new Window())) {
+      previous = window;
+    }
+    final long _samples = samples.incrementAndGet();
+    if (_samples >= minSamples
+        && (_samples == minSamples || _samples % RECOMPUTE_INTERVAL == 0)) {
+      percentileMillis = computePercentileMillis();
+    }
+  }
+
+  /**
+   * @return the tracked percentile of recent latencies in milliseconds, or -1 if there are not
+   *         enough samples yet
+   */
+  public long getPercentileMillis() {
+    return percentileMillis;
+  }
+
+  private long computePercentileMillis() {
+    final Window _current = current.get();
+    final Window _previous = previous;
+    final long[] counts = new long[BUCKET_COUNT];
+    long total = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts[i] = _current.counts.get(i) + (_previous == null ? 0 : _previous.counts.get(i));
+      total += counts[i];
+    }
+    if (total == 0) {
+      return -1;
+    }
+    final long rank = (long) Math.ceil(total * percentile / 100);
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return bucketUpperBound(i);
+      }
+    }
+    return MAX_LATENCY_MILLIS;
+  }
+
+  static int bucketIndex(long latencyMillis) {
+    final long value = Math.max(0, Math.min(latencyMillis, MAX_LATENCY_MILLIS));
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    final int msb = 63 - Long.numberOfLeadingZeros(value);
+    final int shift = msb - SUB_BUCKET_BITS;
+    return ((shift + 1) << SUB_BUCKET_BITS)
+        | (int) ((value >>> shift) & (SUB_BUCKET_COUNT - 1));
+  }
+
+  static long bucketUpperBound(int bucketIndex) {
+    if (bucketIndex < SUB_BUCKET_COUNT) {
+      return bucketIndex;
+    }
+    final int shift = (bucketIndex >>> SUB_BUCKET_BITS) - 1;
+    final long lowerBound =
+        (long) (SUB_BUCKET_COUNT | (bucketIndex & (SUB_BUCKET_COUNT - 1))) << shift;
+    return lowerBound + (1L << shift) - 1;
+  }
+
+  private static final class Window {
+
+    final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    final AtomicLong total = new AtomicLong();
+
+  }
+
+}
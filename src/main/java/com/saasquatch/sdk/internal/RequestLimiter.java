@@ -0,0 +1,220 @@
+package com.saasquatch.sdk.internal;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import org.apache.hc.core5.concurrent.Cancellable;
+
+/**
+ * Non-blocking limit on the number of requests in flight. Tasks that can't get a permit right away
+ * are queued and run in order on whichever thread releases a permit, so no thread is ever parked
+ * waiting for one. Every task that runs must eventually call {@link #release()} or
+ * {@link #release(long, boolean)} exactly once, and must not throw.<br>
+ * Only one thread runs queued tasks at a time, and a task that releases or acquires a permit right
+ * away doesn't run the next one itself, but leaves it to the loop that ran it, so a long queue
+ * can't overflow the stack.<br>
+ * An adaptive limiter adjusts its limit with AIMD, based on the outcomes passed to
+ * {@link #release(long, boolean)}. A dropped request, which is a timeout or a response telling us
+ * to back off, cuts the limit by {@link #BACKOFF_RATIO}. A successful request adds 1 to the limit,
+ * but only if the limit is actually in use and the round trip time isn't inflated compared to the
+ * recent minimum, since a limit can't be shown to be too low while there's spare capacity or
+ * while requests are already queueing up on the server.
+ *
+ * @author sli
+ */
+public final class RequestLimiter {
+
+  static final double BACKOFF_RATIO = 0.9;
+  // Round trip times above this multiple of the minimum mean the server is queueing
+  private static final int RTT_TOLERANCE = 2;
+  // The minimum round trip time is reset every this many samples so it can follow the server
+  private static final int MIN_RTT_WINDOW = 256;
+  private static final int INITIAL_ADAPTIVE_LIMIT = 4;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final boolean adaptive;
+  private final AtomicInteger limit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final AtomicInteger drainRequests = new AtomicInteger();
+  private final AtomicLong minRttNanos = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicInteger sampleCount = new AtomicInteger();
+
+  private RequestLimiter(int minLimit, int maxLimit, int initialLimit, boolean adaptive) {
+    if (maxLimit <= 0) {
+      throw new IllegalArgumentException("non-positive limit");
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.adaptive = adaptive;
+    this.limit = new AtomicInteger(initialLimit);
+  }
+
+  /**
+   * Create a limiter with a fixed limit
+   */
+  public RequestLimiter(int limit) {
+    this(1, limit, limit, false);
+  }
+
+  /**
+   * Create a limiter with a limit that adapts between 1 and the given maximum
+   */
+  public static RequestLimiter adaptive(int maxLimit) {
+    return new RequestLimiter(1, maxLimit, Math.min(maxLimit, INITIAL_ADAPTIVE_LIMIT), true);
+  }
+
+  /**
+   * Run the given task once a permit is available, which may be right away on the calling thread
+   *
+   * @return a {@link Cancellable} that drops the task if it hasn't run yet, in which case it never
+   *         gets a permit
+   */
+  public Cancellable acquire(@Nonnull Runnable task) {
+    final Waiter waiter = new Waiter(task);
+    queued.incrementAndGet();
+    waiters.offer(waiter);
+    drain();
+    return waiter;
+  }
+
+  /**
+   * Return a permit without any information about the outcome of the request, and run the next
+   * queued task if there is one
+   */
+  public void release() {
+    inFlight.decrementAndGet();
+    drain();
+  }
+
+  /**
+   * Return a permit along with the outcome of the request, and run the next queued task if there
+   * is one
+   *
+   * @param rttNanos the round trip time of the request
+   * @param dropped whether the request timed out or the server asked us to back off
+   */
+  public void release(long rttNanos, boolean dropped) {
+    if (adaptive) {
+      if (dropped) {
+        onDropped();
+      } else {
+        onSuccess(rttNanos);
+      }
+    }
+    release();
+  }
+
+  public boolean isAdaptive() {
+    return adaptive;
+  }
+
+  public int getLimit() {
+    return limit.get();
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  public int getQueued() {
+    return queued.get();
+  }
+
+  private void onDropped() {
+    int current;
+    int next;
+    do {
+      current = limit.get();
+      next = Math.max(minLimit, (int) (current * BACKOFF_RATIO));
+    } while (next != current && !limit.compareAndSet(current, next));
+  }
+
+  private void onSuccess(long rttNanos) {
+    if (sampleCount.incrementAndGet() % MIN_RTT_WINDOW == 0) {
+      minRttNanos.set(rttNanos);
+    }
+    long minRtt;
+    while (rttNanos < (minRtt = minRttNanos.get())) {
+      if (minRttNanos.compareAndSet(minRtt, rttNanos)) {
+        minRtt = rttNanos;
+        break;
+      }
+    }
+    if (rttNanos > minRtt * RTT_TOLERANCE) {
+      return;
+    }
+    int current;
+    do {
+      current = limit.get();
+      // inFlight still includes the request being released
+      if (current >= maxLimit || inFlight.get() * 2 < current) {
+        return;
+      }
+    } while (!limit.compareAndSet(current, current + 1));
+  }
+
+  private void drain() {
+    // Every offer and release is followed by a drain, and a drain that comes in while another
+    // thread is draining makes that thread go around again, so a queued task can't be stranded
+    // while a permit is free
+    if (drainRequests.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    do {
+      Waiter waiter;
+      while ((waiter = waiters.peek()) != null) {
+        // Only the draining thread takes permits, so the limit can't be overshot
+        if (!waiter.isDone() && inFlight.get() >= limit.get()) {
+          break;
+        }
+        waiters.poll();
+        if (waiter.tryStart()) {
+          inFlight.incrementAndGet();
+          waiter.task.run();
+        }
+      }
+      missed = drainRequests.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  /**
+   * A queued task, which either starts or gets cancelled, whichever comes first. Cancelled waiters
+   * stay in the queue until they reach its head, where they are skipped without a permit.
+   */
+  private final class Waiter implements Cancellable {
+
+    final Runnable task;
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    Waiter(@Nonnull Runnable task) {
+      this.task = task;
+    }
+
+    boolean isDone() {
+      return done.get();
+    }
+
+    boolean tryStart() {
+      if (!done.compareAndSet(false, true)) {
+        return false;
+      }
+      queued.decrementAndGet();
+      return true;
+    }
+
+    @Override
+    public boolean cancel() {
+      // Same as starting, just without running the task
+      return tryStart();
+    }
+
+  }
+
+}
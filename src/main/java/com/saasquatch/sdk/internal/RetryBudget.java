@@ -0,0 +1,70 @@
+package com.saasquatch.sdk.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that caps retries at a fraction of the requests. Every request deposits
+ * {@code ratio} tokens and every retry withdraws a whole token, so once the bucket is empty,
+ * retries can only happen at the given ratio of requests no matter how many of them fail. The
+ * bucket starts full, so it also allows a burst of up to {@code maxTokens} retries. Hedges are
+ * capped the same way.<br>
+ * Tokens are counted in thousandths so the bucket is a single {@link AtomicLong}.
+ *
+ * @author sli
+ */
+public final class RetryBudget {
+
+  private static final long SCALE = 1000;
+
+  private final long depositMilliTokens;
+  private final long maxMilliTokens;
+  private final AtomicLong milliTokens;
+
+  public RetryBudget(double ratio, int maxTokens) {
+    if (ratio < 0 || ratio > 1 || Double.isNaN(ratio)) {
+      throw new IllegalArgumentException("ratio must be between 0 and 1");
+    }
+    if (maxTokens <= 0) {
+      throw new IllegalArgumentException("non-positive maxTokens");
+    }
+    this.depositMilliTokens = (long) (ratio * SCALE);
+    this.maxMilliTokens = maxTokens * SCALE;
+    this.milliTokens = new AtomicLong(maxMilliTokens);
+  }
+
+  /**
+   * Record a request
+   */
+  public void deposit() {
+    for (;;) {
+      final long current = milliTokens.get();
+      final long next = Math.min(maxMilliTokens, current + depositMilliTokens);
+      if (next == current || milliTokens.compareAndSet(current, next)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * @return whether a retry is allowed, in which case a token has been withdrawn for it
+   */
+  public boolean tryWithdraw() {
+    for (;;) {
+      final long current = milliTokens.get();
+      if (current < SCALE) {
+        return false;
+      }
+      if (milliTokens.compareAndSet(current, current - SCALE)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * @return the number of whole tokens left
+   */
+  public int getTokens() {
+    return (int) (milliTokens.get() / SCALE);
+  }
+
+}
@@ -0,0 +1,126 @@
+package com.saasquatch.sdk.internal;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * {@link Publisher} of the outcome of an asynchronous call that reports back through a
+ * {@link FutureCallback}. Every subscription starts the call once on its first positive request,
+ * and a {@code null} result completes the subscription without emitting any element.<br>
+ * This follows the Reactive Streams specification without any reactive library, so the request
+ * path costs one {@link Subscription} per subscription on top of the call itself.
+ *
+ * @author sli
+ */
+public abstract class SingleValuePublisher<T> implements Publisher<T> {
+
+  /**
+   * Start the call. The given callback must be called exactly once.
+   *
+   * @return a {@link Cancellable} for the call
+   */
+  protected abstract Cancellable start(@Nonnull FutureCallback<T> callback);
+
+  @Override
+  public final void subscribe(Subscriber<? super T> subscriber) {
+    // §1.9
+    Objects.requireNonNull(subscriber, "subscriber");
+    subscriber.onSubscribe(new SingleValueSubscription<>(this, subscriber));
+  }
+
+  private static final class SingleValueSubscription<T> implements Subscription,
+      FutureCallback<T> {
+
+    private static final int IDLE = 0;
+    private static final int STARTED = 1;
+    // A terminal signal has been or is being emitted
+    private static final int DONE = 2;
+    private static final int CANCELLED = 3;
+
+    private final SingleValuePublisher<T> publisher;
+    private final Subscriber<? super T> subscriber;
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+    private volatile Cancellable cancellable;
+
+    SingleValueSubscription(SingleValuePublisher<T> publisher,
+        Subscriber<? super T> subscriber) {
+      this.publisher = publisher;
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        // §3.9
+        final int previousState = state.getAndSet(CANCELLED);
+        if (previousState == IDLE || previousState == STARTED) {
+          cancelCall();
+          subscriber.onError(new IllegalArgumentException("§3.9 non-positive request: " + n));
+        }
+        return;
+      }
+      if (!state.compareAndSet(IDLE, STARTED)) {
+        // §3.6 and extra demand for the one element
+        return;
+      }
+      final Cancellable _cancellable;
+      try {
+        _cancellable = publisher.start(this);
+      } catch (RuntimeException e) {
+        failed(e);
+        return;
+      }
+      cancellable = _cancellable;
+      // Cancelled while starting
+      if (state.get() == CANCELLED) {
+        _cancellable.cancel();
+      }
+    }
+
+    @Override
+    public void cancel() {
+      // §3.5 and §3.7
+      if (state.getAndSet(CANCELLED) == STARTED) {
+        cancelCall();
+      }
+    }
+
+    @Override
+    public void completed(T result) {
+      if (state.compareAndSet(STARTED, DONE)) {
+        if (result != null) {
+          subscriber.onNext(result);
+        }
+        subscriber.onComplete();
+      }
+    }
+
+    @Override
+    public void failed(Exception ex) {
+      if (state.compareAndSet(STARTED, DONE)) {
+        subscriber.onError(ex);
+      }
+    }
+
+    @Override
+    public void cancelled() {
+      failed(new CancellationException());
+    }
+
+    private void cancelCall() {
+      final Cancellable _cancellable = cancellable;
+      if (_cancellable != null) {
+        _cancellable.cancel();
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,65 @@
+package com.saasquatch.sdk.internal;
+
+import java.io.Closeable;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import org.apache.hc.core5.concurrent.Cancellable;
+
+/**
+ * Runs tasks after a delay on a single daemon thread, which is only started once the first task
+ * is scheduled, so clients that never need it don't pay for the thread. Tasks must be short and
+ * must not block, since they all share the one thread.
+ *
+ * @author sli
+ */
+public final class TaskScheduler implements Closeable {
+
+  private volatile ScheduledThreadPoolExecutor executor;
+  private boolean closed;
+
+  /**
+   * Run the given task after the given delay
+   *
+   * @return a {@link Cancellable} that keeps the task from running if it hasn't started yet
+   * @throws IllegalStateException if this scheduler is closed
+   */
+  public Cancellable schedule(@Nonnull Runnable task, long delayMillis) {
+    final ScheduledFuture<?> future =
+        getExecutor().schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+    return () -> future.cancel(false);
+  }
+
+  @Override
+  public synchronized void close() {
+    closed = true;
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private ScheduledThreadPoolExecutor getExecutor() {
+    ScheduledThreadPoolExecutor _executor = executor;
+    if (_executor != null) {
+      return _executor;
+    }
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("TaskScheduler is closed");
+      }
+      if (executor == null) {
+        _executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+          final Thread thread = new Thread(runnable, "saasquatch-scheduler");
+          thread.setDaemon(true);
+          return thread;
+        });
+        // Cancelled tasks would otherwise stay queued until they are due
+        _executor.setRemoveOnCancelPolicy(true);
+        executor = _executor;
+      }
+      return executor;
+    }
+  }
+
+}
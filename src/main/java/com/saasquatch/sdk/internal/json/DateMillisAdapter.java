@@ -1,28 +1,34 @@
 package com.saasquatch.sdk.internal.json;
 
-import java.lang.reflect.Type;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 import java.util.Date;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
 
-enum DateMillisAdapter implements JsonSerializer<Date>, JsonDeserializer<Date> {
+final class DateMillisAdapter extends TypeAdapter<Date> {
 
-  INSTANCE;
+  static final DateMillisAdapter INSTANCE = new DateMillisAdapter();
+
+  private DateMillisAdapter() {}
 
   @Override
-  public JsonElement serialize(Date src, Type typeOfSrc, JsonSerializationContext context) {
-    return new JsonPrimitive(src.getTime());
+  public void write(JsonWriter out, Date value) throws IOException {
+    if (value == null) {
+      out.nullValue();
+    } else {
+      out.value(value.getTime());
+    }
   }
 
   @Override
-  public Date deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
-      throws JsonParseException {
-    return new Date(json.getAsLong());
+  public Date read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return new Date(in.nextLong());
   }
 
 }
@@ -1,9 +1,6 @@
 package com.saasquatch.sdk.internal.json;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonNull;
-import com.google.gson.JsonObject;
 import com.google.gson.TypeAdapter;
 import com.google.gson.TypeAdapterFactory;
 import com.google.gson.annotations.SerializedName;
@@ -11,46 +8,54 @@ import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 enum GsonSerializeNullTypeAdapterFactory implements TypeAdapterFactory {
 
   INSTANCE;
 
+  /**
+   * Serialized names of the {@link GsonSerializeNull} fields of each class Gson has asked about.
+   * Classes without any such field map to an empty set.
+   */
+  private final ConcurrentMap<Class<?>, Set<String>> nullableFieldNamesCache =
+      new ConcurrentHashMap<>();
+
   @Override
   public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
-    final Field[] declaredFields = type.getRawType().getDeclaredFields();
-    final List<String> nullableFieldNames = new ArrayList<>();
-    final List<String> nonNullFieldNames = new ArrayList<>();
-    for (Field declaredField : declaredFields) {
-      if (declaredField.getAnnotation(GsonSerializeNull.class) == null) {
-        nonNullFieldNames.add(getSerializedName(declaredField));
-      } else {
-        nullableFieldNames.add(getSerializedName(declaredField));
-      }
-    }
+    final Set<String> nullableFieldNames = getNullableFieldNames(type.getRawType());
     if (nullableFieldNames.isEmpty()) {
       return null;
     }
     final TypeAdapter<T> delegateAdapter = gson.getDelegateAdapter(
         GsonSerializeNullTypeAdapterFactory.INSTANCE, type);
-    final TypeAdapter<JsonElement> elementAdapter = gson.getAdapter(JsonElement.class);
     return new TypeAdapter<T>() {
 
       @Override
       public void write(JsonWriter out, T value) throws IOException {
-        final JsonObject jsonObject = delegateAdapter.toJsonTree(value).getAsJsonObject();
-        for (String fieldName : nonNullFieldNames) {
-          if (jsonObject.get(fieldName) instanceof JsonNull) {
-            jsonObject.remove(fieldName);
-          }
+        if (value == null) {
+          out.nullValue();
+          return;
+        }
+        /*
+         * A value nested in another type with GsonSerializeNull fields gets that type's
+         * NullFilteringJsonWriter, which can't forward the final setSerializeNulls, so filter the
+         * actual writer instead.
+         */
+        final JsonWriter actualOut = out instanceof NullFilteringJsonWriter
+            ? ((NullFilteringJsonWriter) out).out : out;
+        final boolean originalSerializeNulls = actualOut.getSerializeNulls();
+        try {
+          delegateAdapter.write(new NullFilteringJsonWriter(actualOut, nullableFieldNames), value);
+        } finally {
+          actualOut.setSerializeNulls(originalSerializeNulls);
         }
-        final boolean originalSerializeNulls = out.getSerializeNulls();
-        out.setSerializeNulls(true);
-        elementAdapter.write(out, jsonObject);
-        out.setSerializeNulls(originalSerializeNulls);
       }
 
       @Override
@@ -61,9 +66,185 @@ enum GsonSerializeNullTypeAdapterFactory implements TypeAdapterFactory {
     };
   }
 
+  private Set<String> getNullableFieldNames(Class<?> rawType) {
+    // Not using computeIfAbsent since it's not available on older Android versions
+    final Set<String> cached = nullableFieldNamesCache.get(rawType);
+    if (cached != null) {
+      return cached;
+    }
+    final Set<String> nullableFieldNames = scanNullableFieldNames(rawType);
+    final Set<String> existing = nullableFieldNamesCache.putIfAbsent(rawType, nullableFieldNames);
+    return existing == null ? nullableFieldNames : existing;
+  }
+
+  private static Set<String> scanNullableFieldNames(Class<?> rawType) {
+    Set<String> nullableFieldNames = null;
+    for (Field declaredField : rawType.getDeclaredFields()) {
+      if (declaredField.getAnnotation(GsonSerializeNull.class) != null) {
+        if (nullableFieldNames == null) {
+          nullableFieldNames = new HashSet<>();
+        }
+        nullableFieldNames.add(getSerializedName(declaredField));
+      }
+    }
+    return nullableFieldNames == null ? Collections.emptySet() : nullableFieldNames;
+  }
+
   private static String getSerializedName(Field field) {
     final SerializedName serializedName = field.getAnnotation(SerializedName.class);
     return serializedName == null ? field.getName() : serializedName.value();
   }
 
+  /**
+   * {@link JsonWriter} that forwards everything to the actual writer, but only lets top level
+   * fields write {@code null} if they are in {@code nullableFieldNames}. Nulls nested inside a
+   * field are always written. This relies on {@link JsonWriter} deferring field names until the
+   * value is known, so a dropped null never has its name written either.<br>
+   * {@link JsonWriter} is not an interface, so this overrides every writing method of
+   * {@link JsonWriter} as of Gson 2.10, and copies the settings of the actual writer for the final
+   * getters. A writing method added in a later Gson version has to be overridden here as well,
+   * which {@code GsonUtilsTest} checks.
+   */
+  private static final class NullFilteringJsonWriter extends JsonWriter {
+
+    private static final Writer UNWRITABLE_WRITER = new Writer() {
+      @Override
+      public void write(char[] buffer, int offset, int counter) {
+        throw new UnsupportedOperationException(
+            "JsonWriter method not forwarded by NullFilteringJsonWriter");
+      }
+
+      @Override
+      public void flush() {}
+
+      @Override
+      public void close() {}
+    };
+
+    private final JsonWriter out;
+    private final Set<String> nullableFieldNames;
+    private int depth;
+
+    NullFilteringJsonWriter(JsonWriter out, Set<String> nullableFieldNames) {
+      super(UNWRITABLE_WRITER);
+      this.out = out;
+      this.nullableFieldNames = nullableFieldNames;
+      setHtmlSafe(out.isHtmlSafe());
+      setSerializeNulls(out.getSerializeNulls());
+    }
+
+    @Override
+    public boolean isLenient() {
+      return out.isLenient();
+    }
+
+    @Override
+    public JsonWriter beginArray() throws IOException {
+      beforeNested();
+      out.beginArray();
+      return this;
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException {
+      depth--;
+      out.endArray();
+      return this;
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException {
+      beforeNested();
+      out.beginObject();
+      return this;
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException {
+      depth--;
+      out.endObject();
+      return this;
+    }
+
+    @Override
+    public JsonWriter name(String name) throws IOException {
+      if (depth == 1) {
+        out.setSerializeNulls(nullableFieldNames.contains(name));
+      }
+      out.name(name);
+      return this;
+    }
+
+    @Override
+    public JsonWriter value(String value) throws IOException {
+      out.value(value);
+      return this;
+    }
+
+    @Override
+    public JsonWriter jsonValue(String value) throws IOException {
+      out.jsonValue(value);
+      return this;
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException {
+      out.nullValue();
+      return this;
+    }
+
+    @Override
+    public JsonWriter value(boolean value) throws IOException {
+      out.value(value);
+      return this;
+    }
+
+    @Override
+    public JsonWriter value(Boolean value) throws IOException {
+      out.value(value);
+      return this;
+    }
+
+    @Override
+    public JsonWriter value(float value) throws IOException {
+      out.value(value);
+      return this;
+    }
+
+    @Override
+    public JsonWriter value(double value) throws IOException {
+      out.value(value);
+      return this;
+    }
+
+    @Override
+    public JsonWriter value(long value) throws IOException {
+      out.value(value);
+      return this;
+    }
+
+    @Override
+    public JsonWriter value(Number value) throws IOException {
+      out.value(value);
+      return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+      out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      out.close();
+    }
+
+    private void beforeNested() {
+      if (depth++ > 0) {
+        out.setSerializeNulls(true);
+      }
+    }
+
+  }
+
 }
@@ -2,16 +2,44 @@ package com.saasquatch.sdk.internal.json;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.saasquatch.sdk.http.SaaSquatchHttpResponse;
+import com.saasquatch.sdk.models.ModelTypeAdapterFactory;
+import com.saasquatch.sdk.output.OutputTypeAdapterFactory;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
 import java.util.Date;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public final class GsonUtils {
 
   public static final Gson gson = new GsonBuilder()
       .registerTypeAdapterFactory(GsonSerializeNullTypeAdapterFactory.INSTANCE)
       .registerTypeAdapter(Date.class, DateMillisAdapter.INSTANCE)
+      .registerTypeAdapterFactory(ModelTypeAdapterFactory.INSTANCE)
+      .registerTypeAdapterFactory(OutputTypeAdapterFactory.INSTANCE)
       .addSerializationExclusionStrategy(GsonIgnoreExclusionStrategy.INSTANCE)
       .create();
 
   private GsonUtils() {}
 
+  /**
+   * Parse the response body as JSON straight from {@link SaaSquatchHttpResponse#getBodyReader()},
+   * so the body text never has to be materialized as a {@link String}.
+   */
+  @Nullable
+  public static <T> T fromJsonBody(@Nonnull SaaSquatchHttpResponse httpResponse,
+      @Nonnull Type typeOfT) {
+    try (Reader bodyReader = httpResponse.getBodyReader()) {
+      if (bodyReader == null) {
+        return null;
+      }
+      return gson.fromJson(bodyReader, typeOfT);
+    } catch (IOException e) {
+      throw new JsonIOException(e);
+    }
+  }
+
 }
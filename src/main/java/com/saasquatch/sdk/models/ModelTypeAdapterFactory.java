@@ -0,0 +1,438 @@
+package com.saasquatch.sdk.models;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.saasquatch.sdk.annotations.Internal;
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming Gson {@link TypeAdapter}s for the model classes, so that decoding models does not go
+ * through reflection.
+ *
+ * @author sli
+ */
+@Internal
+public enum ModelTypeAdapterFactory implements TypeAdapterFactory {
+
+  INSTANCE;
+
+  @Override
+  public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+    final Class<? super T> rawType = type.getRawType();
+    final TypeAdapter<?> typeAdapter;
+    if (rawType == User.class) {
+      typeAdapter = new UserAdapter(gson);
+    } else if (rawType == UserEventData.class) {
+      typeAdapter = new UserEventDataAdapter(gson);
+    } else if (rawType == UserEventResult.class) {
+      typeAdapter = new UserEventResultAdapter(gson);
+    } else if (rawType == WidgetUpsertResult.class) {
+      typeAdapter = new WidgetUpsertResultAdapter(gson);
+    } else {
+      return null;
+    }
+    @SuppressWarnings("unchecked") final TypeAdapter<T> result = (TypeAdapter<T>) typeAdapter;
+    return result;
+  }
+
+  private static final class UserAdapter extends TypeAdapter<User> {
+
+    private final TypeAdapter<String> stringAdapter;
+    private final TypeAdapter<Map<String, String>> stringMapAdapter;
+    private final TypeAdapter<Boolean> booleanAdapter;
+    private final TypeAdapter<Date> dateAdapter;
+    private final TypeAdapter<Set<String>> stringSetAdapter;
+    private final TypeAdapter<Map<String, Object>> objectMapAdapter;
+
+    UserAdapter(Gson gson) {
+      this.stringAdapter = gson.getAdapter(String.class);
+      this.stringMapAdapter = gson.getAdapter(new TypeToken<Map<String, String>>() {});
+      this.booleanAdapter = gson.getAdapter(Boolean.class);
+      this.dateAdapter = gson.getAdapter(Date.class);
+      this.stringSetAdapter = gson.getAdapter(new TypeToken<Set<String>>() {});
+      this.objectMapAdapter = gson.getAdapter(new TypeToken<Map<String, Object>>() {});
+    }
+
+    @Override
+    public void write(JsonWriter out, User value) throws IOException {
+      if (value == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginObject();
+      out.name("accountId");
+      stringAdapter.write(out, value.getAccountId());
+      out.name("id");
+      stringAdapter.write(out, value.getId());
+      out.name("firstName");
+      stringAdapter.write(out, value.getFirstName());
+      out.name("lastName");
+      stringAdapter.write(out, value.getLastName());
+      out.name("email");
+      stringAdapter.write(out, value.getEmail());
+      out.name("emailHash");
+      stringAdapter.write(out, value.getEmailHash());
+      out.name("cookieId");
+      stringAdapter.write(out, value.getCookieId());
+      out.name("paymentProviderId");
+      stringAdapter.write(out, value.getPaymentProviderId());
+      out.name("referralCode");
+      stringAdapter.write(out, value.getReferralCode());
+      out.name("referralCodes");
+      stringMapAdapter.write(out, value.getReferralCodes());
+      out.name("locale");
+      stringAdapter.write(out, value.getLocale());
+      out.name("countryCode");
+      stringAdapter.write(out, value.getCountryCode());
+      out.name("imageUrl");
+      stringAdapter.write(out, value.getImageUrl());
+      out.name("referable");
+      booleanAdapter.write(out, value.getReferable());
+      out.name("firstSeenIP");
+      stringAdapter.write(out, value.getFirstSeenIP());
+      out.name("lastSeenIP");
+      stringAdapter.write(out, value.getLastSeenIP());
+      out.name("dateCreated");
+      dateAdapter.write(out, value.getDateCreated());
+      out.name("dateBlocked");
+      dateAdapter.write(out, value.getDateBlocked());
+      out.name("referredByCodes");
+      stringSetAdapter.write(out, value.getReferredByCodes());
+      out.name("referredBy");
+      objectMapAdapter.write(out, value.getReferredBy());
+      out.name("shareLinks");
+      objectMapAdapter.write(out, value.getShareLinks());
+      out.name("programShareLinks");
+      objectMapAdapter.write(out, value.getProgramShareLinks());
+      out.name("customFields");
+      objectMapAdapter.write(out, value.getCustomFields());
+      out.name("segments");
+      stringSetAdapter.write(out, value.getSegments());
+      out.endObject();
+    }
+
+    @Override
+    public User read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      String accountId = null;
+      String id = null;
+      String firstName = null;
+      String lastName = null;
+      String email = null;
+      String emailHash = null;
+      String cookieId = null;
+      String paymentProviderId = null;
+      String referralCode = null;
+      Map<String, String> referralCodes = null;
+      String locale = null;
+      String countryCode = null;
+      String imageUrl = null;
+      Boolean referable = null;
+      String firstSeenIP = null;
+      String lastSeenIP = null;
+      Date dateCreated = null;
+      Date dateBlocked = null;
+      Set<String> referredByCodes = null;
+      Map<String, Object> referredBy = null;
+      Map<String, Object> shareLinks = null;
+      Map<String, Object> programShareLinks = null;
+      Map<String, Object> customFields = null;
+      Set<String> segments = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "accountId":
+            accountId = stringAdapter.read(in);
+            break;
+          case "id":
+            id = stringAdapter.read(in);
+            break;
+          case "firstName":
+            firstName = stringAdapter.read(in);
+            break;
+          case "lastName":
+            lastName = stringAdapter.read(in);
+            break;
+          case "email":
+            email = stringAdapter.read(in);
+            break;
+          case "emailHash":
+            emailHash = stringAdapter.read(in);
+            break;
+          case "cookieId":
+            cookieId = stringAdapter.read(in);
+            break;
+          case "paymentProviderId":
+            paymentProviderId = stringAdapter.read(in);
+            break;
+          case "referralCode":
+            referralCode = stringAdapter.read(in);
+            break;
+          case "referralCodes":
+            referralCodes = stringMapAdapter.read(in);
+            break;
+          case "locale":
+            locale = stringAdapter.read(in);
+            break;
+          case "countryCode":
+            countryCode = stringAdapter.read(in);
+            break;
+          case "imageUrl":
+            imageUrl = stringAdapter.read(in);
+            break;
+          case "referable":
+            referable = booleanAdapter.read(in);
+            break;
+          case "firstSeenIP":
+            firstSeenIP = stringAdapter.read(in);
+            break;
+          case "lastSeenIP":
+            lastSeenIP = stringAdapter.read(in);
+            break;
+          case "dateCreated":
+            dateCreated = dateAdapter.read(in);
+            break;
+          case "dateBlocked":
+            dateBlocked = dateAdapter.read(in);
+            break;
+          case "referredByCodes":
+            referredByCodes = stringSetAdapter.read(in);
+            break;
+          case "referredBy":
+            referredBy = objectMapAdapter.read(in);
+            break;
+          case "shareLinks":
+            shareLinks = objectMapAdapter.read(in);
+            break;
+          case "programShareLinks":
+            programShareLinks = objectMapAdapter.read(in);
+            break;
+          case "customFields":
+            customFields = objectMapAdapter.read(in);
+            break;
+          case "segments":
+            segments = stringSetAdapter.read(in);
+            break;
+          default:
+            in.skipValue();
+            break;
+        }
+      }
+      in.endObject();
+      return new User(accountId, id, firstName, lastName, email, emailHash, cookieId,
+          paymentProviderId, referralCode, referralCodes, locale, countryCode, imageUrl, referable,
+          firstSeenIP, lastSeenIP, dateCreated, dateBlocked, referredByCodes, referredBy,
+          shareLinks, programShareLinks, customFields, segments);
+    }
+
+  }
+
+  private static final class UserEventDataAdapter extends TypeAdapter<UserEventData> {
+
+    private final TypeAdapter<String> stringAdapter;
+    private final TypeAdapter<Map<String, Object>> objectMapAdapter;
+    private final TypeAdapter<Date> dateAdapter;
+
+    UserEventDataAdapter(Gson gson) {
+      this.stringAdapter = gson.getAdapter(String.class);
+      this.objectMapAdapter = gson.getAdapter(new TypeToken<Map<String, Object>>() {});
+      this.dateAdapter = gson.getAdapter(Date.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, UserEventData value) throws IOException {
+      if (value == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginObject();
+      out.name("id");
+      stringAdapter.write(out, value.getId());
+      out.name("key");
+      stringAdapter.write(out, value.getKey());
+      out.name("fields");
+      objectMapAdapter.write(out, value.getFields());
+      out.name("dateTriggered");
+      dateAdapter.write(out, value.getDateTriggered());
+      out.name("dateReceived");
+      dateAdapter.write(out, value.getDateReceived());
+      out.name("dateProcessed");
+      dateAdapter.write(out, value.getDateProcessed());
+      out.endObject();
+    }
+
+    @Override
+    public UserEventData read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      String id = null;
+      String key = null;
+      Map<String, Object> fields = null;
+      Date dateTriggered = null;
+      Date dateReceived = null;
+      Date dateProcessed = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "id":
+            id = stringAdapter.read(in);
+            break;
+          case "key":
+            key = stringAdapter.read(in);
+            break;
+          case "fields":
+            fields = objectMapAdapter.read(in);
+            break;
+          case "dateTriggered":
+            dateTriggered = dateAdapter.read(in);
+            break;
+          case "dateReceived":
+            dateReceived = dateAdapter.read(in);
+            break;
+          case "dateProcessed":
+            dateProcessed = dateAdapter.read(in);
+            break;
+          default:
+            in.skipValue();
+            break;
+        }
+      }
+      in.endObject();
+      return new UserEventData(id, key, fields, dateTriggered, dateReceived, dateProcessed);
+    }
+
+  }
+
+  private static final class UserEventResultAdapter extends TypeAdapter<UserEventResult> {
+
+    private final TypeAdapter<String> stringAdapter;
+    private final TypeAdapter<List<UserEventData>> eventDataListAdapter;
+
+    UserEventResultAdapter(Gson gson) {
+      this.stringAdapter = gson.getAdapter(String.class);
+      this.eventDataListAdapter = gson.getAdapter(new TypeToken<List<UserEventData>>() {});
+    }
+
+    @Override
+    public void write(JsonWriter out, UserEventResult value) throws IOException {
+      if (value == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginObject();
+      out.name("accountId");
+      stringAdapter.write(out, value.getAccountId());
+      out.name("userId");
+      stringAdapter.write(out, value.getUserId());
+      out.name("events");
+      eventDataListAdapter.write(out, value.getEvents());
+      out.endObject();
+    }
+
+    @Override
+    public UserEventResult read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      String accountId = null;
+      String userId = null;
+      List<UserEventData> events = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "accountId":
+            accountId = stringAdapter.read(in);
+            break;
+          case "userId":
+            userId = stringAdapter.read(in);
+            break;
+          case "events":
+            events = eventDataListAdapter.read(in);
+            break;
+          default:
+            in.skipValue();
+            break;
+        }
+      }
+      in.endObject();
+      return new UserEventResult(accountId, userId, events);
+    }
+
+  }
+
+  private static final class WidgetUpsertResultAdapter extends TypeAdapter<WidgetUpsertResult> {
+
+    private final TypeAdapter<String> stringAdapter;
+    private final TypeAdapter<Map<String, Object>> objectMapAdapter;
+    private final TypeAdapter<User> userAdapter;
+
+    WidgetUpsertResultAdapter(Gson gson) {
+      this.stringAdapter = gson.getAdapter(String.class);
+      this.objectMapAdapter = gson.getAdapter(new TypeToken<Map<String, Object>>() {});
+      this.userAdapter = gson.getAdapter(User.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, WidgetUpsertResult value) throws IOException {
+      if (value == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginObject();
+      out.name("template");
+      stringAdapter.write(out, value.getTemplate());
+      out.name("jsOptions");
+      objectMapAdapter.write(out, value.getJsOptions());
+      out.name("user");
+      userAdapter.write(out, value.getUser());
+      out.endObject();
+    }
+
+    @Override
+    public WidgetUpsertResult read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      String template = null;
+      Map<String, Object> jsOptions = null;
+      User user = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "template":
+            template = stringAdapter.read(in);
+            break;
+          case "jsOptions":
+            jsOptions = objectMapAdapter.read(in);
+            break;
+          case "user":
+            user = userAdapter.read(in);
+            break;
+          default:
+            in.skipValue();
+            break;
+        }
+      }
+      in.endObject();
+      return new WidgetUpsertResult(template, jsOptions, user);
+    }
+
+  }
+
+}
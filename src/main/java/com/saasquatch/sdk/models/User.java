@@ -32,7 +32,7 @@ public final class User {
   private final Map<String, Object> customFields;
   private final Set<String> segments;
 
-  private User(String accountId, String id, String firstName, String lastName, String email,
+  User(String accountId, String id, String firstName, String lastName, String email,
       String emailHash, String cookieId, String paymentProviderId, String referralCode,
       Map<String, String> referralCodes, String locale, String countryCode, String imageUrl,
       Boolean referable, String firstSeenIP, String lastSeenIP, Date dateCreated, Date dateBlocked,
@@ -12,7 +12,7 @@ public final class UserEventData {
   private final Date dateReceived;
   private final Date dateProcessed;
 
-  private UserEventData(String id, String key, Map<String, Object> fields, Date dateTriggered,
+  UserEventData(String id, String key, Map<String, Object> fields, Date dateTriggered,
       Date dateReceived, Date dateProcessed) {
     this.id = id;
     this.key = key;
@@ -8,7 +8,7 @@ public final class UserEventResult {
   private final String userId;
   private final List<UserEventData> events;
 
-  private UserEventResult(String accountId, String userId, List<UserEventData> events) {
+  UserEventResult(String accountId, String userId, List<UserEventData> events) {
     this.accountId = accountId;
     this.userId = userId;
     this.events = events;
@@ -9,7 +9,7 @@ public final class WidgetUpsertResult {
   private final Map<String, Object> jsOptions;
   private final User user;
 
-  private WidgetUpsertResult(String template, Map<String, Object> jsOptions, User user) {
+  WidgetUpsertResult(String template, Map<String, Object> jsOptions, User user) {
     this.template = template;
     this.jsOptions = jsOptions;
     this.user = user;
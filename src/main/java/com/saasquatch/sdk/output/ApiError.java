@@ -26,7 +26,7 @@ public final class ApiError {
   private final Integer statusCode;
   private final String rsCode;
 
-  private ApiError(String message, String apiErrorCode, Integer statusCode, String rsCode) {
+  ApiError(String message, String apiErrorCode, Integer statusCode, String rsCode) {
     this.message = message;
     this.apiErrorCode = apiErrorCode;
     this.statusCode = statusCode;
@@ -3,6 +3,7 @@ package com.saasquatch.sdk.output;
 import com.saasquatch.sdk.annotations.Internal;
 import com.saasquatch.sdk.annotations.NoExternalImpl;
 import com.saasquatch.sdk.http.SaaSquatchHttpResponse;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -14,22 +15,28 @@ import javax.annotation.Nullable;
 @NoExternalImpl
 public abstract class ApiResponse<T> {
 
+  private static final Object UNINITIALIZED = new Object();
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<ApiResponse, Object> DATA_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(ApiResponse.class, Object.class, "data");
+
   private final SaaSquatchHttpResponse httpResponse;
   private final boolean hasDataOverride;
-  private final T dataOverride;
+  // Lazy init
+  private volatile Object data;
 
   @Internal
   ApiResponse(@Nonnull SaaSquatchHttpResponse httpResponse) {
     this.httpResponse = httpResponse;
     this.hasDataOverride = false;
-    this.dataOverride = null;
+    this.data = UNINITIALIZED;
   }
 
   @Internal
   ApiResponse(@Nonnull SaaSquatchHttpResponse httpResponse, @Nullable T dataOverride) {
     this.httpResponse = httpResponse;
     this.hasDataOverride = true;
-    this.dataOverride = dataOverride;
+    this.data = dataOverride;
   }
 
   @Nonnull
@@ -37,12 +44,32 @@ public abstract class ApiResponse<T> {
     return httpResponse;
   }
 
+  /**
+   * @return The data of this response. The data is built from the response body the first time
+   * this method is called, and the same result is returned for subsequent calls. Concurrent first
+   * calls may each build the data, but they all return the same result.
+   */
   @Nullable
   public final T getData() {
-    if (hasDataOverride) {
-      return dataOverride;
+    Object _data = data;
+    if (_data == UNINITIALIZED) {
+      /*
+       * Concurrent first calls may both build the data, but only the first one to finish gets to
+       * keep it, and the others return that one instead of their own.
+       */
+      final Object builtData = buildData();
+      _data = DATA_UPDATER.compareAndSet(this, UNINITIALIZED, builtData) ? builtData : data;
     }
-    return buildData();
+    @SuppressWarnings("unchecked") final T result = (T) _data;
+    return result;
+  }
+
+  /**
+   * @return Whether the data of this response was provided up front rather than built from the
+   * response body
+   */
+  boolean hasDataOverride() {
+    return hasDataOverride;
   }
 
   protected abstract T buildData();
@@ -1,6 +1,6 @@
 package com.saasquatch.sdk.output;
 
-import static com.saasquatch.sdk.internal.json.GsonUtils.gson;
+import static com.saasquatch.sdk.internal.json.GsonUtils.fromJsonBody;
 
 import com.saasquatch.sdk.http.SaaSquatchHttpResponse;
 import com.saasquatch.sdk.annotations.Internal;
@@ -23,7 +23,7 @@ public final class GraphQLApiResponse extends ApiResponse<GraphQLResult> {
 
   @Override
   protected GraphQLResult buildData() {
-    return gson.fromJson(getHttpResponse().getBodyText(), GraphQLResult.class);
+    return fromJsonBody(getHttpResponse(), GraphQLResult.class);
   }
 
 }
@@ -16,7 +16,7 @@ public final class GraphQLResult {
   private final List<Object> errors;
   private final Map<String, Object> extensions;
 
-  private GraphQLResult(Map<String, Object> data, List<Object> errors,
+  GraphQLResult(Map<String, Object> data, List<Object> errors,
       Map<String, Object> extensions) {
     this.data = data;
     this.errors = errors;
@@ -1,7 +1,7 @@
 package com.saasquatch.sdk.output;
 
 import static com.saasquatch.sdk.internal.InternalUtils.format;
-import static com.saasquatch.sdk.internal.json.GsonUtils.gson;
+import static com.saasquatch.sdk.internal.json.GsonUtils.fromJsonBody;
 
 import com.google.gson.reflect.TypeToken;
 import com.saasquatch.sdk.annotations.Beta;
@@ -26,9 +26,7 @@ public final class JsonArrayApiResponse extends ApiResponse<List<Object>> {
 
   @Override
   protected List<Object> buildData() {
-    @SuppressWarnings("unchecked") final List<Object> dataAsList =
-        gson.fromJson(getHttpResponse().getBodyText(), List.class);
-    return dataAsList;
+    return fromJsonBody(getHttpResponse(), List.class);
   }
 
   /**
@@ -39,12 +37,8 @@ public final class JsonArrayApiResponse extends ApiResponse<List<Object>> {
    */
   public <T> List<T> toModelList(@Nonnull Class<? extends T> modelClass) {
     Objects.requireNonNull(modelClass, "modelClass");
-    /*
-     * I know modelClass is technically not being used here, but it's included to be JSON library
-     * agnostic
-     */
-    final List<T> modelList = gson.fromJson(gson.toJsonTree(getData()),
-        new TypeToken<List<T>>() {}.getType());
+    final List<T> modelList = fromJsonBody(getHttpResponse(),
+        TypeToken.getParameterized(List.class, modelClass).getType());
     if (modelList == null) {
       throw new IllegalStateException(
           format("Unable to convert to model list with class [%s]", modelClass));
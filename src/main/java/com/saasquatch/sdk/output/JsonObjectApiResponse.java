@@ -1,6 +1,7 @@
 package com.saasquatch.sdk.output;
 
 import static com.saasquatch.sdk.internal.InternalUtils.format;
+import static com.saasquatch.sdk.internal.json.GsonUtils.fromJsonBody;
 import static com.saasquatch.sdk.internal.json.GsonUtils.gson;
 
 import com.saasquatch.sdk.annotations.Internal;
@@ -31,9 +32,7 @@ public final class JsonObjectApiResponse extends ApiResponse<Map<String, Object>
 
   @Override
   protected Map<String, Object> buildData() {
-    @SuppressWarnings("unchecked") final Map<String, Object> dataAsMap =
-        gson.fromJson(getHttpResponse().getBodyText(), Map.class);
-    return dataAsMap;
+    return fromJsonBody(getHttpResponse(), Map.class);
   }
 
   /**
@@ -44,7 +43,13 @@ public final class JsonObjectApiResponse extends ApiResponse<Map<String, Object>
    */
   public <T> T toModel(@Nonnull Class<? extends T> modelClass) {
     Objects.requireNonNull(modelClass, "modelClass");
-    final T model = gson.fromJson(gson.toJsonTree(getData()), modelClass);
+    /*
+     * Bind the model straight from the response body if we can, so we don't have to go through
+     * the Map and a JsonElement tree first.
+     */
+    final T model = hasDataOverride()
+        ? gson.fromJson(gson.toJsonTree(getData()), modelClass)
+        : fromJsonBody(getHttpResponse(), modelClass);
     if (model == null) {
       throw new IllegalStateException(
           format("Unable to convert to model with class [%s]", modelClass));
@@ -0,0 +1,163 @@
+package com.saasquatch.sdk.output;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.saasquatch.sdk.annotations.Internal;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming Gson {@link TypeAdapter}s for the output classes, so that decoding them does not go
+ * through reflection.
+ *
+ * @author sli
+ */
+@Internal
+public enum OutputTypeAdapterFactory implements TypeAdapterFactory {
+
+  INSTANCE;
+
+  @Override
+  public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+    final Class<? super T> rawType = type.getRawType();
+    final TypeAdapter<?> typeAdapter;
+    if (rawType == ApiError.class) {
+      typeAdapter = new ApiErrorAdapter(gson);
+    } else if (rawType == GraphQLResult.class) {
+      typeAdapter = new GraphQLResultAdapter(gson);
+    } else {
+      return null;
+    }
+    @SuppressWarnings("unchecked") final TypeAdapter<T> result = (TypeAdapter<T>) typeAdapter;
+    return result;
+  }
+
+  private static final class ApiErrorAdapter extends TypeAdapter<ApiError> {
+
+    private final TypeAdapter<String> stringAdapter;
+    private final TypeAdapter<Integer> integerAdapter;
+
+    ApiErrorAdapter(Gson gson) {
+      this.stringAdapter = gson.getAdapter(String.class);
+      this.integerAdapter = gson.getAdapter(Integer.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, ApiError value) throws IOException {
+      if (value == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginObject();
+      out.name("message");
+      stringAdapter.write(out, value.getMessage());
+      out.name("apiErrorCode");
+      stringAdapter.write(out, value.getApiErrorCode());
+      out.name("statusCode");
+      integerAdapter.write(out, value.getStatusCode());
+      out.name("rsCode");
+      stringAdapter.write(out, value.getRsCode());
+      out.endObject();
+    }
+
+    @Override
+    public ApiError read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      String message = null;
+      String apiErrorCode = null;
+      Integer statusCode = null;
+      String rsCode = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "message":
+            message = stringAdapter.read(in);
+            break;
+          case "apiErrorCode":
+            apiErrorCode = stringAdapter.read(in);
+            break;
+          case "statusCode":
+            statusCode = integerAdapter.read(in);
+            break;
+          case "rsCode":
+            rsCode = stringAdapter.read(in);
+            break;
+          default:
+            in.skipValue();
+            break;
+        }
+      }
+      in.endObject();
+      return new ApiError(message, apiErrorCode, statusCode, rsCode);
+    }
+
+  }
+
+  private static final class GraphQLResultAdapter extends TypeAdapter<GraphQLResult> {
+
+    private final TypeAdapter<Map<String, Object>> objectMapAdapter;
+    private final TypeAdapter<List<Object>> objectListAdapter;
+
+    GraphQLResultAdapter(Gson gson) {
+      this.objectMapAdapter = gson.getAdapter(new TypeToken<Map<String, Object>>() {});
+      this.objectListAdapter = gson.getAdapter(new TypeToken<List<Object>>() {});
+    }
+
+    @Override
+    public void write(JsonWriter out, GraphQLResult value) throws IOException {
+      if (value == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginObject();
+      out.name("data");
+      objectMapAdapter.write(out, value.getData());
+      out.name("errors");
+      objectListAdapter.write(out, value.getErrors());
+      out.name("extensions");
+      objectMapAdapter.write(out, value.getExtensions());
+      out.endObject();
+    }
+
+    @Override
+    public GraphQLResult read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      Map<String, Object> data = null;
+      List<Object> errors = null;
+      Map<String, Object> extensions = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "data":
+            data = objectMapAdapter.read(in);
+            break;
+          case "errors":
+            errors = objectListAdapter.read(in);
+            break;
+          case "extensions":
+            extensions = objectMapAdapter.read(in);
+            break;
+          default:
+            in.skipValue();
+            break;
+        }
+      }
+      in.endObject();
+      return new GraphQLResult(data, errors, extensions);
+    }
+
+  }
+
+}
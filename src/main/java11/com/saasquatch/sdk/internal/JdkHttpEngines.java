@@ -0,0 +1,213 @@
+package com.saasquatch.sdk.internal;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpVersion;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * Factory for the {@link HttpEngine} on {@code java.net.http.HttpClient}.<br>
+ * This is the Java 11 version of this class, which lives under {@code META-INF/versions/11} of
+ * the multi-release JAR. It must keep the same signatures as the Java 8 version.
+ *
+ * @author sli
+ */
+public final class JdkHttpEngines {
+
+  /**
+   * Headers that {@code java.net.http} sets by itself and refuses to take from the caller
+   */
+  private static final Set<String> RESTRICTED_HEADERS = new HashSet<>(Arrays.asList(
+      "connection", "content-length", "date", "expect", "from", "host", "upgrade", "via",
+      "warning"));
+
+  private JdkHttpEngines() {}
+
+  /**
+   * @return whether {@code java.net.http.HttpClient} is available on this runtime
+   */
+  public static boolean isAvailable() {
+    return true;
+  }
+
+  /**
+   * Create an {@link HttpEngine} on a new {@code java.net.http.HttpClient}
+   *
+   * @param http2 whether to prefer HTTP/2, with a fallback to HTTP/1.1
+   * @throws UnsupportedOperationException if {@link #isAvailable()} is false
+   */
+  public static HttpEngine create(int connectTimeoutMillis, boolean http2,
+      @Nonnull String userAgent) {
+    final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+        .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .build();
+    return new JdkHttpEngine(httpClient, userAgent);
+  }
+
+  /**
+   * {@link HttpEngine} on {@code java.net.http.HttpClient}. Response bodies are buffered into a
+   * {@code byte[]} as is, and gzipped bodies are inflated on demand when they are read.
+   */
+  private static final class JdkHttpEngine implements HttpEngine {
+
+    private final HttpClient httpClient;
+    private final String userAgent;
+
+    JdkHttpEngine(@Nonnull HttpClient httpClient, @Nonnull String userAgent) {
+      this.httpClient = httpClient;
+      this.userAgent = userAgent;
+    }
+
+    @Override
+    public Cancellable execute(@Nonnull SimpleHttpRequest request,
+        @Nullable JsonEntityProducer entityProducer,
+        @Nonnull FutureCallback<SimpleHttpResponse> callback) {
+      final HttpRequest jdkRequest;
+      try {
+        jdkRequest = toJdkRequest(request, entityProducer);
+      } catch (URISyntaxException | IllegalArgumentException e) {
+        callback.failed(e);
+        return () -> false;
+      }
+      final CompletableFuture<HttpResponse<byte[]>> future =
+          httpClient.sendAsync(jdkRequest, BodyHandlers.ofByteArray());
+      future.whenComplete((response, t) -> {
+        if (t == null) {
+          callback.completed(toSimpleResponse(response));
+          return;
+        }
+        final Throwable cause =
+            t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+        if (cause instanceof CancellationException) {
+          callback.cancelled();
+        } else {
+          callback.failed(toException(cause));
+        }
+      });
+      // Since Java 16, cancelling the future also aborts the exchange. Before that, the exchange
+      // carries on in the background, but the callback is still told right away.
+      return () -> future.cancel(true);
+    }
+
+    /**
+     * {@code java.net.http.HttpClient} has no close method before Java 21. Its selector thread
+     * and connections go away once it's no longer reachable.
+     */
+    @Override
+    public void close() {}
+
+    private HttpRequest toJdkRequest(@Nonnull SimpleHttpRequest request,
+        @Nullable JsonEntityProducer entityProducer) throws URISyntaxException {
+      final HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUri());
+      final RequestConfig requestConfig = request.getConfig();
+      final Timeout responseTimeout =
+          requestConfig == null ? null : requestConfig.getResponseTimeout();
+      if (Timeout.isPositive(responseTimeout)) {
+        builder.timeout(Duration.ofMillis(responseTimeout.toMilliseconds()));
+      }
+      for (Header header : request.getHeaders()) {
+        if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+          builder.header(header.getName(), header.getValue());
+        }
+      }
+      if (!request.containsHeader(HttpHeaders.USER_AGENT)) {
+        builder.header(HttpHeaders.USER_AGENT, userAgent);
+      }
+      final BodyPublisher bodyPublisher;
+      if (entityProducer == null) {
+        bodyPublisher = BodyPublishers.noBody();
+      } else {
+        builder.header(HttpHeaders.CONTENT_TYPE, entityProducer.getContentType());
+        if (entityProducer.getContentEncoding() != null) {
+          builder.header(HttpHeaders.CONTENT_ENCODING, entityProducer.getContentEncoding());
+        }
+        // One chunk at a time is copied when the body is sent, or sent again on a retry
+        final List<ByteBuffer> chunks = entityProducer.getChunks();
+        bodyPublisher = BodyPublishers.fromPublisher(
+            BodyPublishers.ofByteArrays(
+                () -> chunks.stream().map(JdkHttpEngine::toByteArray).iterator()),
+            entityProducer.getContentLength());
+      }
+      return builder.method(request.getMethod(), bodyPublisher).build();
+    }
+
+    private static byte[] toByteArray(@Nonnull ByteBuffer chunk) {
+      final ByteBuffer view = chunk.duplicate();
+      final byte[] bytes = new byte[view.remaining()];
+      view.get(bytes);
+      return bytes;
+    }
+
+    private static SimpleHttpResponse toSimpleResponse(@Nonnull HttpResponse<byte[]> response) {
+      final SimpleHttpResponse simpleResponse = new SimpleHttpResponse(response.statusCode());
+      simpleResponse.setVersion(response.version() == HttpClient.Version.HTTP_2
+          ? HttpVersion.HTTP_2 : HttpVersion.HTTP_1_1);
+      response.headers().map().forEach((name, values) -> {
+        for (String value : values) {
+          simpleResponse.addHeader(name, value);
+        }
+      });
+      final byte[] body = response.body();
+      if (body != null && body.length > 0) {
+        final String contentType =
+            response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse(null);
+        simpleResponse.setBody(body,
+            contentType == null ? null : ContentType.parseLenient(contentType));
+      }
+      return simpleResponse;
+    }
+
+    /**
+     * Turn the timeouts of {@code java.net.http} into the {@link InterruptedIOException}s thrown by
+     * Apache HttpClient, so they are handled the same way regardless of the engine
+     */
+    private static Exception toException(@Nonnull Throwable t) {
+      if (t instanceof HttpTimeoutException) {
+        final InterruptedIOException timeoutException = t instanceof HttpConnectTimeoutException
+            ? new ConnectTimeoutException(t.getMessage())
+            : new SocketTimeoutException(t.getMessage());
+        timeoutException.initCause(t);
+        return timeoutException;
+      }
+      if (t instanceof Exception) {
+        return (Exception) t;
+      }
+      return new ExecutionException(t);
+    }
+
+  }
+
+}
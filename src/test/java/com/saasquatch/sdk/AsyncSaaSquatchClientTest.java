@@ -0,0 +1,72 @@
+package com.saasquatch.sdk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.saasquatch.sdk.exceptions.SaaSquatchApiException;
+import com.saasquatch.sdk.output.JsonObjectApiResponse;
+import com.saasquatch.sdk.test.LocalTestServer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class AsyncSaaSquatchClientTest {
+
+  @Test
+  public void testBasic() throws Exception {
+    final CountDownLatch slowRequestReceived = new CountDownLatch(1);
+    final CountDownLatch slowRequestRelease = new CountDownLatch(1);
+    final AtomicInteger queuedRequestCount = new AtomicInteger();
+    final LocalTestServer server = LocalTestServer.start(exchange -> {
+      final String path = exchange.getRequestURI().getPath();
+      if (path.endsWith("/user/slow")) {
+        slowRequestReceived.countDown();
+        try {
+          slowRequestRelease.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      } else if (path.endsWith("/user/queued")) {
+        queuedRequestCount.incrementAndGet();
+      }
+      if (path.endsWith("/user/missing")) {
+        LocalTestServer.sendJson(exchange, 404, "{\"message\":\"m\","
+            + "\"apiErrorCode\":\"USER_NOT_FOUND\",\"statusCode\":404,\"rsCode\":\"R\"}");
+      } else {
+        LocalTestServer.sendJson(exchange, 200, "{\"id\":\"b\"}");
+      }
+    });
+    try (AsyncSaaSquatchClient client = AsyncSaaSquatchClient.create(
+        server.newClientOptionsBuilder().setMaxConcurrentRequests(1).build())) {
+      final JsonObjectApiResponse response =
+          client.getUser("a", "b", null).toCompletableFuture().get(5, TimeUnit.SECONDS);
+      assertEquals("b", response.getData().get("id"));
+      final ExecutionException e = assertThrows(ExecutionException.class,
+          () -> client.getUser("a", "missing", null).toCompletableFuture()
+              .get(5, TimeUnit.SECONDS));
+      assertTrue(e.getCause() instanceof SaaSquatchApiException, e::toString);
+
+      // A request cancelled while waiting for the limiter is never sent
+      final CompletableFuture<JsonObjectApiResponse> slow =
+          client.getUser("a", "slow", null).toCompletableFuture();
+      assertTrue(slowRequestReceived.await(5, TimeUnit.SECONDS));
+      final CompletableFuture<JsonObjectApiResponse> queued =
+          client.getUser("a", "queued", null).toCompletableFuture();
+      assertTrue(queued.cancel(false));
+      assertThrows(CancellationException.class, queued::join);
+      slowRequestRelease.countDown();
+      slow.get(5, TimeUnit.SECONDS);
+      client.getUser("a", "b", null).toCompletableFuture().get(5, TimeUnit.SECONDS);
+      assertEquals(0, queuedRequestCount.get());
+      assertEquals(0, client.getInFlightRequestCount());
+    } finally {
+      server.close();
+    }
+  }
+
+}
@@ -0,0 +1,105 @@
+package com.saasquatch.sdk;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.saasquatch.sdk.internal.ByteBufferPool;
+import com.saasquatch.sdk.internal.ChunkedOutputStream;
+import com.saasquatch.sdk.internal.InternalUtils;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+public class ByteBufferPoolTest {
+
+  @Test
+  public void testInvalid() {
+    assertThrows(IllegalArgumentException.class, () -> new ByteBufferPool(0, 1, true));
+    assertThrows(IllegalArgumentException.class, () -> new ByteBufferPool(1, -1, true));
+  }
+
+  @Test
+  public void testBudget() {
+    final ByteBufferPool bufferPool = new ByteBufferPool(8, 8, true);
+    final ByteBuffer b1 = bufferPool.acquire();
+    final ByteBuffer b2 = bufferPool.acquire();
+    assertTrue(b1.isDirect());
+    // Out of direct memory budget
+    assertFalse(b2.isDirect());
+    bufferPool.release(b1);
+    assertEquals(8, bufferPool.getPooledBytes());
+    // Heap buffers of a direct pool are not pooled
+    bufferPool.release(b2);
+    // Wrong kind of buffer
+    bufferPool.release(ByteBuffer.allocate(8));
+    bufferPool.release(ByteBuffer.allocateDirect(16));
+    assertEquals(8, bufferPool.getPooledBytes());
+    b1.put((byte) 1);
+    assertSame(b1, bufferPool.acquire());
+    assertEquals(0, b1.position());
+    assertEquals(0, bufferPool.getPooledBytes());
+    assertFalse(bufferPool.acquire().isDirect());
+  }
+
+  @Test
+  public void testDiscard() {
+    final ByteBufferPool bufferPool = new ByteBufferPool(8, 16, true);
+    final ByteBuffer b1 = bufferPool.acquire();
+    final ByteBuffer b2 = bufferPool.acquire();
+    assertTrue(b1.isDirect() && b2.isDirect());
+    assertFalse(bufferPool.acquire().isDirect());
+    // A discarded buffer frees up its share of the budget
+    bufferPool.discard(b1);
+    assertTrue(bufferPool.acquire().isDirect());
+    // Heap buffers don't count
+    bufferPool.discard(ByteBuffer.allocate(8));
+    assertFalse(bufferPool.acquire().isDirect());
+    bufferPool.release(b2);
+    assertSame(b2, bufferPool.acquire());
+  }
+
+  @Test
+  public void testHeap() {
+    final ByteBufferPool bufferPool = new ByteBufferPool(8, 0, false);
+    final ByteBuffer buffer = bufferPool.acquire();
+    assertFalse(buffer.isDirect());
+    assertTrue(buffer.hasArray());
+    // Pooling disabled
+    bufferPool.release(buffer);
+    assertEquals(0, bufferPool.getPooledBytes());
+    assertNotSame(buffer, bufferPool.acquire());
+  }
+
+  @Test
+  public void testChunkedOutputStream() {
+    final ByteBufferPool bufferPool = new ByteBufferPool(4, 1024, true);
+    final ChunkedOutputStream out = new ChunkedOutputStream(bufferPool);
+    out.write('a');
+    out.write("bcdefghij".getBytes(UTF_8), 0, 9);
+    out.write(ByteBuffer.wrap("klmnopq".getBytes(UTF_8)));
+    out.close();
+    assertEquals(17, out.size());
+    assertEquals(5, out.getChunks().size());
+    assertArrayEquals("abcdefghijklmnopq".getBytes(UTF_8), out.toByteArray());
+    out.recycle();
+    assertEquals(20, bufferPool.getPooledBytes());
+  }
+
+  @Test
+  public void testToByteArray() throws Exception {
+    final byte[] bytes = new byte[100000];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) i;
+    }
+    assertArrayEquals(bytes, InternalUtils.toByteArray(new ByteArrayInputStream(bytes)));
+    assertArrayEquals(new byte[0],
+        InternalUtils.toByteArray(new ByteArrayInputStream(new byte[0])));
+  }
+
+}
@@ -0,0 +1,227 @@
+package com.saasquatch.sdk;
+
+import static com.saasquatch.sdk.internal.json.GsonUtils.gson;
+import static com.saasquatch.sdk.test.LocalTestServer.waitFor;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.saasquatch.sdk.exceptions.SaaSquatchIOException;
+import com.saasquatch.sdk.internal.ByteBufferPool;
+import com.saasquatch.sdk.internal.Client5HttpEngine;
+import com.saasquatch.sdk.internal.HttpEngine;
+import com.saasquatch.sdk.internal.InternalUtils;
+import com.saasquatch.sdk.internal.JdkHttpEngines;
+import com.saasquatch.sdk.internal.JsonEntityProducer;
+import com.saasquatch.sdk.test.LocalTestServer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CancellationTest {
+
+  private LocalTestServer server;
+  private CountDownLatch slowRequestRelease;
+  private AtomicInteger slowRequestCount;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    slowRequestRelease = new CountDownLatch(1);
+    slowRequestCount = new AtomicInteger();
+    server = LocalTestServer.start(exchange -> {
+      if (exchange.getRequestURI().getPath().endsWith("/user/slow")) {
+        slowRequestCount.incrementAndGet();
+        try {
+          slowRequestRelease.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      LocalTestServer.sendJson(exchange, 200, "{\"id\":\"b\"}");
+    });
+  }
+
+  @AfterEach
+  public void tearDown() {
+    slowRequestRelease.countDown();
+    server.close();
+  }
+
+  @Test
+  public void testCancelFreesConnection() throws Exception {
+    for (HttpEngineType httpEngineType : availableHttpEngineTypes()) {
+      // One connection, so the next request only goes through if the cancelled one let go of it
+      try (AsyncSaaSquatchClient client = AsyncSaaSquatchClient.create(
+          server.newClientOptionsBuilder().setMaxConcurrentRequests(1)
+              .setHttpEngineType(httpEngineType).build())) {
+        final int slowRequestCountBefore = slowRequestCount.get();
+        final CompletableFuture<?> slow =
+            client.getUser("a", "slow", null).toCompletableFuture();
+        waitFor(() -> slowRequestCount.get() > slowRequestCountBefore);
+        assertTrue(slow.cancel(false));
+        waitFor(() -> client.getInFlightRequestCount() == 0);
+        assertEquals("b", client.getUser("a", "b", null).toCompletableFuture()
+            .get(5, TimeUnit.SECONDS).getData().get("id"), httpEngineType::name);
+      }
+    }
+  }
+
+  @Test
+  public void testCancelDiscardsReusedConnection() throws Exception {
+    // A strict pool of one connection, so every request reuses it
+    final CloseableHttpAsyncClient httpAsyncClient = Client5HttpEngine
+        .discardConnectionsOnCancel(HttpAsyncClients.custom())
+        .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+            .setMaxConnPerRoute(1).setMaxConnTotal(1)
+            .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT).build())
+        .build();
+    httpAsyncClient.start();
+    final String baseUrl = server.getBaseUrl();
+    try (HttpEngine httpEngine =
+        new Client5HttpEngine(httpAsyncClient, ByteBufferPool.sharedHeapPool())) {
+      assertEquals(200, execute(httpEngine, SimpleRequestBuilder.get(baseUrl + "/user/b").build())
+          .get(5, TimeUnit.SECONDS).getCode());
+      final int slowRequestCountBefore = slowRequestCount.get();
+      final Cancellable slow = InternalUtils.executeRequest(httpEngine,
+          SimpleRequestBuilder.get(baseUrl + "/user/slow").build(), null, null,
+          new CompletableFutureCallback());
+      waitFor(() -> slowRequestCount.get() > slowRequestCountBefore);
+      assertTrue(slow.cancel());
+      // Only goes through if the connection of the cancelled request was let go of
+      assertEquals(200, execute(httpEngine, SimpleRequestBuilder.get(baseUrl + "/user/b").build())
+          .get(5, TimeUnit.SECONDS).getCode());
+    }
+  }
+
+  @Test
+  public void testDeadline() throws Exception {
+    for (HttpEngineType httpEngineType : availableHttpEngineTypes()) {
+      try (SaaSquatchBlockingClient client = SaaSquatchBlockingClient.create(
+          server.newClientOptionsBuilder().setMaxConcurrentRequests(1)
+              .setHttpEngineType(httpEngineType).build())) {
+        final long startNanos = System.nanoTime();
+        final SaaSquatchIOException e = assertThrows(SaaSquatchIOException.class,
+            () -> client.getUser("a", "slow", RequestOptions.newBuilder()
+                .setDeadlineEpochMillis(System.currentTimeMillis() + 300).build()));
+        assertTrue(e.getCause() instanceof TimeoutException, e::toString);
+        assertTrue(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(5));
+        // The request is aborted, so its connection is free again
+        waitFor(() -> client.getInFlightRequestCount() == 0);
+        assertEquals("b", client.getUser("a", "b", RequestOptions.newBuilder()
+                .setDeadlineEpochMillis(System.currentTimeMillis() + 5000).build())
+            .getData().get("id"), httpEngineType::name);
+
+        // A request past its deadline is never sent
+        final int slowRequestCountBefore = slowRequestCount.get();
+        assertThrows(SaaSquatchIOException.class, () -> client.getUser("a", "slow",
+            RequestOptions.newBuilder().setDeadlineEpochMillis(1).build()));
+        assertEquals(slowRequestCountBefore, slowRequestCount.get());
+      }
+    }
+  }
+
+  @Test
+  public void testCancelDuringUpload() throws Exception {
+    // Large enough to fill up the socket buffers, since the server never reads it
+    final Map<String, Object> body = new HashMap<>();
+    for (int i = 0; i < 200000; i++) {
+      body.put("field" + i, "value" + i);
+    }
+    final SimpleHttpRequest request = SimpleRequestBuilder
+        .post(server.getBaseUrl() + "/user/slow").build();
+    for (HttpEngineType httpEngineType : availableHttpEngineTypes()) {
+      final ByteBufferPool bufferPool =
+          new ByteBufferPool(ByteBufferPool.DEFAULT_BUFFER_SIZE, 64 * 1024 * 1024, false);
+      try (HttpEngine httpEngine = httpEngineType == HttpEngineType.JAVA_NET_HTTP
+          ? JdkHttpEngines.create(5000, false, "test")
+          : newClient5HttpEngine(bufferPool)) {
+        final JsonEntityProducer entityProducer =
+            JsonEntityProducer.create(gson, body, bufferPool);
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        final int slowRequestCountBefore = slowRequestCount.get();
+        final Cancellable cancellable = InternalUtils.executeRequest(httpEngine, request,
+            entityProducer, null, new FutureCallback<SimpleHttpResponse>() {
+              @Override
+              public void completed(SimpleHttpResponse result) {}
+
+              @Override
+              public void failed(Exception ex) {}
+
+              @Override
+              public void cancelled() {
+                cancelled.countDown();
+              }
+            });
+        waitFor(() -> slowRequestCount.get() > slowRequestCountBefore);
+        assertTrue(cancellable.cancel());
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        // The exchange may still be sending the body, so its buffers must not be handed out again
+        assertEquals(0, bufferPool.getPooledBytes(), httpEngineType::name);
+      }
+    }
+  }
+
+  private static CompletableFuture<SimpleHttpResponse> execute(@Nonnull HttpEngine httpEngine,
+      @Nonnull SimpleHttpRequest request) {
+    final CompletableFutureCallback callback = new CompletableFutureCallback();
+    InternalUtils.executeRequest(httpEngine, request, null, null, callback);
+    return callback.future;
+  }
+
+  private static HttpEngine newClient5HttpEngine(@Nonnull ByteBufferPool bufferPool) {
+    final CloseableHttpAsyncClient httpAsyncClient = HttpAsyncClients.createDefault();
+    httpAsyncClient.start();
+    return new Client5HttpEngine(httpAsyncClient, bufferPool);
+  }
+
+  private static List<HttpEngineType> availableHttpEngineTypes() {
+    final List<HttpEngineType> httpEngineTypes = new ArrayList<>();
+    httpEngineTypes.add(HttpEngineType.APACHE_HTTP_CLIENT_5);
+    if (JdkHttpEngines.isAvailable()) {
+      httpEngineTypes.add(HttpEngineType.JAVA_NET_HTTP);
+    }
+    return httpEngineTypes;
+  }
+
+  private static final class CompletableFutureCallback
+      implements FutureCallback<SimpleHttpResponse> {
+
+    final CompletableFuture<SimpleHttpResponse> future = new CompletableFuture<>();
+
+    @Override
+    public void completed(SimpleHttpResponse result) {
+      future.complete(result);
+    }
+
+    @Override
+    public void failed(Exception ex) {
+      future.completeExceptionally(ex);
+    }
+
+    @Override
+    public void cancelled() {
+      future.cancel(false);
+    }
+
+  }
+
+}
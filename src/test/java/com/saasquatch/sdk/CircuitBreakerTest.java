@@ -0,0 +1,193 @@
+package com.saasquatch.sdk;
+
+import static com.saasquatch.sdk.test.LocalTestServer.waitFor;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.saasquatch.sdk.exceptions.SaaSquatchCircuitBreakerOpenException;
+import com.saasquatch.sdk.exceptions.SaaSquatchUnhandledApiException;
+import com.saasquatch.sdk.test.LocalTestServer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CircuitBreakerTest {
+
+  private LocalTestServer server;
+  private AtomicInteger requestCount;
+  private volatile int statusCode;
+  private volatile long delayMillis;
+  private List<String> stateChanges;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    requestCount = new AtomicInteger();
+    statusCode = 200;
+    stateChanges = Collections.synchronizedList(new ArrayList<>());
+    server = LocalTestServer.start(exchange -> {
+      requestCount.incrementAndGet();
+      if (delayMillis > 0) {
+        try {
+          Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      LocalTestServer.sendJson(exchange, statusCode, "{\"id\":\"b\"}");
+    });
+  }
+
+  @AfterEach
+  public void tearDown() {
+    server.close();
+  }
+
+  @Test
+  public void testOpensOnFailuresAndRecovers() throws Exception {
+    try (SaaSquatchBlockingClient client = newClient(newPolicyBuilder().build())) {
+      statusCode = 500;
+      for (int i = 0; i < 4; i++) {
+        assertThrows(SaaSquatchUnhandledApiException.class, () -> client.getUser("a", "b", null));
+      }
+      assertEquals(Collections.singletonList("GET_USER test CLOSED OPEN"), stateChanges);
+
+      // Fails fast without sending anything
+      final SaaSquatchCircuitBreakerOpenException e = assertThrows(
+          SaaSquatchCircuitBreakerOpenException.class, () -> client.getUser("a", "b", null));
+      assertEquals("GET_USER", e.getOperation());
+      assertEquals("test", e.getTenantAlias());
+      assertEquals(4, requestCount.get());
+
+      // Other operations and tenants have their own circuit breakers
+      statusCode = 200;
+      client.validateReferralCode("code", null);
+      client.getUser("a", "b", RequestOptions.newBuilder().setTenantAlias("other").build());
+      assertEquals(6, requestCount.get());
+
+      // Trial requests close it again
+      waitFor(() -> getsThrough(client));
+      client.getUser("a", "b", null);
+      assertEquals(Arrays.asList("GET_USER test CLOSED OPEN", "GET_USER test OPEN HALF_OPEN",
+          "GET_USER test HALF_OPEN CLOSED"), stateChanges);
+    }
+  }
+
+  @Test
+  public void testFailedTrialReopens() throws Exception {
+    try (SaaSquatchBlockingClient client = newClient(newPolicyBuilder().build())) {
+      statusCode = 503;
+      for (int i = 0; i < 4; i++) {
+        assertThrows(SaaSquatchUnhandledApiException.class, () -> client.getUser("a", "b", null));
+      }
+      waitFor(() -> getsThrough(client));
+      assertThrows(SaaSquatchUnhandledApiException.class, () -> client.getUser("a", "b", null));
+      assertThrows(SaaSquatchCircuitBreakerOpenException.class,
+          () -> client.getUser("a", "b", null));
+      assertEquals(Arrays.asList("GET_USER test CLOSED OPEN", "GET_USER test OPEN HALF_OPEN",
+          "GET_USER test HALF_OPEN OPEN"), stateChanges);
+    }
+  }
+
+  @Test
+  public void testClientErrorsDontCount() throws Exception {
+    try (SaaSquatchBlockingClient client = newClient(newPolicyBuilder().build())) {
+      statusCode = 404;
+      for (int i = 0; i < 8; i++) {
+        assertThrows(SaaSquatchUnhandledApiException.class, () -> client.getUser("a", "b", null));
+      }
+      assertEquals(Collections.emptyList(), stateChanges);
+    }
+  }
+
+  @Test
+  public void testOpensOnSlowCalls() throws Exception {
+    try (SaaSquatchBlockingClient client = newClient(newPolicyBuilder()
+        .setSlowCallDuration(50, TimeUnit.MILLISECONDS).build())) {
+      delayMillis = 100;
+      for (int i = 0; i < 4; i++) {
+        client.getUser("a", "b", null);
+      }
+      assertThrows(SaaSquatchCircuitBreakerOpenException.class,
+          () -> client.getUser("a", "b", null));
+    }
+  }
+
+  @Test
+  public void testStateChangesInOrder() throws Exception {
+    final CountDownLatch opened = new CountDownLatch(1);
+    final CountDownLatch halfOpened = new CountDownLatch(1);
+    final CircuitBreakerPolicy policy = CircuitBreakerPolicy.newBuilder().setSlidingWindowSize(1)
+        .setMinimumCalls(1).setHalfOpenCalls(1).setOpenDuration(1, TimeUnit.MILLISECONDS)
+        .setStateListener((operation, tenantAlias, from, to) -> {
+          if (to == CircuitBreakerState.OPEN) {
+            // Hold up the first state change while another thread causes the next one
+            opened.countDown();
+            try {
+              halfOpened.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+          stateChanges.add(from + " " + to);
+        })
+        .build();
+    final CircuitBreaker circuitBreaker = policy.getCircuitBreaker(ApiOperation.GET_USER, "test");
+    final Thread opener = new Thread(
+        () -> circuitBreaker.onResult(circuitBreaker.tryAcquirePermission(), 0, true));
+    opener.start();
+    assertTrue(opened.await(5, TimeUnit.SECONDS));
+    waitFor(() -> circuitBreaker.tryAcquirePermission() >= 0);
+    halfOpened.countDown();
+    opener.join(5000);
+    assertEquals(Arrays.asList("CLOSED OPEN", "OPEN HALF_OPEN"), stateChanges);
+  }
+
+  @Test
+  public void testBuilderValidation() {
+    assertThrows(IllegalArgumentException.class,
+        () -> CircuitBreakerPolicy.newBuilder().setFailureRateThreshold(0));
+    assertThrows(IllegalArgumentException.class,
+        () -> CircuitBreakerPolicy.newBuilder().setSlowCallRateThreshold(101));
+    assertThrows(IllegalArgumentException.class,
+        () -> CircuitBreakerPolicy.newBuilder().setSlidingWindowSize(10).setMinimumCalls(11)
+            .build());
+    assertThrows(IllegalArgumentException.class,
+        () -> CircuitBreakerPolicy.newBuilder().setOpenDuration(0, TimeUnit.SECONDS));
+  }
+
+  private SaaSquatchBlockingClient newClient(CircuitBreakerPolicy circuitBreakerPolicy) {
+    return SaaSquatchBlockingClient.create(
+        server.newClientOptionsBuilder().setCircuitBreakerPolicy(circuitBreakerPolicy).build());
+  }
+
+  private CircuitBreakerPolicy.Builder newPolicyBuilder() {
+    return CircuitBreakerPolicy.newBuilder().setSlidingWindowSize(4).setMinimumCalls(4)
+        .setHalfOpenCalls(2).setOpenDuration(200, TimeUnit.MILLISECONDS)
+        .setStateListener((operation, tenantAlias, from, to) ->
+            stateChanges.add(operation + " " + tenantAlias + " " + from + " " + to));
+  }
+
+  /**
+   * @return whether a request got through the circuit breaker, which it doesn't until the open
+   *         duration is over
+   */
+  private static boolean getsThrough(SaaSquatchBlockingClient client) {
+    try {
+      client.getUser("a", "b", null);
+    } catch (SaaSquatchCircuitBreakerOpenException e) {
+      return false;
+    } catch (SaaSquatchUnhandledApiException e) {
+      // Got through to the failing server
+    }
+    return true;
+  }
+
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.saasquatch.sdk.auth.AuthMethod;
 import java.util.concurrent.TimeUnit;
@@ -37,8 +38,34 @@ public class ClientOptionsTest {
     assertThrows(IllegalArgumentException.class,
         () -> builder.setConnectTimeout(45, TimeUnit.SECONDS));
     assertThrows(NullPointerException.class, () -> builder.setAuthMethod(null));
-    assertThrows(IllegalArgumentException.class, () -> builder.setMaxConcurrentRequests(100));
+    assertThrows(IllegalArgumentException.class, () -> builder.setMaxConcurrentRequests(1000));
+    assertThrows(IllegalArgumentException.class,
+        () -> ClientOptions.newBuilder().setMaxConcurrentRequests(100).build());
+    assertThrows(IllegalArgumentException.class,
+        () -> ClientOptions.newBuilder().setMaxConcurrentRequests(100)
+            .setHttpProtocolPolicy(HttpProtocolPolicy.NEGOTIATE).build());
+    assertThrows(NullPointerException.class, () -> builder.setHttpProtocolPolicy(null));
+    assertThrows(IllegalArgumentException.class,
+        () -> builder.setConnectionTimeToLive(0, TimeUnit.SECONDS));
+    assertThrows(NullPointerException.class, () -> builder.setConnectionTimeToLive(1, null));
+    assertThrows(IllegalArgumentException.class,
+        () -> builder.setValidateAfterInactivity(-1, TimeUnit.SECONDS));
+    assertThrows(IllegalArgumentException.class,
+        () -> builder.setKeepAliveTimeout(0, TimeUnit.MILLISECONDS));
+    assertThrows(IllegalArgumentException.class, () -> builder.setPrewarmConnections(-1));
+    assertThrows(IllegalArgumentException.class, () -> builder.setIoThreadCount(0));
+    assertThrows(IllegalArgumentException.class, () -> builder.setIoThreadCount(1000));
+    assertThrows(IllegalArgumentException.class,
+        () -> builder.setSocketTimeout(0, TimeUnit.SECONDS));
+    assertThrows(IllegalArgumentException.class, () -> builder.setSocketSendBufferSize(0));
+    assertThrows(IllegalArgumentException.class,
+        () -> builder.setSocketReceiveBufferSize(Integer.MAX_VALUE));
+    assertThrows(NullPointerException.class, () -> builder.setSelectInterval(1, null));
     assertThrows(IllegalArgumentException.class, () -> builder.setMaxConcurrentRequests(0));
+    assertThrows(IllegalArgumentException.class, () -> builder.setRequestCompressionThreshold(-1));
+    assertThrows(IllegalArgumentException.class, () -> builder.setBufferPoolMaxBytes(-1));
+    assertThrows(IllegalArgumentException.class,
+        () -> builder.setBufferPoolMaxBytes(Integer.MAX_VALUE));
     assertThrows(IllegalArgumentException.class,
         () -> ClientOptions.newBuilder().setAuthMethod(AuthMethod.ofTenantApiKey("foo")).build());
   }
@@ -49,7 +76,9 @@ public class ClientOptionsTest {
         ClientOptions.newBuilder().setAppDomain("www.example.com").setTenantAlias("aaaaaaaaaaaaa")
             .setAuthMethod(AuthMethod.ofTenantApiKey("dasfjklagrhwejklhfjk"))
             .setConnectTimeout(500, TimeUnit.MILLISECONDS).setRequestTimeout(5, TimeUnit.SECONDS)
-            .setMaxConcurrentRequests(10).setContentCompressionEnabled(false).build();
+            .setMaxConcurrentRequests(10).setContentCompressionEnabled(false)
+            .setEagerResponseParsingEnabled(true).setRequestCompressionThreshold(1024)
+            .setBufferPoolMaxBytes(4096).setDirectBuffersEnabled(false).build();
     assertEquals("www.example.com", clientOptions.getAppDomain());
     assertEquals("aaaaaaaaaaaaa", clientOptions.getTenantAlias());
     assertNotNull(clientOptions.getAuthMethod());
@@ -57,6 +86,61 @@ public class ClientOptionsTest {
     assertEquals(5000, clientOptions.getRequestTimeoutMillis());
     assertEquals(10, clientOptions.getMaxConcurrentRequests());
     assertFalse(clientOptions.isContentCompressionEnabled());
+    assertTrue(clientOptions.isEagerResponseParsingEnabled());
+    assertFalse(ClientOptions.newBuilder().build().isEagerResponseParsingEnabled());
+    assertEquals(1024, clientOptions.getRequestCompressionThreshold());
+    assertEquals(-1, ClientOptions.newBuilder().build().getRequestCompressionThreshold());
+    assertEquals(4096, clientOptions.getBufferPoolMaxBytes());
+    assertFalse(clientOptions.isDirectBuffersEnabled());
+    assertFalse(ClientOptions.newBuilder().build().isDirectBuffersEnabled());
+    assertEquals(HttpProtocolPolicy.HTTP_1_1,
+        ClientOptions.newBuilder().build().getHttpProtocolPolicy());
+    assertFalse(ClientOptions.newBuilder().build().isAdaptiveConcurrencyEnabled());
+    assertEquals(-1, ClientOptions.newBuilder().build().getConnectionTimeToLiveMillis());
+    assertEquals(2000, ClientOptions.newBuilder().build().getValidateAfterInactivityMillis());
+    assertEquals(30000, ClientOptions.newBuilder().build().getKeepAliveTimeoutMillis());
+    assertTrue(ClientOptions.newBuilder().setAdaptiveConcurrencyEnabled(true).build()
+        .isAdaptiveConcurrencyEnabled());
+  }
+
+  @Test
+  public void testConnectionPool() {
+    final ClientOptions clientOptions = ClientOptions.newBuilder()
+        .setConnectionTimeToLive(5, TimeUnit.MINUTES)
+        .setValidateAfterInactivity(500, TimeUnit.MILLISECONDS)
+        .setKeepAliveTimeout(10, TimeUnit.SECONDS).build();
+    assertEquals(300000, clientOptions.getConnectionTimeToLiveMillis());
+    assertEquals(500, clientOptions.getValidateAfterInactivityMillis());
+    assertEquals(10000, clientOptions.getKeepAliveTimeoutMillis());
+    assertEquals(0, ClientOptions.newBuilder().build().getPrewarmConnections());
+    assertEquals(2, ClientOptions.newBuilder().setPrewarmConnections(2).build()
+        .getPrewarmConnections());
+  }
+
+  @Test
+  public void testIoReactor() {
+    final ClientOptions defaults = ClientOptions.newBuilder().build();
+    assertEquals(0, defaults.getIoThreadCount());
+    assertEquals(0, defaults.getSocketTimeoutMillis());
+    assertTrue(defaults.isTcpNoDelayEnabled());
+    final ClientOptions clientOptions = ClientOptions.newBuilder().setIoThreadCount(2)
+        .setSocketTimeout(30, TimeUnit.SECONDS).setTcpNoDelayEnabled(false)
+        .setSocketSendBufferSize(65536).setSocketReceiveBufferSize(131072)
+        .setSelectInterval(100, TimeUnit.MILLISECONDS).build();
+    assertEquals(2, clientOptions.getIoThreadCount());
+    assertEquals(30000, clientOptions.getSocketTimeoutMillis());
+    assertFalse(clientOptions.isTcpNoDelayEnabled());
+    assertEquals(65536, clientOptions.getSocketSendBufferSize());
+    assertEquals(131072, clientOptions.getSocketReceiveBufferSize());
+    assertEquals(100, clientOptions.getSelectIntervalMillis());
+  }
+
+  @Test
+  public void testHttp2() {
+    final ClientOptions clientOptions = ClientOptions.newBuilder().setMaxConcurrentRequests(200)
+        .setHttpProtocolPolicy(HttpProtocolPolicy.HTTP_2).build();
+    assertEquals(200, clientOptions.getMaxConcurrentRequests());
+    assertEquals(HttpProtocolPolicy.HTTP_2, clientOptions.getHttpProtocolPolicy());
   }
 
 }
@@ -3,15 +3,33 @@ package com.saasquatch.sdk;
 import static com.saasquatch.sdk.internal.json.GsonUtils.gson;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonWriter;
 import com.saasquatch.sdk.internal.json.GsonIgnore;
 import com.saasquatch.sdk.internal.json.GsonSerializeNull;
+import com.saasquatch.sdk.models.User;
+import com.saasquatch.sdk.models.UserEventResult;
+import com.saasquatch.sdk.models.WidgetUpsertResult;
+import com.saasquatch.sdk.output.ApiError;
+import com.saasquatch.sdk.output.GraphQLResult;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
@@ -69,6 +87,60 @@ public class GsonUtilsTest {
       assertEquals("{\"s2\":null,\"m2\":null,\"l2\":null}",
           gson.toJson(new NullAnnotationTestDto(null, null, null, null, null, null)));
     }
+    {
+      assertEquals("{\"s2\":null,\"m2\":null,\"l2\":null}",
+          gson.toJsonTree(new NullAnnotationTestDto(null, null, null, null, null, null))
+              .toString());
+      assertEquals("null", gson.toJson(null, NullAnnotationTestDto.class));
+      assertEquals("[{\"s2\":null,\"m2\":null,\"l2\":null},null]", gson.toJson(Arrays.asList(
+          new NullAnnotationTestDto(null, null, null, null, null, null), null)));
+    }
+  }
+
+  @Test
+  public void testNestedSerializeNullAnnotation() {
+    // Nested types filter their own nulls, whether they are a field or inside a Map
+    final NestedNullAnnotationTestDto inner = new NestedNullAnnotationTestDto(null, null, null);
+    final Map<String, Object> m = new LinkedHashMap<>();
+    m.put("inner", inner);
+    m.put("null", null);
+    assertEquals("{\"keep\":null,\"inner\":{\"keep\":null},"
+            + "\"m\":{\"inner\":{\"keep\":null},\"null\":null}}",
+        gson.toJson(new NestedNullAnnotationTestDto(null, inner, m)));
+    assertEquals("{\"keep\":\"a\",\"inner\":{\"keep\":null}}",
+        gson.toJson(new NestedNullAnnotationTestDto("a", inner, null)));
+  }
+
+  @Test
+  public void testNullFilteringJsonWriterOverridesAllWritingMethods() throws Exception {
+    final Class<?> nullFilteringJsonWriterClass = Class.forName(
+        "com.saasquatch.sdk.internal.json.GsonSerializeNullTypeAdapterFactory"
+            + "$NullFilteringJsonWriter");
+    for (Method method : JsonWriter.class.getMethods()) {
+      if (method.getDeclaringClass() != JsonWriter.class
+          || Modifier.isFinal(method.getModifiers())) {
+        continue;
+      }
+      assertEquals(nullFilteringJsonWriterClass, nullFilteringJsonWriterClass
+          .getMethod(method.getName(), method.getParameterTypes()).getDeclaringClass(),
+          method::toString);
+    }
+  }
+
+  static class NestedNullAnnotationTestDto {
+
+    @GsonSerializeNull
+    public final String keep;
+    public final NestedNullAnnotationTestDto inner;
+    public final Map<String, Object> m;
+
+    NestedNullAnnotationTestDto(String keep, NestedNullAnnotationTestDto inner,
+        Map<String, Object> m) {
+      this.keep = keep;
+      this.inner = inner;
+      this.m = m;
+    }
+
   }
 
   static class NullAnnotationTestDto {
@@ -115,4 +187,47 @@ public class GsonUtilsTest {
 
   }
 
+  @Test
+  public void testModelTypeAdaptersMatchReflection() {
+    final Gson reflectiveGson = new GsonBuilder()
+        .registerTypeAdapter(Date.class,
+            (JsonDeserializer<Date>) (json, typeOfT, context) -> new Date(json.getAsLong()))
+        .registerTypeAdapter(Date.class,
+            (JsonSerializer<Date>) (src, typeOfSrc, context) -> new JsonPrimitive(src.getTime()))
+        .create();
+    final String userJson = "{\"id\":\"b\",\"accountId\":\"a\",\"firstName\":null,"
+        + "\"referralCodes\":{\"p\":\"CODE\"},\"referable\":true,\"dateCreated\":123,"
+        + "\"dateBlocked\":\"456\",\"referredByCodes\":[\"X\",\"Y\"],\"unknown\":{\"a\":[1]},"
+        + "\"customFields\":{\"n\":1,\"l\":[true,null],\"m\":{\"a\":\"b\"}},\"segments\":[]}";
+    final String userEventResultJson = "{\"accountId\":\"a\",\"userId\":\"b\",\"events\":["
+        + "{\"id\":\"e\",\"key\":\"k\",\"fields\":{\"f\":1.5},\"dateTriggered\":1,"
+        + "\"dateReceived\":2,\"dateProcessed\":null}]}";
+    final String widgetUpsertResultJson = "{\"template\":\"<html></html>\",\"jsOptions\":{},"
+        + "\"user\":" + userJson + "}";
+    final String apiErrorJson = "{\"message\":\"m\",\"apiErrorCode\":\"C\",\"statusCode\":400,"
+        + "\"rsCode\":\"R\"}";
+    final String graphQLResultJson = "{\"data\":{\"a\":{\"b\":1}},\"errors\":[{\"message\":"
+        + "\"m\"}],\"extensions\":{\"apiError\":{\"message\":\"m\"}}}";
+    final Map<String, Class<?>> cases = ImmutableMap.<String, Class<?>>builder()
+        .put(userJson, User.class)
+        .put(userEventResultJson, UserEventResult.class)
+        .put(widgetUpsertResultJson, WidgetUpsertResult.class)
+        .put(apiErrorJson, ApiError.class)
+        .put(graphQLResultJson, GraphQLResult.class)
+        .build();
+    for (Map.Entry<String, Class<?>> e : cases.entrySet()) {
+      final Object streamed = gson.fromJson(e.getKey(), e.getValue());
+      final Object reflected = reflectiveGson.fromJson(e.getKey(), e.getValue());
+      assertEquals(reflectiveGson.toJson(reflected), reflectiveGson.toJson(streamed));
+      assertEquals(reflectiveGson.toJson(reflected), gson.toJson(reflected));
+      assertEquals(reflectiveGson.toJsonTree(reflected), gson.toJsonTree(streamed));
+      assertNull(gson.fromJson("null", e.getValue()));
+    }
+    final User user = gson.fromJson(userJson, User.class);
+    assertEquals(new Date(456), user.getDateBlocked());
+    assertEquals(ImmutableSet.of("X", "Y"), user.getReferredByCodes());
+    assertEquals(1.0, user.getCustomFields().get("n"));
+    assertThrows(JsonSyntaxException.class, () -> gson.fromJson("[]", User.class));
+  }
+
 }
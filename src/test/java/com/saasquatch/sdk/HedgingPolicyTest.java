@@ -0,0 +1,168 @@
+package com.saasquatch.sdk;
+
+import static com.saasquatch.sdk.test.LocalTestServer.waitFor;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.saasquatch.sdk.exceptions.SaaSquatchIOException;
+import com.saasquatch.sdk.internal.LatencyPercentileTracker;
+import com.saasquatch.sdk.test.LocalTestServer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class HedgingPolicyTest {
+
+  private LocalTestServer server;
+  private CountDownLatch slowRequestRelease;
+  private CountDownLatch secondRequestReceived;
+  private AtomicInteger requestCount;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    slowRequestRelease = new CountDownLatch(1);
+    secondRequestReceived = new CountDownLatch(2);
+    requestCount = new AtomicInteger();
+    server = LocalTestServer.start(exchange -> {
+      secondRequestReceived.countDown();
+      // Every other request is slow, starting with the first one
+      if (requestCount.getAndIncrement() % 2 == 0) {
+        try {
+          slowRequestRelease.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      LocalTestServer.sendJson(exchange, 200, "{\"id\":\"b\"}");
+    });
+  }
+
+  @AfterEach
+  public void tearDown() {
+    slowRequestRelease.countDown();
+    server.close();
+  }
+
+  @Test
+  public void testHedgeWins() throws Exception {
+    final HedgingPolicy hedgingPolicy =
+        HedgingPolicy.newBuilder().setDelay(50, TimeUnit.MILLISECONDS).build();
+    try (SaaSquatchBlockingClient client = SaaSquatchBlockingClient.create(
+        server.newClientOptionsBuilder().setHedgingPolicy(hedgingPolicy).build())) {
+      final long startNanos = System.nanoTime();
+      assertEquals("b", client.getUser("a", "b", null).getData().get("id"));
+      assertTrue(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(5));
+      assertEquals(2, requestCount.get());
+      // The slow attempt is cancelled
+      waitFor(() -> client.getInFlightRequestCount() == 0);
+    }
+  }
+
+  @Test
+  public void testWritesAreNotHedged() throws Exception {
+    final HedgingPolicy hedgingPolicy =
+        HedgingPolicy.newBuilder().setDelay(50, TimeUnit.MILLISECONDS).build();
+    try (AsyncSaaSquatchClient client = AsyncSaaSquatchClient.create(
+        server.newClientOptionsBuilder().setHedgingPolicy(hedgingPolicy).build())) {
+      final CompletableFuture<?> blockUser =
+          client.blockUser("a", "b", null).toCompletableFuture();
+      // A hedge would have been sent after 50 milliseconds
+      assertFalse(secondRequestReceived.await(500, TimeUnit.MILLISECONDS));
+      slowRequestRelease.countDown();
+      blockUser.get(5, TimeUnit.SECONDS);
+      assertEquals(1, requestCount.get());
+    }
+  }
+
+  @Test
+  public void testHedgingBudget() throws Exception {
+    final HedgingPolicy hedgingPolicy = HedgingPolicy.newBuilder()
+        .setDelay(50, TimeUnit.MILLISECONDS).setHedgingBudget(0, 1).build();
+    try (SaaSquatchBlockingClient client = SaaSquatchBlockingClient.create(
+        server.newClientOptionsBuilder().setHedgingPolicy(hedgingPolicy).build())) {
+      client.getUser("a", "b", null);
+      assertEquals(2, requestCount.get());
+      // The only token is gone, so the next slow request just waits
+      assertThrows(SaaSquatchIOException.class, () -> client.getUser("a", "b",
+          RequestOptions.newBuilder().setDeadlineEpochMillis(System.currentTimeMillis() + 500)
+              .build()));
+      assertEquals(3, requestCount.get());
+    }
+  }
+
+  @Test
+  public void testLatencyPercentileUnderHedging() throws Exception {
+    final HedgingPolicy hedgingPolicy = HedgingPolicy.newBuilder().setLatencyPercentile(50)
+        .setHedgingBudget(1, 100).build();
+    for (int i = 0; i < HedgingPolicy.LATENCY_MIN_SAMPLES; i++) {
+      hedgingPolicy.recordLatency(ApiOperation.GET_USER, 100);
+    }
+    final long delayMillis = hedgingPolicy.getHedgingDelayMillis(ApiOperation.GET_USER);
+    assertTrue(delayMillis >= 100, () -> Long.toString(delayMillis));
+    try (SaaSquatchBlockingClient client = SaaSquatchBlockingClient.create(
+        server.newClientOptionsBuilder().setHedgingPolicy(hedgingPolicy).build())) {
+      // Every call is won by a fast hedge, which still took the hedging delay to answer
+      for (int i = 0; i < 32; i++) {
+        client.getUser("a", "b", null);
+      }
+    }
+    assertEquals(64, requestCount.get());
+    final long hedgedDelayMillis = hedgingPolicy.getHedgingDelayMillis(ApiOperation.GET_USER);
+    assertTrue(hedgedDelayMillis >= delayMillis, () -> Long.toString(hedgedDelayMillis));
+  }
+
+  @Test
+  public void testHedgingDelayFloor() {
+    final HedgingPolicy percentileOnly =
+        HedgingPolicy.newBuilder().setLatencyPercentile(95).build();
+    assertEquals(-1, percentileOnly.getHedgingDelayMillis(ApiOperation.GET_USER));
+    final HedgingPolicy withDelay = HedgingPolicy.newBuilder().setLatencyPercentile(95)
+        .setDelay(50, TimeUnit.MILLISECONDS).build();
+    assertEquals(50, withDelay.getHedgingDelayMillis(ApiOperation.GET_USER));
+    for (int i = 0; i < HedgingPolicy.LATENCY_MIN_SAMPLES; i++) {
+      percentileOnly.recordLatency(ApiOperation.GET_USER, 0);
+      withDelay.recordLatency(ApiOperation.GET_USER, 0);
+    }
+    assertEquals(1, percentileOnly.getHedgingDelayMillis(ApiOperation.GET_USER));
+    assertEquals(50, withDelay.getHedgingDelayMillis(ApiOperation.GET_USER));
+    // Writes are never hedged
+    assertEquals(-1, percentileOnly.getHedgingDelayMillis(ApiOperation.BLOCK_USER));
+  }
+
+  @Test
+  public void testLatencyPercentile() {
+    final LatencyPercentileTracker tracker = new LatencyPercentileTracker(95, 1000, 20);
+    for (int i = 1; i < 20; i++) {
+      tracker.record(i);
+    }
+    assertEquals(-1, tracker.getPercentileMillis());
+    for (int i = 20; i <= 1000; i++) {
+      tracker.record(i);
+    }
+    final long p95 = tracker.getPercentileMillis();
+    assertTrue(p95 >= 950 && p95 <= 950 * 1.125, () -> Long.toString(p95));
+    // Old latencies age out after two windows
+    for (int i = 0; i < 2000; i++) {
+      tracker.record(5);
+    }
+    assertEquals(5, tracker.getPercentileMillis());
+  }
+
+  @Test
+  public void testBuilderValidation() {
+    assertThrows(IllegalArgumentException.class, () -> HedgingPolicy.newBuilder().build());
+    assertThrows(IllegalArgumentException.class,
+        () -> HedgingPolicy.newBuilder().setLatencyPercentile(100));
+    assertThrows(IllegalArgumentException.class,
+        () -> HedgingPolicy.newBuilder().setDelay(0, TimeUnit.MILLISECONDS));
+    assertThrows(IllegalArgumentException.class,
+        () -> new LatencyPercentileTracker(95, 10, 20));
+  }
+
+}
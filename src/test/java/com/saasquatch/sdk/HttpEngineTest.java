@@ -0,0 +1,143 @@
+package com.saasquatch.sdk;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.google.gson.Gson;
+import com.saasquatch.sdk.internal.ByteBufferPool;
+import com.saasquatch.sdk.internal.Client5HttpEngine;
+import com.saasquatch.sdk.internal.HttpEngine;
+import com.saasquatch.sdk.internal.InternalUtils;
+import com.saasquatch.sdk.internal.JdkHttpEngines;
+import com.saasquatch.sdk.internal.JsonEntityProducer;
+import com.saasquatch.sdk.test.LocalTestServer;
+import io.reactivex.rxjava3.core.Flowable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.junit.jupiter.api.Test;
+
+public class HttpEngineTest {
+
+  private static final ByteBufferPool BUFFER_POOL = new ByteBufferPool(1024, 64 * 1024, false);
+
+  @Test
+  public void testJdkHttpEngineUnavailable() {
+    assumeFalse(JdkHttpEngines.isAvailable());
+    assertThrows(UnsupportedOperationException.class, () -> SaaSquatchClient.create(
+        ClientOptions.newBuilder().setHttpEngineType(HttpEngineType.JAVA_NET_HTTP).build()));
+  }
+
+  @Test
+  public void testJdkHttpEngineClient() throws Exception {
+    assumeTrue(JdkHttpEngines.isAvailable());
+    final AtomicReference<String> userAgent = new AtomicReference<>();
+    final LocalTestServer server = LocalTestServer.start(exchange -> {
+      userAgent.set(exchange.getRequestHeaders().getFirst("User-Agent"));
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+    });
+    try (SaaSquatchClient client = SaaSquatchClient.create(server.newClientOptionsBuilder()
+        .setHttpEngineType(HttpEngineType.JAVA_NET_HTTP).build())) {
+      Flowable.fromPublisher(client.warmUp(1)).ignoreElements().blockingAwait();
+      assertTrue(userAgent.get().startsWith("SaaSquatch SDK"), userAgent::get);
+    } finally {
+      server.close();
+    }
+  }
+
+  @Test
+  public void testEngines() throws Exception {
+    final AtomicReference<String> requestBody = new AtomicReference<>();
+    final AtomicReference<String> requestHeader = new AtomicReference<>();
+    final LocalTestServer server = LocalTestServer.start(exchange -> {
+      if (exchange.getRequestURI().getPath().equals("/slow")) {
+        try {
+          Thread.sleep(2000);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        exchange.sendResponseHeaders(204, -1);
+        exchange.close();
+        return;
+      }
+      requestHeader.set(exchange.getRequestHeaders().getFirst("X-Foo"));
+      try (InputStream in = "gzip".equals(
+          exchange.getRequestHeaders().getFirst("Content-Encoding"))
+          ? new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody()) {
+        requestBody.set(new String(InternalUtils.toByteArray(in), UTF_8));
+      }
+      final ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+      try (OutputStream gzipOut = new GZIPOutputStream(gzipped)) {
+        gzipOut.write(requestBody.get().getBytes(UTF_8));
+      }
+      exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+      exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+      exchange.sendResponseHeaders(201, gzipped.size());
+      try (OutputStream out = exchange.getResponseBody()) {
+        gzipped.writeTo(out);
+      }
+    });
+    final String baseUrl = server.getBaseUrl();
+    final List<HttpEngine> httpEngines = new ArrayList<>();
+    final CloseableHttpAsyncClient httpAsyncClient = HttpAsyncClients.createDefault();
+    httpAsyncClient.start();
+    httpEngines.add(new Client5HttpEngine(httpAsyncClient, BUFFER_POOL));
+    if (JdkHttpEngines.isAvailable()) {
+      httpEngines.add(JdkHttpEngines.create(5000, false, "test"));
+    }
+    try {
+      for (HttpEngine httpEngine : httpEngines) {
+        final SimpleHttpRequest echoRequest = SimpleRequestBuilder.post(baseUrl + "/echo")
+            .addHeader("X-Foo", "bar").build();
+        final SimpleHttpResponse response = Flowable.fromPublisher(InternalUtils.executeRequest(
+            httpEngine, echoRequest, () -> JsonEntityProducer.create(new Gson(),
+                Collections.singletonMap("a", "b"), BUFFER_POOL, 0), null)).blockingSingle();
+        assertEquals(201, response.getCode());
+        assertEquals("bar", requestHeader.get());
+        assertEquals("{\"a\":\"b\"}", requestBody.get());
+        assertEquals("{\"a\":\"b\"}", InternalUtils.getBodyText(response));
+
+        final SimpleHttpRequest slowRequest = SimpleRequestBuilder.get(baseUrl + "/slow")
+            .setRequestConfig(RequestConfig.custom()
+                .setResponseTimeout(200, TimeUnit.MILLISECONDS).build())
+            .build();
+        final Throwable timeout = assertThrows(Throwable.class,
+            () -> Flowable.fromPublisher(
+                InternalUtils.executeRequest(httpEngine, slowRequest, null, null))
+                .blockingSingle());
+        assertTrue(InterruptedIOException.class.isInstance(timeout)
+            || InterruptedIOException.class.isInstance(timeout.getCause()), timeout::toString);
+      }
+    } finally {
+      for (HttpEngine httpEngine : httpEngines) {
+        try {
+          httpEngine.close();
+        } catch (IOException e) {
+          // ignore
+        }
+      }
+      server.close();
+    }
+  }
+
+}
@@ -0,0 +1,244 @@
+package com.saasquatch.sdk;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.saasquatch.sdk.http.Client5SaaSquatchHttpResponse;
+import com.saasquatch.sdk.internal.ByteBufferPool;
+import com.saasquatch.sdk.internal.InflatingResponseConsumer;
+import com.saasquatch.sdk.internal.InternalUtils;
+import com.saasquatch.sdk.test.LocalTestServer;
+import io.reactivex.rxjava3.core.Flowable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Test;
+
+public class InflatingResponseConsumerTest {
+
+  private static final ByteBufferPool BUFFER_POOL = new ByteBufferPool(1024, 64 * 1024, true);
+  private static final byte[] BODY;
+  static {
+    final StringBuilder sb = new StringBuilder("{");
+    for (int i = 0; i < 2000; i++) {
+      sb.append("\"field").append(i).append("\":\"value é中 ").append(i).append("\",");
+    }
+    BODY = sb.append("\"end\":true}").toString().getBytes(UTF_8);
+  }
+
+  @Test
+  public void testPlain() throws Exception {
+    for (long contentLength : new long[]{-1, BODY.length}) {
+      assertArrayEquals(BODY, consume(BODY, null, contentLength, 1000).getBodyBytes());
+    }
+  }
+
+  @Test
+  public void testPlainHugeContentLength() throws Exception {
+    // Should not allocate the whole Content-Length up front
+    assertArrayEquals(BODY, consume(BODY, null, Integer.MAX_VALUE, 1000).getBodyBytes());
+  }
+
+  @Test
+  public void testPlainLongerThanContentLength() {
+    assertThrows(IOException.class, () -> consume(BODY, null, 10, 1000));
+  }
+
+  @Test
+  public void testGzip() throws Exception {
+    final byte[] gzipped = gzip(BODY);
+    for (int chunkSize : new int[]{1, 7, 8192, gzipped.length}) {
+      final SimpleHttpResponse response = consume(gzipped, "gzip", gzipped.length, chunkSize);
+      assertArrayEquals(BODY, response.getBodyBytes());
+      assertNull(response.getFirstHeader("Content-Encoding"));
+      assertNull(response.getFirstHeader("Content-Length"));
+      assertEquals("bar", response.getFirstHeader("X-Foo").getValue());
+      assertEquals(new String(BODY, UTF_8), InternalUtils.getBodyText(response));
+      assertEquals(new String(BODY, UTF_8),
+          new Client5SaaSquatchHttpResponse(response).getBodyText());
+    }
+    // Empty gzipped body
+    assertEquals(0, consume(new byte[0], "gzip", 0, 1).getBodyBytes().length);
+  }
+
+  @Test
+  public void testGzipOptionalHeaderFields() throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    // FHCRC | FEXTRA | FNAME | FCOMMENT
+    out.write(new byte[]{0x1f, (byte) 0x8b, 8, 2 | 4 | 8 | 16, 0, 0, 0, 0, 0, 0});
+    out.write(new byte[]{3, 0, 'a', 'b', 'c'});
+    out.write("name.json\0".getBytes(UTF_8));
+    out.write("comment\0".getBytes(UTF_8));
+    out.write(new byte[]{0, 0});
+    final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    deflater.setInput(BODY);
+    deflater.finish();
+    final byte[] buf = new byte[1024];
+    while (!deflater.finished()) {
+      out.write(buf, 0, deflater.deflate(buf));
+    }
+    deflater.end();
+    final CRC32 crc = new CRC32();
+    crc.update(BODY);
+    writeIntLE(out, (int) crc.getValue());
+    writeIntLE(out, BODY.length);
+    // Concatenated member
+    out.write(gzip("!".getBytes(UTF_8)));
+    final byte[] expected = (new String(BODY, UTF_8) + "!").getBytes(UTF_8);
+    for (int chunkSize : new int[]{1, 13, 100000}) {
+      assertArrayEquals(expected, consume(out.toByteArray(), "gzip", -1, chunkSize).getBodyBytes());
+    }
+  }
+
+  @Test
+  public void testCorruptGzip() throws Exception {
+    final byte[] gzipped = gzip(BODY);
+    assertThrows(ZipException.class,
+        () -> consume(Arrays.copyOf(gzipped, gzipped.length - 3), "gzip", -1, 100));
+    final byte[] badCrc = gzipped.clone();
+    badCrc[badCrc.length - 8] ^= 1;
+    assertThrows(ZipException.class, () -> consume(badCrc, "gzip", -1, 100));
+    assertThrows(ZipException.class, () -> consume(BODY, "gzip", -1, 100));
+  }
+
+  @Test
+  public void testExecuteRequest() throws Exception {
+    final byte[] gzipped = gzip(BODY);
+    final LocalTestServer server = LocalTestServer.start(exchange -> {
+      exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+      exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+      exchange.sendResponseHeaders(200, gzipped.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(gzipped);
+      }
+    });
+    try (CloseableHttpAsyncClient httpAsyncClient = HttpAsyncClients.createDefault()) {
+      httpAsyncClient.start();
+      final SimpleHttpResponse response = Flowable.fromPublisher(InternalUtils.executeRequest(
+          httpAsyncClient, SimpleRequestBuilder
+              .get(server.getBaseUrl() + "/").build()))
+          .blockingSingle();
+      assertNull(response.getFirstHeader("Content-Encoding"));
+      assertArrayEquals(BODY, response.getBodyBytes());
+      assertArrayEquals(BODY, InternalUtils.getBodyBytes(response));
+    } finally {
+      server.close();
+    }
+  }
+
+  private static SimpleHttpResponse consume(byte[] body, String contentEncoding,
+      long contentLength, int chunkSize) throws Exception {
+    final InflatingResponseConsumer consumer = new InflatingResponseConsumer(BUFFER_POOL);
+    final BasicHttpResponse httpResponse = new BasicHttpResponse(200);
+    httpResponse.addHeader("X-Foo", "bar");
+    if (contentEncoding != null) {
+      httpResponse.addHeader("Content-Encoding", contentEncoding);
+    }
+    httpResponse.addHeader("Content-Length", Integer.toString(body.length));
+    final AtomicReference<SimpleHttpResponse> result = new AtomicReference<>();
+    final AtomicReference<Exception> error = new AtomicReference<>();
+    consumer.consumeResponse(httpResponse, new TestEntityDetails(contentEncoding,
+        contentLength), null, new FutureCallback<SimpleHttpResponse>() {
+      @Override
+      public void completed(SimpleHttpResponse response) {
+        result.set(response);
+      }
+
+      @Override
+      public void failed(Exception ex) {
+        error.set(ex);
+      }
+
+      @Override
+      public void cancelled() {}
+    });
+    try {
+      for (int i = 0; i < body.length; i += chunkSize) {
+        final ByteBuffer chunk = ByteBuffer.allocateDirect(Math.min(chunkSize, body.length - i));
+        chunk.put(body, i, chunk.capacity()).flip();
+        consumer.consume(chunk);
+      }
+      consumer.streamEnd(null);
+    } catch (IOException e) {
+      consumer.failed(e);
+      throw e;
+    } finally {
+      consumer.releaseResources();
+    }
+    assertNull(error.get());
+    return result.get();
+  }
+
+  private static byte[] gzip(byte[] bytes) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+      gzipOut.write(bytes);
+    }
+    return out.toByteArray();
+  }
+
+  private static void writeIntLE(ByteArrayOutputStream out, int v) {
+    out.write(v);
+    out.write(v >> 8);
+    out.write(v >> 16);
+    out.write(v >> 24);
+  }
+
+  private static final class TestEntityDetails implements EntityDetails {
+
+    private final String contentEncoding;
+    private final long contentLength;
+
+    TestEntityDetails(String contentEncoding, long contentLength) {
+      this.contentEncoding = contentEncoding;
+      this.contentLength = contentLength;
+    }
+
+    @Override
+    public long getContentLength() {
+      return contentLength;
+    }
+
+    @Override
+    public String getContentType() {
+      return ContentType.APPLICATION_JSON.toString();
+    }
+
+    @Override
+    public String getContentEncoding() {
+      return contentEncoding;
+    }
+
+    @Override
+    public boolean isChunked() {
+      return contentLength < 0;
+    }
+
+    @Override
+    public Set<String> getTrailerNames() {
+      return Collections.emptySet();
+    }
+
+  }
+
+}
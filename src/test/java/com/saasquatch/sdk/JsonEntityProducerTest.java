@@ -0,0 +1,195 @@
+package com.saasquatch.sdk;
+
+import static com.saasquatch.sdk.internal.json.GsonUtils.gson;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import com.saasquatch.sdk.internal.ByteBufferPool;
+import com.saasquatch.sdk.internal.InternalUtils;
+import com.saasquatch.sdk.internal.JsonEntityProducer;
+import com.saasquatch.sdk.test.LocalTestServer;
+import io.reactivex.rxjava3.core.Flowable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.junit.jupiter.api.Test;
+
+public class JsonEntityProducerTest {
+
+  @Test
+  public void testProduce() throws Exception {
+    final ByteBufferPool bufferPool = new ByteBufferPool(16, 1024, true);
+    final Map<String, Object> body = new HashMap<>();
+    for (int i = 0; i < 20; i++) {
+      body.put("field" + i, "value é中 " + i);
+    }
+    final byte[] expected = gson.toJson(body).getBytes(UTF_8);
+    final JsonEntityProducer entityProducer = JsonEntityProducer.create(gson, body, bufferPool);
+    assertEquals(expected.length, entityProducer.getContentLength());
+    assertEquals(expected.length, entityProducer.available());
+    assertTrue(entityProducer.isRepeatable());
+    assertEquals("application/json; charset=UTF-8", entityProducer.getContentType());
+    for (int i = 0; i < 2; i++) {
+      final ChunkyDataStreamChannel channel = new ChunkyDataStreamChannel(5);
+      while (!channel.ended) {
+        entityProducer.produce(channel);
+      }
+      assertEquals(new String(expected, UTF_8), new String(channel.out.toByteArray(), UTF_8));
+      assertEquals(0, entityProducer.available());
+      // Repeatable
+      entityProducer.releaseResources();
+    }
+    entityProducer.recycle();
+    entityProducer.recycle();
+    final ByteBuffer pooled = bufferPool.acquire();
+    assertEquals(0, pooled.position());
+    assertEquals(16, pooled.limit());
+  }
+
+  @Test
+  public void testGzip() throws Exception {
+    final ByteBufferPool bufferPool = new ByteBufferPool(16, 1024, true);
+    final Map<String, Object> body = new HashMap<>();
+    for (int i = 0; i < 200; i++) {
+      body.put("field" + i, "value é中 " + i);
+    }
+    final String json = gson.toJson(body);
+    final int jsonLength = json.getBytes(UTF_8).length;
+    {
+      final JsonEntityProducer entityProducer =
+          JsonEntityProducer.create(gson, body, bufferPool, jsonLength);
+      assertNull(entityProducer.getContentEncoding());
+      assertEquals(jsonLength, entityProducer.getContentLength());
+      entityProducer.recycle();
+    }
+    for (int threshold : new int[]{0, 100, jsonLength - 1}) {
+      final JsonEntityProducer entityProducer =
+          JsonEntityProducer.create(gson, body, bufferPool, threshold);
+      assertEquals("gzip", entityProducer.getContentEncoding());
+      assertTrue(entityProducer.getContentLength() < jsonLength);
+      final ChunkyDataStreamChannel channel = new ChunkyDataStreamChannel(7);
+      while (!channel.ended) {
+        entityProducer.produce(channel);
+      }
+      assertEquals(entityProducer.getContentLength(), channel.out.size());
+      assertEquals(json, gunzip(channel.out.toByteArray()));
+      entityProducer.recycle();
+    }
+  }
+
+  @Test
+  public void testExecuteRequest() throws Exception {
+    final LocalTestServer server = LocalTestServer.start(exchange -> {
+      final ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+      try (InputStream in = exchange.getRequestBody()) {
+        final byte[] buf = new byte[1024];
+        int n;
+        while ((n = in.read(buf)) >= 0) {
+          requestBody.write(buf, 0, n);
+        }
+      }
+      final List<String> contentType = exchange.getRequestHeaders().get("Content-Type");
+      exchange.getResponseHeaders().put("Content-Type", contentType);
+      final List<String> contentEncoding = exchange.getRequestHeaders().get("Content-Encoding");
+      if (contentEncoding != null) {
+        exchange.getResponseHeaders().put("X-Content-Encoding", contentEncoding);
+      }
+      exchange.sendResponseHeaders(200, requestBody.size());
+      try (OutputStream out = exchange.getResponseBody()) {
+        requestBody.writeTo(out);
+      }
+    });
+    final ByteBufferPool bufferPool = new ByteBufferPool(64, 4096, true);
+    try (CloseableHttpAsyncClient httpAsyncClient = HttpAsyncClients.createDefault()) {
+      httpAsyncClient.start();
+      final Map<String, Object> body = new HashMap<>();
+      for (int i = 0; i < 1000; i++) {
+        body.put("field" + i, ImmutableMap.of("value", i));
+      }
+      final SimpleHttpRequest request = SimpleRequestBuilder
+          .post(server.getBaseUrl() + "/").build();
+      final Flowable<SimpleHttpResponse> responseFlowable = Flowable.fromPublisher(
+          InternalUtils.executeRequest(httpAsyncClient, request,
+              () -> JsonEntityProducer.create(gson, body, bufferPool), bufferPool));
+      // Subscribe twice to make sure every subscription gets its own body
+      for (int i = 0; i < 2; i++) {
+        final SimpleHttpResponse response = responseFlowable.blockingSingle();
+        assertEquals(200, response.getCode());
+        assertEquals("application/json; charset=UTF-8",
+            response.getFirstHeader("Content-Type").getValue());
+        assertEquals(gson.toJson(body), response.getBodyText());
+      }
+      final SimpleHttpResponse gzipResponse = Flowable.fromPublisher(
+          InternalUtils.executeRequest(httpAsyncClient, request,
+              () -> JsonEntityProducer.create(gson, body, bufferPool, 1024), bufferPool))
+          .blockingSingle();
+      assertEquals("gzip", gzipResponse.getFirstHeader("X-Content-Encoding").getValue());
+      assertEquals(gson.toJson(body), gunzip(gzipResponse.getBodyBytes()));
+    } finally {
+      server.close();
+    }
+  }
+
+  private static String gunzip(byte[] bytes) throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      final byte[] buf = new byte[1024];
+      int n;
+      while ((n = in.read(buf)) >= 0) {
+        out.write(buf, 0, n);
+      }
+    }
+    return new String(out.toByteArray(), UTF_8);
+  }
+
+  private static final class ChunkyDataStreamChannel implements DataStreamChannel {
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final int maxBytesPerWrite;
+    boolean ended;
+
+    ChunkyDataStreamChannel(int maxBytesPerWrite) {
+      this.maxBytesPerWrite = maxBytesPerWrite;
+    }
+
+    @Override
+    public void requestOutput() {}
+
+    @Override
+    public int write(ByteBuffer src) {
+      final int n = Math.min(src.remaining(), maxBytesPerWrite);
+      for (int i = 0; i < n; i++) {
+        out.write(src.get());
+      }
+      return n;
+    }
+
+    @Override
+    public void endStream() {
+      ended = true;
+    }
+
+    @Override
+    public void endStream(List<? extends Header> trailers) {
+      ended = true;
+    }
+
+  }
+
+}
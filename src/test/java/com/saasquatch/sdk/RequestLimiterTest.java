@@ -0,0 +1,204 @@
+package com.saasquatch.sdk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.saasquatch.sdk.internal.ByteBufferPool;
+import com.saasquatch.sdk.internal.InternalUtils;
+import com.saasquatch.sdk.internal.RequestLimiter;
+import com.saasquatch.sdk.test.LocalTestServer;
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.junit.jupiter.api.Test;
+
+public class RequestLimiterTest {
+
+  @Test
+  public void testInvalid() {
+    assertThrows(IllegalArgumentException.class, () -> new RequestLimiter(0));
+  }
+
+  @Test
+  public void testQueueing() {
+    final RequestLimiter requestLimiter = new RequestLimiter(2);
+    final List<Integer> started = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      final int n = i;
+      requestLimiter.acquire(() -> started.add(n));
+    }
+    assertEquals(Arrays.asList(0, 1), started);
+    assertEquals(2, requestLimiter.getInFlight());
+    assertEquals(3, requestLimiter.getQueued());
+    requestLimiter.release();
+    assertEquals(Arrays.asList(0, 1, 2), started);
+    requestLimiter.release();
+    requestLimiter.release();
+    assertEquals(Arrays.asList(0, 1, 2, 3, 4), started);
+    assertEquals(2, requestLimiter.getInFlight());
+    assertEquals(0, requestLimiter.getQueued());
+    requestLimiter.release();
+    requestLimiter.release();
+    assertEquals(0, requestLimiter.getInFlight());
+  }
+
+  @Test
+  public void testCancel() {
+    final RequestLimiter requestLimiter = new RequestLimiter(1);
+    final List<Integer> started = new ArrayList<>();
+    requestLimiter.acquire(() -> started.add(0));
+    final List<Cancellable> waiters = new ArrayList<>();
+    for (int i = 1; i <= 4; i++) {
+      final int n = i;
+      waiters.add(requestLimiter.acquire(() -> started.add(n)));
+    }
+    assertTrue(waiters.get(0).cancel());
+    assertFalse(waiters.get(0).cancel());
+    assertTrue(waiters.get(2).cancel());
+    assertEquals(2, requestLimiter.getQueued());
+    // Cancelled tasks are skipped without taking a permit
+    requestLimiter.release();
+    assertEquals(Arrays.asList(0, 2), started);
+    assertFalse(waiters.get(1).cancel());
+    requestLimiter.release();
+    assertEquals(Arrays.asList(0, 2, 4), started);
+    assertEquals(1, requestLimiter.getInFlight());
+    assertEquals(0, requestLimiter.getQueued());
+  }
+
+  @Test
+  public void testLongQueue() {
+    final RequestLimiter requestLimiter = RequestLimiter.adaptive(1);
+    requestLimiter.acquire(() -> {});
+    final AtomicInteger started = new AtomicInteger();
+    final List<Cancellable> waiters = new ArrayList<>();
+    for (int i = 0; i < 100000; i++) {
+      // Tasks that are over right away, like a request that fails to dispatch
+      waiters.add(requestLimiter.acquire(() -> {
+        started.incrementAndGet();
+        requestLimiter.release();
+      }));
+    }
+    for (int i = 0; i < waiters.size(); i += 2) {
+      waiters.get(i).cancel();
+    }
+    requestLimiter.release();
+    assertEquals(50000, started.get());
+    assertEquals(0, requestLimiter.getInFlight());
+    assertEquals(0, requestLimiter.getQueued());
+  }
+
+  @Test
+  public void testConcurrent() throws Exception {
+    final RequestLimiter requestLimiter = new RequestLimiter(3);
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    final int taskCount = 2000;
+    final CountDownLatch done = new CountDownLatch(taskCount);
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      for (int i = 0; i < taskCount; i++) {
+        executor.execute(() -> requestLimiter.acquire(() -> {
+          final int current = running.incrementAndGet();
+          maxRunning.accumulateAndGet(current, Math::max);
+          // Complete on another thread, like an async exchange would
+          executor.execute(() -> {
+            running.decrementAndGet();
+            done.countDown();
+            requestLimiter.release();
+          });
+        }));
+      }
+      assertTrue(done.await(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdown();
+    }
+    assertTrue(maxRunning.get() <= 3);
+    assertEquals(0, requestLimiter.getQueued());
+  }
+
+  @Test
+  public void testAdaptive() {
+    final RequestLimiter requestLimiter = RequestLimiter.adaptive(10);
+    assertTrue(requestLimiter.isAdaptive());
+    assertEquals(4, requestLimiter.getLimit());
+    // Fill up the limit so it's in use, then let the requests succeed with a steady RTT
+    final AtomicInteger started = new AtomicInteger();
+    for (int i = 0; i < 4; i++) {
+      requestLimiter.acquire(started::incrementAndGet);
+    }
+    for (int i = 0; i < 4; i++) {
+      requestLimiter.release(1000, false);
+      requestLimiter.acquire(started::incrementAndGet);
+    }
+    assertTrue(requestLimiter.getLimit() > 4);
+    final int grownLimit = requestLimiter.getLimit();
+    // An inflated RTT doesn't grow the limit
+    requestLimiter.release(1000000, false);
+    requestLimiter.acquire(started::incrementAndGet);
+    assertEquals(grownLimit, requestLimiter.getLimit());
+    // A drop cuts the limit
+    requestLimiter.release(1000, true);
+    assertEquals((int) (grownLimit * 0.9), requestLimiter.getLimit());
+    // The limit is never below 1
+    for (int i = 0; i < 100; i++) {
+      requestLimiter.acquire(started::incrementAndGet);
+      requestLimiter.release(1000, true);
+    }
+    assertEquals(1, requestLimiter.getLimit());
+  }
+
+  @Test
+  public void testAdaptiveMax() {
+    final RequestLimiter requestLimiter = RequestLimiter.adaptive(2);
+    assertEquals(2, requestLimiter.getLimit());
+    for (int i = 0; i < 10; i++) {
+      requestLimiter.acquire(() -> {});
+      requestLimiter.acquire(() -> {});
+      requestLimiter.release(1000, false);
+      requestLimiter.release(1000, false);
+    }
+    assertEquals(2, requestLimiter.getLimit());
+    // Fixed limiters ignore the outcome
+    final RequestLimiter fixed = new RequestLimiter(3);
+    fixed.acquire(() -> {});
+    fixed.release(1000, true);
+    assertEquals(3, fixed.getLimit());
+  }
+
+  @Test
+  public void testExecuteRequestBackoff() throws Exception {
+    final LocalTestServer server = LocalTestServer.start(exchange -> {
+      LocalTestServer.sendJson(exchange, 503, "{}");
+    });
+    final RequestLimiter requestLimiter = RequestLimiter.adaptive(10);
+    try (CloseableHttpAsyncClient httpAsyncClient = HttpAsyncClients.createDefault()) {
+      httpAsyncClient.start();
+      final SimpleHttpRequest request = SimpleRequestBuilder
+          .get(server.getBaseUrl() + "/").build();
+      for (int i = 0; i < 3; i++) {
+        assertEquals(503, Flowable.fromPublisher(InternalUtils.executeRequest(httpAsyncClient,
+            request, null, ByteBufferPool.sharedHeapPool(), requestLimiter))
+            .blockingSingle().getCode());
+      }
+      assertEquals(1, requestLimiter.getLimit());
+      assertEquals(0, requestLimiter.getInFlight());
+    } finally {
+      server.close();
+    }
+  }
+
+}
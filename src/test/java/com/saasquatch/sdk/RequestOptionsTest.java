@@ -45,13 +45,18 @@ public class RequestOptionsTest {
             .setAuthMethod(AuthMethod.ofTenantApiKey("dfsajkglhrejlghdfslghsd"))
             .setRequestTimeout(5, TimeUnit.SECONDS)
             .addHeader("foo", "bar").addHeaders("a", "b", "c", "d").addQueryParam("foo", "bar")
-            .addQueryParams("a", "b", "c", "d").setContentCompressionEnabled(true).build();
+            .addQueryParams("a", "b", "c", "d").setContentCompressionEnabled(true)
+            .setRequestCompressionThreshold(0).build();
     assertNotNull(requestOptions.getAuthMethod());
     assertEquals(5000, requestOptions.getRequestTimeoutMillis());
     assertEquals("aaaaaaaaaaaaaaaa", requestOptions.getTenantAlias());
     assertNotNull(requestOptions.getContentCompressionEnabled());
     assertTrue(requestOptions.getContentCompressionEnabled());
     assertNull(RequestOptions.newBuilder().build().getContentCompressionEnabled());
+    assertEquals(0, requestOptions.getRequestCompressionThreshold());
+    assertNull(RequestOptions.newBuilder().build().getRequestCompressionThreshold());
+    assertThrows(IllegalArgumentException.class,
+        () -> RequestOptions.newBuilder().setRequestCompressionThreshold(-1));
   }
 
   @Test
@@ -0,0 +1,154 @@
+package com.saasquatch.sdk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.saasquatch.sdk.exceptions.SaaSquatchUnhandledApiException;
+import com.saasquatch.sdk.internal.InternalUtils;
+import com.saasquatch.sdk.internal.RetryBudget;
+import com.saasquatch.sdk.test.LocalTestServer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RetryPolicyTest {
+
+  private LocalTestServer server;
+  private AtomicInteger requestCount;
+  // The number of requests to fail with a 503 before responding normally
+  private AtomicInteger failuresLeft;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    requestCount = new AtomicInteger();
+    failuresLeft = new AtomicInteger();
+    server = LocalTestServer.start(exchange -> {
+      requestCount.incrementAndGet();
+      if (failuresLeft.getAndDecrement() > 0) {
+        exchange.getResponseHeaders().add("Retry-After", "0");
+        LocalTestServer.sendResponse(exchange, 503, "text/plain", "Unavailable");
+      } else {
+        LocalTestServer.sendJson(exchange, 200, "{\"id\":\"b\"}");
+      }
+    });
+  }
+
+  @AfterEach
+  public void tearDown() {
+    server.close();
+  }
+
+  @Test
+  public void testRetriesIdempotentRequests() throws Exception {
+    failuresLeft.set(2);
+    try (SaaSquatchBlockingClient client = SaaSquatchBlockingClient.create(server
+        .newClientOptionsBuilder().setRetryPolicy(newRetryPolicyBuilder().build()).build())) {
+      assertEquals("b", client.getUser("a", "b", null).getData().get("id"));
+      assertEquals(3, requestCount.get());
+    }
+  }
+
+  @Test
+  public void testGivesUpAfterMaxAttempts() throws Exception {
+    failuresLeft.set(10);
+    try (SaaSquatchBlockingClient client = SaaSquatchBlockingClient.create(server
+        .newClientOptionsBuilder().setRetryPolicy(newRetryPolicyBuilder().build()).build())) {
+      final SaaSquatchUnhandledApiException e = assertThrows(
+          SaaSquatchUnhandledApiException.class, () -> client.getUser("a", "b", null));
+      assertEquals(503, e.getHttpResponse().getStatusCode());
+      assertEquals(3, requestCount.get());
+    }
+  }
+
+  @Test
+  public void testDoesNotRetryNonIdempotentRequests() throws Exception {
+    failuresLeft.set(1);
+    try (SaaSquatchBlockingClient client = SaaSquatchBlockingClient.create(server
+        .newClientOptionsBuilder().setRetryPolicy(newRetryPolicyBuilder().build()).build())) {
+      assertThrows(SaaSquatchUnhandledApiException.class,
+          () -> client.blockUser("a", "b", null));
+      assertEquals(1, requestCount.get());
+    }
+  }
+
+  @Test
+  public void testNoRetriesByDefault() throws Exception {
+    failuresLeft.set(1);
+    try (SaaSquatchBlockingClient client =
+        SaaSquatchBlockingClient.create(server.newClientOptionsBuilder().build())) {
+      assertThrows(SaaSquatchUnhandledApiException.class, () -> client.getUser("a", "b", null));
+      assertEquals(1, requestCount.get());
+      // Overridden per request
+      failuresLeft.set(1);
+      assertEquals("b", client.getUser("a", "b", RequestOptions.newBuilder()
+          .setRetryPolicy(newRetryPolicyBuilder().build()).build()).getData().get("id"));
+      assertEquals(3, requestCount.get());
+    }
+  }
+
+  @Test
+  public void testRetryBudget() throws Exception {
+    final RetryPolicy retryPolicy = newRetryPolicyBuilder().setRetryBudget(0, 1).build();
+    try (SaaSquatchBlockingClient client = SaaSquatchBlockingClient.create(
+        server.newClientOptionsBuilder().setRetryPolicy(retryPolicy).build())) {
+      failuresLeft.set(1);
+      client.getUser("a", "b", null);
+      assertEquals(2, requestCount.get());
+      // The only token is gone
+      failuresLeft.set(1);
+      assertThrows(SaaSquatchUnhandledApiException.class, () -> client.getUser("a", "b", null));
+      assertEquals(3, requestCount.get());
+    }
+  }
+
+  @Test
+  public void testRetryBudgetDeposits() {
+    final RetryBudget retryBudget = new RetryBudget(0.5, 2);
+    assertEquals(2, retryBudget.getTokens());
+    assertEquals(true, retryBudget.tryWithdraw());
+    assertEquals(true, retryBudget.tryWithdraw());
+    assertEquals(false, retryBudget.tryWithdraw());
+    retryBudget.deposit();
+    assertEquals(false, retryBudget.tryWithdraw());
+    retryBudget.deposit();
+    assertEquals(true, retryBudget.tryWithdraw());
+    for (int i = 0; i < 10; i++) {
+      retryBudget.deposit();
+    }
+    assertEquals(2, retryBudget.getTokens());
+    assertThrows(IllegalArgumentException.class, () -> new RetryBudget(1.5, 1));
+    assertThrows(IllegalArgumentException.class, () -> new RetryBudget(0.1, 0));
+  }
+
+  @Test
+  public void testBuilderValidation() {
+    assertThrows(IllegalArgumentException.class, () -> RetryPolicy.newBuilder().setMaxAttempts(0));
+    assertThrows(IllegalArgumentException.class,
+        () -> RetryPolicy.newBuilder().setInitialBackoff(0, TimeUnit.MILLISECONDS));
+    assertThrows(IllegalArgumentException.class,
+        () -> RetryPolicy.newBuilder().setRetryBudget(Double.NaN, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> RetryPolicy.newBuilder().setInitialBackoff(10, TimeUnit.SECONDS).build());
+  }
+
+  @Test
+  public void testParseRetryAfterMillis() {
+    assertEquals(-1, InternalUtils.parseRetryAfterMillis(null, 0));
+    assertEquals(-1, InternalUtils.parseRetryAfterMillis("soon", 0));
+    assertEquals(-1, InternalUtils.parseRetryAfterMillis("-1", 0));
+    assertEquals(120_000, InternalUtils.parseRetryAfterMillis(" 120 ", 0));
+    // Wed, 21 Oct 2015 07:28:00 GMT
+    final long date = 1445412480000L;
+    assertEquals(5000,
+        InternalUtils.parseRetryAfterMillis("Wed, 21 Oct 2015 07:28:00 GMT", date - 5000));
+    assertEquals(0, InternalUtils.parseRetryAfterMillis("Wed, 21 Oct 2015 07:28:00 GMT", date));
+  }
+
+  private static RetryPolicy.Builder newRetryPolicyBuilder() {
+    return RetryPolicy.newBuilder().setInitialBackoff(1, TimeUnit.MILLISECONDS)
+        .setMaxBackoff(10, TimeUnit.MILLISECONDS);
+  }
+
+}
@@ -0,0 +1,70 @@
+package com.saasquatch.sdk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.saasquatch.sdk.exceptions.SaaSquatchApiException;
+import com.saasquatch.sdk.exceptions.SaaSquatchIOException;
+import com.saasquatch.sdk.output.JsonObjectApiResponse;
+import com.saasquatch.sdk.test.LocalTestServer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+public class SaaSquatchBlockingClientTest {
+
+  @Test
+  public void testBasic() throws Exception {
+    final CountDownLatch slowRequestReceived = new CountDownLatch(1);
+    final LocalTestServer server = LocalTestServer.start(exchange -> {
+      final String path = exchange.getRequestURI().getPath();
+      if (path.endsWith("/user/slow")) {
+        slowRequestReceived.countDown();
+        try {
+          Thread.sleep(5000);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        LocalTestServer.sendJson(exchange, 200, "{}");
+      } else if (path.endsWith("/user/b")) {
+        LocalTestServer.sendJson(exchange, 200, "{\"id\":\"b\",\"accountId\":\"a\"}");
+      } else {
+        LocalTestServer.sendJson(exchange, 404, "{\"message\":\"m\","
+            + "\"apiErrorCode\":\"USER_NOT_FOUND\",\"statusCode\":404,\"rsCode\":\"R\"}");
+      }
+    });
+    try (SaaSquatchBlockingClient client = SaaSquatchBlockingClient.create(
+        server.newClientOptionsBuilder().build())) {
+      final JsonObjectApiResponse response = client.getUser("a", "b", null);
+      assertEquals(200, response.getHttpResponse().getStatusCode());
+      assertEquals("b", response.getData().get("id"));
+      final SaaSquatchApiException apiException = assertThrows(SaaSquatchApiException.class,
+          () -> client.getUser("a", "c", null));
+      assertEquals("USER_NOT_FOUND", apiException.getApiError().getApiErrorCode());
+      assertEquals(0, client.getInFlightRequestCount());
+
+      // Interrupting a waiting thread
+      final AtomicReference<Throwable> error = new AtomicReference<>();
+      final AtomicReference<Boolean> interrupted = new AtomicReference<>();
+      final Thread thread = new Thread(() -> {
+        try {
+          client.getUser("a", "slow", null);
+        } catch (Throwable t) {
+          error.set(t);
+          interrupted.set(Thread.currentThread().isInterrupted());
+        }
+      });
+      thread.start();
+      assertTrue(slowRequestReceived.await(5, TimeUnit.SECONDS));
+      thread.interrupt();
+      thread.join(5000);
+      assertTrue(error.get() instanceof SaaSquatchIOException, String.valueOf(error.get()));
+      assertTrue(interrupted.get());
+    } finally {
+      server.close();
+    }
+  }
+
+}
@@ -1,12 +1,24 @@
 package com.saasquatch.sdk;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.saasquatch.sdk.exceptions.SaaSquatchIOException;
 import com.saasquatch.sdk.input.WidgetUpsertInput;
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 import com.google.common.collect.ImmutableMap;
 import com.saasquatch.sdk.input.UserInput;
+import com.saasquatch.sdk.test.LocalTestServer;
 
 public class SaaSquatchClientTest {
 
@@ -41,4 +53,126 @@ public class SaaSquatchClientTest {
     }
   }
 
+  @Test
+  public void testHttpProtocolPolicies() throws Exception {
+    for (HttpProtocolPolicy httpProtocolPolicy : HttpProtocolPolicy.values()) {
+      try (SaaSquatchClient saasquatchClient = SaaSquatchClient.create(ClientOptions.newBuilder()
+          .setTenantAlias("fake").setHttpProtocolPolicy(httpProtocolPolicy).build())) {
+        assertNotNull(saasquatchClient);
+      }
+    }
+  }
+
+  @Test
+  public void testConcurrencyLimit() throws Exception {
+    try (SaaSquatchClient saasquatchClient = SaaSquatchClient.create(ClientOptions.newBuilder()
+        .setTenantAlias("fake").setMaxConcurrentRequests(16).build())) {
+      assertEquals(16, saasquatchClient.getConcurrencyLimit());
+      assertEquals(0, saasquatchClient.getInFlightRequestCount());
+    }
+    try (SaaSquatchClient saasquatchClient = SaaSquatchClient.create(ClientOptions.newBuilder()
+        .setTenantAlias("fake").setMaxConcurrentRequests(16).setAdaptiveConcurrencyEnabled(true)
+        .build())) {
+      assertEquals(4, saasquatchClient.getConcurrencyLimit());
+    }
+  }
+
+  @Test
+  public void testWarmUp() throws Exception {
+    final Set<Integer> remotePorts = Collections.synchronizedSet(new HashSet<>());
+    final List<String> methods = Collections.synchronizedList(new ArrayList<>());
+    final LocalTestServer server = LocalTestServer.start(exchange -> {
+      remotePorts.add(exchange.getRemoteAddress().getPort());
+      methods.add(exchange.getRequestMethod());
+      try {
+        // Keep the requests overlapping
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+    });
+    try (SaaSquatchClient saasquatchClient = SaaSquatchClient.create(ClientOptions.newBuilder()
+        .setAppDomain(server.getAppDomain()).setMaxConcurrentRequests(3)
+        .setIoThreadCount(1).setSocketSendBufferSize(8192).setSocketReceiveBufferSize(8192)
+        .setSelectInterval(100, TimeUnit.MILLISECONDS).build())) {
+      assertThrows(IllegalArgumentException.class, () -> saasquatchClient.warmUp(0));
+      Flowable.fromPublisher(saasquatchClient.warmUp(5)).ignoreElements().blockingAwait();
+      assertEquals(3, remotePorts.size());
+      assertEquals(Arrays.asList("HEAD", "HEAD", "HEAD"), methods);
+      assertEquals(0, saasquatchClient.getInFlightRequestCount());
+    } finally {
+      server.close();
+    }
+    try (SaaSquatchClient saasquatchClient = SaaSquatchClient.create(ClientOptions.newBuilder()
+        .setAppDomain(server.getAppDomain()).build())) {
+      assertThrows(SaaSquatchIOException.class,
+          () -> Flowable.fromPublisher(saasquatchClient.warmUp(1)).ignoreElements()
+              .blockingAwait());
+    }
+  }
+
+  @Test
+  public void testWarmUpAdaptiveConcurrency() throws Exception {
+    final Set<Integer> remotePorts = Collections.synchronizedSet(new HashSet<>());
+    final LocalTestServer server = LocalTestServer.start(exchange -> {
+      remotePorts.add(exchange.getRemoteAddress().getPort());
+      try {
+        // Keep the requests overlapping
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+    });
+    try (SaaSquatchClient saasquatchClient = SaaSquatchClient.create(
+        server.newClientOptionsBuilder().setMaxConcurrentRequests(16)
+            .setAdaptiveConcurrencyEnabled(true).build())) {
+      final int initialLimit = saasquatchClient.getConcurrencyLimit();
+      Flowable.fromPublisher(saasquatchClient.warmUp(16)).ignoreElements().blockingAwait();
+      // Not held back by the adaptive limit, which the warm-up doesn't move either
+      assertEquals(16, remotePorts.size());
+      assertEquals(initialLimit, saasquatchClient.getConcurrencyLimit());
+      assertEquals(0, saasquatchClient.getInFlightRequestCount());
+    } finally {
+      server.close();
+    }
+  }
+
+  @Test
+  public void testSharedTransport() throws Exception {
+    final AtomicInteger requestCount = new AtomicInteger();
+    final LocalTestServer server = LocalTestServer.start(exchange -> {
+      requestCount.incrementAndGet();
+      // The JDK server may close kept alive connections at any time
+      exchange.getResponseHeaders().set("Connection", "close");
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+    });
+    final String appDomain = server.getAppDomain();
+    final SaaSquatchTransport transport = SaaSquatchTransport.create(ClientOptions.newBuilder()
+        .setMaxConcurrentRequests(1).build());
+    try {
+      assertThrows(IllegalArgumentException.class, () -> SaaSquatchTransport.create(
+          ClientOptions.newBuilder().setTransport(transport).build()));
+      final SaaSquatchClient client1 = SaaSquatchClient.create(ClientOptions.newBuilder()
+          .setAppDomain(appDomain).setTransport(transport).build());
+      final SaaSquatchClient client2 = SaaSquatchClient.create(ClientOptions.newBuilder()
+          .setAppDomain(appDomain).setMaxConcurrentRequests(8).setTransport(transport).build());
+      // The transport's limit applies
+      assertEquals(1, client2.getConcurrencyLimit());
+      Flowable.fromPublisher(client1.warmUp(1)).ignoreElements().blockingAwait();
+      // Closing a client doesn't close the shared transport
+      client1.close();
+      Flowable.fromPublisher(client2.warmUp(1)).ignoreElements().blockingAwait();
+      assertEquals(2, requestCount.get());
+      client2.close();
+    } finally {
+      transport.close();
+      server.close();
+    }
+  }
+
 }
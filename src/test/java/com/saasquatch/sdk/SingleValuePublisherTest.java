@@ -0,0 +1,157 @@
+package com.saasquatch.sdk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.saasquatch.sdk.internal.SingleValuePublisher;
+import io.reactivex.rxjava3.core.Flowable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nonnull;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+public class SingleValuePublisherTest {
+
+  @Test
+  public void testValue() {
+    final TestPublisher publisher = new TestPublisher();
+    final RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    assertEquals(0, publisher.startCount.get());
+    subscriber.subscription.request(1);
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertEquals(1, publisher.startCount.get());
+    assertEquals(0, subscriber.signals.size());
+    publisher.callback.get().completed("foo");
+    assertEquals(2, subscriber.signals.size());
+    assertEquals("onNext foo", subscriber.signals.get(0));
+    assertEquals("onComplete", subscriber.signals.get(1));
+    // Signals after the terminal signal are dropped
+    publisher.callback.get().failed(new IOException());
+    assertEquals(2, subscriber.signals.size());
+    // Every subscription starts the call again
+    assertEquals("bar", Flowable.fromPublisher(new SingleValuePublisher<String>() {
+      @Override
+      protected Cancellable start(@Nonnull FutureCallback<String> callback) {
+        callback.completed("bar");
+        return () -> false;
+      }
+    }).blockingSingle());
+  }
+
+  @Test
+  public void testNullResult() {
+    final TestPublisher publisher = new TestPublisher();
+    final RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    subscriber.subscription.request(1);
+    publisher.callback.get().completed(null);
+    assertEquals(1, subscriber.signals.size());
+    assertEquals("onComplete", subscriber.signals.get(0));
+  }
+
+  @Test
+  public void testErrors() {
+    assertThrows(NullPointerException.class, () -> new TestPublisher().subscribe(null));
+    final TestPublisher publisher = new TestPublisher();
+    final RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    subscriber.subscription.request(1);
+    publisher.callback.get().failed(new IOException("foo"));
+    assertEquals(1, subscriber.signals.size());
+    assertEquals("onError java.io.IOException: foo", subscriber.signals.get(0));
+
+    publisher.subscribe(subscriber);
+    subscriber.signals.clear();
+    subscriber.subscription.request(1);
+    publisher.callback.get().cancelled();
+    assertEquals(1, subscriber.signals.size());
+    assertTrue(subscriber.signals.get(0).startsWith("onError java.util.concurrent"
+        + ".CancellationException"));
+  }
+
+  @Test
+  public void testNonPositiveRequest() {
+    final TestPublisher publisher = new TestPublisher();
+    final RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    subscriber.subscription.request(0);
+    assertEquals(0, publisher.startCount.get());
+    assertEquals(1, subscriber.signals.size());
+    assertTrue(subscriber.signals.get(0).startsWith("onError java.lang.IllegalArgumentException"));
+    subscriber.subscription.request(1);
+    assertEquals(0, publisher.startCount.get());
+  }
+
+  @Test
+  public void testCancel() {
+    final TestPublisher publisher = new TestPublisher();
+    final RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    subscriber.subscription.cancel();
+    subscriber.subscription.request(1);
+    assertEquals(0, publisher.startCount.get());
+
+    publisher.subscribe(subscriber);
+    subscriber.subscription.request(1);
+    subscriber.subscription.cancel();
+    subscriber.subscription.cancel();
+    assertEquals(1, publisher.cancelCount.get());
+    publisher.callback.get().completed("foo");
+    assertEquals(0, subscriber.signals.size());
+  }
+
+  private static final class TestPublisher extends SingleValuePublisher<String> {
+
+    final AtomicInteger startCount = new AtomicInteger();
+    final AtomicInteger cancelCount = new AtomicInteger();
+    final AtomicReference<FutureCallback<String>> callback = new AtomicReference<>();
+
+    @Override
+    protected Cancellable start(@Nonnull FutureCallback<String> callback) {
+      startCount.incrementAndGet();
+      this.callback.set(callback);
+      return () -> {
+        cancelCount.incrementAndGet();
+        return true;
+      };
+    }
+
+  }
+
+  private static final class RecordingSubscriber implements Subscriber<String> {
+
+    final List<String> signals = new ArrayList<>();
+    Subscription subscription;
+
+    @Override
+    public void onSubscribe(Subscription s) {
+      this.subscription = s;
+    }
+
+    @Override
+    public void onNext(String s) {
+      signals.add("onNext " + s);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      signals.add("onError " + t);
+    }
+
+    @Override
+    public void onComplete() {
+      signals.add("onComplete");
+    }
+
+  }
+
+}
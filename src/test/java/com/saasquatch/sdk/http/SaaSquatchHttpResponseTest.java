@@ -2,11 +2,19 @@ package com.saasquatch.sdk.http;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.google.common.collect.ImmutableMap;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.zip.GZIPOutputStream;
 import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
 import org.apache.hc.core5.http.HttpHeaders;
@@ -33,6 +41,31 @@ public class SaaSquatchHttpResponseTest {
         () -> response.getHeaders("abc").add("test"));
   }
 
+  @Test
+  public void testHeaderView() {
+    final SimpleHttpResponse r1 = SimpleHttpResponse.create(200, "foo");
+    r1.addHeader("X-B", "1");
+    r1.addHeader("x-a", "2");
+    r1.addHeader("x-b", "3");
+    final SaaSquatchHttpResponse response = new Client5SaaSquatchHttpResponse(r1);
+    final Map<String, List<String>> allHeaders = response.getAllHeaders();
+    assertEquals(Arrays.asList("X-B", "x-a"), new ArrayList<>(allHeaders.keySet()));
+    assertEquals(2, allHeaders.size());
+    assertTrue(allHeaders.containsKey("X-A"));
+    assertFalse(allHeaders.containsKey("x-c"));
+    assertNull(allHeaders.get("x-c"));
+    assertNull(allHeaders.get(1));
+    assertEquals(Arrays.asList("1", "3"), allHeaders.get("x-B"));
+    assertNull(response.getFirstHeader("x-c"));
+    assertNull(response.getLastHeader("x-c"));
+    assertTrue(response.getHeaders("x-c").isEmpty());
+    assertThrows(NullPointerException.class, () -> response.getFirstHeader(null));
+    assertThrows(UnsupportedOperationException.class, () -> allHeaders.remove("x-a"));
+    assertThrows(UnsupportedOperationException.class, () -> allHeaders.keySet().clear());
+    assertTrue(new Client5SaaSquatchHttpResponse(new SimpleHttpResponse(204)).getAllHeaders()
+        .isEmpty());
+  }
+
   @Test
   public void testGzip() throws Exception {
     final String bodyText = "456489489624862476894786478652786527865427864127864176878621786";
@@ -46,7 +79,27 @@ public class SaaSquatchHttpResponseTest {
     final SimpleHttpResponse r1 = SimpleHttpResponse.create(400, gzipBytes);
     r1.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
     final SaaSquatchHttpResponse response = new Client5SaaSquatchHttpResponse(r1);
+    assertEquals(bodyText, readFully(response.getBodyReader()));
     assertEquals(bodyText, response.getBodyText());
+    assertEquals(bodyText, readFully(response.getBodyReader()));
+  }
+
+  @Test
+  public void testBodyReader() throws Exception {
+    final SimpleHttpResponse r1 = SimpleHttpResponse.create(200, "{\"a\":1}");
+    assertEquals("{\"a\":1}", readFully(new Client5SaaSquatchHttpResponse(r1).getBodyReader()));
+    final SimpleHttpResponse r2 = new SimpleHttpResponse(204);
+    assertNull(new Client5SaaSquatchHttpResponse(r2).getBodyReader());
+  }
+
+  private static String readFully(Reader reader) throws IOException {
+    final StringBuilder sb = new StringBuilder();
+    final char[] buf = new char[16];
+    int charsRead;
+    while ((charsRead = reader.read(buf)) >= 0) {
+      sb.append(buf, 0, charsRead);
+    }
+    return sb.toString();
   }
 
 }
@@ -0,0 +1,110 @@
+package com.saasquatch.sdk.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.saasquatch.sdk.http.Client5SaaSquatchHttpResponse;
+import com.saasquatch.sdk.http.SaaSquatchHttpResponse;
+import com.saasquatch.sdk.models.User;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.junit.jupiter.api.Test;
+
+public class ApiResponseTest {
+
+  @Test
+  public void testDataIsMemoized() {
+    final JsonObjectApiResponse apiResponse = new JsonObjectApiResponse(
+        new Client5SaaSquatchHttpResponse(SimpleHttpResponse.create(200, "{\"a\":\"b\"}")));
+    final Map<String, Object> data = apiResponse.getData();
+    assertEquals(ImmutableMap.of("a", "b"), data);
+    assertSame(data, apiResponse.getData());
+  }
+
+  @Test
+  public void testBuildDataCalledOnce() {
+    final AtomicInteger buildCount = new AtomicInteger();
+    final SaaSquatchHttpResponse httpResponse =
+        new Client5SaaSquatchHttpResponse(SimpleHttpResponse.create(204, (byte[]) null));
+    final ApiResponse<Object> apiResponse = new ApiResponse<Object>(httpResponse) {
+      @Override
+      protected Object buildData() {
+        buildCount.incrementAndGet();
+        return null;
+      }
+    };
+    assertNull(apiResponse.getData());
+    assertNull(apiResponse.getData());
+    assertEquals(1, buildCount.get());
+  }
+
+  @Test
+  public void testConcurrentFirstCallsGetTheSameData() throws Exception {
+    final CountDownLatch building = new CountDownLatch(2);
+    final SaaSquatchHttpResponse httpResponse =
+        new Client5SaaSquatchHttpResponse(SimpleHttpResponse.create(204, (byte[]) null));
+    final ApiResponse<Object> apiResponse = new ApiResponse<Object>(httpResponse) {
+      @Override
+      protected Object buildData() {
+        // Make sure both calls build the data
+        building.countDown();
+        try {
+          building.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return new Object();
+      }
+    };
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<Object> data1 = executor.submit(apiResponse::getData);
+      final Future<Object> data2 = executor.submit(apiResponse::getData);
+      assertSame(data1.get(5, TimeUnit.SECONDS), data2.get(5, TimeUnit.SECONDS));
+      assertSame(data1.get(), apiResponse.getData());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testDataOverride() {
+    final TextApiResponse apiResponse = new TextApiResponse(
+        new Client5SaaSquatchHttpResponse(SimpleHttpResponse.create(200, "foo")), "bar");
+    assertEquals("bar", apiResponse.getData());
+    assertEquals("foo", apiResponse.getHttpResponse().getBodyText());
+  }
+
+  @Test
+  public void testToModel() {
+    final String userJson = "{\"id\":\"b\",\"accountId\":\"a\",\"dateCreated\":123,"
+        + "\"customFields\":{\"c\":1},\"segments\":[\"s\"]}";
+    final JsonObjectApiResponse apiResponse = new JsonObjectApiResponse(
+        new Client5SaaSquatchHttpResponse(SimpleHttpResponse.create(200, userJson)));
+    final User user = apiResponse.toModel(User.class);
+    assertEquals("a", user.getAccountId());
+    assertEquals("b", user.getId());
+    assertEquals(new Date(123), user.getDateCreated());
+    assertEquals(ImmutableMap.of("c", 1.0), user.getCustomFields());
+    assertEquals(ImmutableSet.of("s"), user.getSegments());
+    final JsonObjectApiResponse overrideApiResponse = new JsonObjectApiResponse(
+        apiResponse.getHttpResponse(), ImmutableMap.of("id", "c", "accountId", "d"));
+    final User overrideUser = overrideApiResponse.toModel(User.class);
+    assertEquals("d", overrideUser.getAccountId());
+    assertEquals("c", overrideUser.getId());
+    assertThrows(IllegalStateException.class, () -> new JsonObjectApiResponse(
+        new Client5SaaSquatchHttpResponse(SimpleHttpResponse.create(200, ""))).toModel(User.class));
+  }
+
+}
@@ -0,0 +1,102 @@
+package com.saasquatch.sdk.test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.saasquatch.sdk.ClientOptions;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A local HTTP server for tests, which hands every request to one {@link HttpHandler} on its own
+ * thread, so a handler can hold a request for as long as a test needs.
+ */
+public final class LocalTestServer implements Closeable {
+
+  public static final String TENANT_ALIAS = "test";
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  private LocalTestServer(HttpServer server, ExecutorService executor) {
+    this.server = server;
+    this.executor = executor;
+  }
+
+  public static LocalTestServer start(HttpHandler handler) throws IOException {
+    final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    final ExecutorService executor = Executors.newCachedThreadPool();
+    server.setExecutor(executor);
+    server.createContext("/", handler);
+    server.start();
+    return new LocalTestServer(server, executor);
+  }
+
+  public String getAppDomain() {
+    return "localhost:" + server.getAddress().getPort();
+  }
+
+  public String getBaseUrl() {
+    return "http://" + getAppDomain();
+  }
+
+  /**
+   * @return a {@link ClientOptions.Builder} for the test tenant on this server
+   */
+  public ClientOptions.Builder newClientOptionsBuilder() {
+    return ClientOptions.newBuilder().setTenantAlias(TENANT_ALIAS).setAppDomain(getAppDomain());
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdown();
+  }
+
+  /**
+   * Send a response, ignoring a client that is already gone, e.g. because it cancelled the request
+   */
+  public static void sendResponse(HttpExchange exchange, int statusCode, String contentType,
+      String body) {
+    final byte[] bodyBytes = body.getBytes(UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", contentType);
+    try {
+      exchange.sendResponseHeaders(statusCode, bodyBytes.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(bodyBytes);
+      }
+    } catch (IOException e) {
+      exchange.close();
+    }
+  }
+
+  public static void sendJson(HttpExchange exchange, int statusCode, String json) {
+    sendResponse(exchange, statusCode, "application/json", json);
+  }
+
+  /**
+   * Wait up to 5 seconds for the given condition, and fail the test if it's not met by then
+   */
+  public static void waitFor(Condition condition) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.isMet()) {
+      assertTrue(System.nanoTime() < deadline, "Timed out");
+      Thread.sleep(10);
+    }
+  }
+
+  public interface Condition {
+
+    boolean isMet();
+
+  }
+
+}